@@ -104,7 +104,8 @@ object Dependencies {
   val scalaMetaCore: ModuleID = "org.scalameta" %% "scalameta" % scalaMetaVersion withSources() exclude("com.google.protobuf", "protobuf-java")
   val fastparse: ModuleID = "com.lihaoyi" % s"fastparse_$scalaBinaryVersion" % "0.4.3" // transitive dependency of scalaMeta, needs explicit versioning
 
-  val bcel: ModuleID = "org.apache.bcel" % "bcel" % "6.0"
+  // the former class file reader of the decompiler, a baseline for ScalaSigExtractionBenchmark
+  val bcel: ModuleID = "org.apache.bcel" % "bcel" % "6.0" % Test
 
   // has to be in the compiler process classpath along with spray-json
   // when updating the version, do not forget to:
@@ -175,8 +176,7 @@ object DependencyGroups {
     scalaLibrary,
     scalaReflect,
     scalaCompiler,
-    commonsLang,
-    bcel
+    commonsLang
   )
 
   val runners: Seq[ModuleID] = Seq(
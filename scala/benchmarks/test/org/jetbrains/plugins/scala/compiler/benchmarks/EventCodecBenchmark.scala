@@ -0,0 +1,62 @@
+package org.jetbrains.plugins.scala.compiler.benchmarks
+
+import java.io.File
+import java.util.concurrent.TimeUnit
+
+import com.intellij.util.Base64Converter
+import org.jetbrains.jps.incremental.messages.BuildMessage.Kind
+import org.jetbrains.jps.incremental.scala.remote._
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * Compares the binary event protocol of the compile server with Java serialization + Base64.
+  *
+  * >jmh:run EventCodecBenchmark
+  */
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+class EventCodecBenchmark {
+
+  @Param(Array("generated", "processed", "message"))
+  var eventType: String = _
+
+  var event: Event = _
+  var legacyBytes: Array[Byte] = _
+  var binaryBytes: Array[Byte] = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    val source = new File("/home/user/project/module/src/main/scala/org/example/service/UserService.scala")
+    val module = new File("/home/user/project/module/target/scala-2.12/classes/org/example/service/UserService$.class")
+
+    event = eventType match {
+      case "generated" => GeneratedEvent(source, module, "org.example.service.UserService$")
+      case "processed" => SourceProcessedEvent(source)
+      case "message"   => MessageEvent(Kind.WARNING, "match may not be exhaustive.\nIt would fail on the following input: None", Some(source), Some(42L), Some(7L))
+    }
+
+    legacyBytes = Base64Converter.encode(event.toBytes).getBytes
+    binaryBytes = EventCodec.encode(event)
+  }
+
+  @Benchmark
+  def encodeLegacy(bh: Blackhole): Unit =
+    bh.consume(Base64Converter.encode(event.toBytes).getBytes)
+
+  @Benchmark
+  def encodeBinary(bh: Blackhole): Unit =
+    bh.consume(EventCodec.encode(event))
+
+  @Benchmark
+  def decodeLegacy(bh: Blackhole): Unit =
+    bh.consume(Event.fromBytes(Base64Converter.decode(legacyBytes)))
+
+  @Benchmark
+  def decodeBinary(bh: Blackhole): Unit =
+    bh.consume(EventCodec.decode(binaryBytes))
+}
@@ -0,0 +1,48 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+
+import com.intellij.psi.PsiManager
+import com.intellij.psi.impl.PsiModificationTrackerImpl
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.lang.psi.api.ScalaFile
+import org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiManager
+import org.openjdk.jmh.annotations._
+
+/**
+  * Base for benchmarks over a file of the corpus in `testdata/corpus`, opened in an editor of a light project with scala-library.
+  */
+@State(Scope.Benchmark)
+abstract class ScalaFileBenchmarkBase extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  @Param(Array("Collections.scala", "Typeclasses.scala"))
+  var corpusFile: String = _
+
+  var fileText: String = _
+  var file: ScalaFile = _
+  var scalaPsiManager: ScalaPsiManager = _
+  var psiModTracker: PsiModificationTrackerImpl = _
+
+  override def getName: String = "test" + corpusFile.stripSuffix(".scala")
+
+  protected def setupData(): Unit = {}
+
+  protected def dropCaches(): Unit = {
+    scalaPsiManager.clearCachesOnChange()
+    psiModTracker.incCounter()
+  }
+
+  @Setup(Level.Trial)
+  def trialSetup(): Unit = syncInEdt {
+    setUp()
+    fileText = corpusText(corpusFile)
+    file = configureFromFileText(fileText).asInstanceOf[ScalaFile]
+    scalaPsiManager = ScalaPsiManager.instance(getProject)
+    psiModTracker = PsiManager.getInstance(getProject).getModificationTracker.asInstanceOf[PsiModificationTrackerImpl]
+    setupData()
+  }
+
+  @TearDown(Level.Trial)
+  def trialTearDown(): Unit = syncInEdt {
+    tearDown()
+    scheduleShutdown(200L)
+  }
+}
@@ -12,6 +12,9 @@ import org.openjdk.jmh.annotations.{Measurement, OutputTimeUnit, Warmup, _}
 import org.openjdk.jmh.infra.Blackhole
 
 /**
+  * `interning` switches hash-consing of types, run with `-prof gc` to compare allocation rates.
+  * The switch is read once per JVM, each parameter value runs in its own fork.
+  *
   * @author Nikolay.Tropin
   */
 
@@ -19,6 +22,9 @@ import org.openjdk.jmh.infra.Blackhole
 @Fork(1)
 @State(Scope.Benchmark)
 abstract class TypeConformanceBenchmarkBase(testName: String) extends TypeConformanceTestBase {
+  @Param(Array("true", "false"))
+  var interning: Boolean = _
+
   var lType: ScType = _
   var rType: ScType = _
   var scalaPsiManager: ScalaPsiManager = _
@@ -41,6 +47,7 @@ abstract class TypeConformanceBenchmarkBase(testName: String) extends TypeConfor
 
   @Setup(Level.Trial)
   def trialSetup(): Unit = syncInEdt {
+    System.setProperty("scala.types.interning.disabled", (!interning).toString)
     setUp()
     setupData()
   }
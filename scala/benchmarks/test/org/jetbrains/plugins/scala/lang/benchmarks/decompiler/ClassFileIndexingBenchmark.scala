@@ -0,0 +1,104 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package decompiler
+
+import java.io.File
+import java.util.concurrent.TimeUnit
+import java.util.zip.ZipFile
+
+import com.intellij.openapi.util.io.FileUtil
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.decompiler.Decompiler
+import org.jetbrains.plugins.scala.lang.psi.compiled.ScClassFileDecompiler.ScClsStubBuilder
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import scala.collection.JavaConverters._
+
+/**
+  * Indexing of Scala class files of a library jar: decoding of their signatures into the decompiled text
+  * and building of stub trees from it, as done by [[ScClsStubBuilder]].
+  *
+  * `jar` is either a prefix of a jar name on the benchmark classpath or a path to a jar, e.g.
+  * >jmh:run ClassFileIndexingBenchmark -p jar=/path/to/spark-core_2.12-2.4.0.jar
+  */
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+class ClassFileIndexingBenchmark extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  import ClassFileIndexingBenchmark._
+
+  @Param(Array("scala-library", "scala-reflect"))
+  var jar: String = _
+
+  // names and contents of top-level class files
+  var classFiles: Array[(String, Array[Byte])] = _
+
+  override def getName: String = "testClassFileIndexing"
+
+  @Setup(Level.Trial)
+  def trialSetup(): Unit = {
+    syncInEdt(setUp())
+    classFiles = topLevelClassFiles(jar)
+  }
+
+  @TearDown(Level.Trial)
+  def trialTearDown(): Unit = syncInEdt {
+    tearDown()
+    scheduleShutdown(200L)
+  }
+
+  @Benchmark
+  def decompile(bh: Blackhole): Unit =
+    for ((name, bytes) <- classFiles) {
+      bh.consume(Decompiler.sourceNameAndText(name, bytes))
+    }
+
+  @Benchmark
+  def decompileAndBuildStubs(bh: Blackhole): Unit = syncInEdt {
+    for {
+      (name, bytes) <- classFiles
+      (sourceName, sourceText) <- Decompiler.sourceNameAndText(name, bytes)
+    } {
+      bh.consume(ScClsStubBuilder.buildFileStub(sourceName, sourceText, getProject, null))
+    }
+  }
+}
+
+object ClassFileIndexingBenchmark {
+
+  /**
+    * @return names and contents of top-level class files of the jar
+    */
+  def topLevelClassFiles(jar: String): Array[(String, Array[Byte])] = {
+    val zipFile = new ZipFile(findJar(jar))
+    try {
+      zipFile.entries.asScala
+        .filter(entry => entry.getName.endsWith(".class") && !entry.getName.contains("$"))
+        .map { entry =>
+          val name = entry.getName.substring(entry.getName.lastIndexOf('/') + 1)
+          (name, FileUtil.loadBytes(zipFile.getInputStream(entry)))
+        }
+        .toArray
+    } finally {
+      zipFile.close()
+    }
+  }
+
+  private def findJar(nameOrPath: String): File = {
+    val file = new File(nameOrPath)
+    if (file.isFile) file
+    else {
+      System.getProperty("java.class.path")
+        .split(File.pathSeparator)
+        .map(new File(_))
+        .find { entry =>
+          entry.getName.startsWith(nameOrPath) && entry.getName.endsWith(".jar")
+        }
+        .getOrElse(throw new IllegalArgumentException(s"No jar $nameOrPath on the classpath"))
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package decompiler
+
+import java.io.ByteArrayInputStream
+import java.nio.charset.StandardCharsets.UTF_8
+import java.util.concurrent.TimeUnit
+
+import org.apache.bcel.classfile.{ArrayElementValue, ClassParser, SimpleElementValue}
+import org.jetbrains.org.objectweb.asm._
+import org.jetbrains.plugins.scala.decompiler.Decompiler
+import org.jetbrains.plugins.scala.decompiler.scalasig.ScalaSigScanner
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+import scala.collection.mutable
+import scala.reflect.internal.pickling.ByteCodecs
+
+/**
+  * Extraction of decoded Scala signatures from top-level class files of a library jar,
+  * by [[ScalaSigScanner]] and, for comparison, by parsing the class files with BCEL, as the decompiler did before,
+  * and by reading them with ASM.
+  *
+  * `jar` is either a prefix of a jar name on the benchmark classpath or a path to a jar, e.g.
+  * >jmh:run ScalaSigExtractionBenchmark -p jar=/path/to/spark-core_2.12-2.4.0.jar
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+class ScalaSigExtractionBenchmark {
+
+  import ScalaSigExtractionBenchmark._
+
+  @Param(Array("scala-library", "scala-reflect"))
+  var jar: String = _
+
+  var classFiles: Array[Array[Byte]] = _
+
+  @Setup(Level.Trial)
+  def trialSetup(): Unit =
+    classFiles = ClassFileIndexingBenchmark.topLevelClassFiles(jar).map(_._2)
+
+  @Benchmark
+  def scanner(bh: Blackhole): Unit =
+    for (bytes <- classFiles) {
+      bh.consume(ScalaSigScanner.scan(bytes))
+    }
+
+  @Benchmark
+  def bcel(bh: Blackhole): Unit =
+    // like the decompiler did, class files without the marker are not parsed
+    for (bytes <- classFiles if Decompiler.mayBeScala(ClassFileName, bytes)) {
+      val parsed = new ClassParser(new ByteArrayInputStream(bytes), ClassFileName).parse()
+      val signature = for {
+        annotation <- parsed.getAnnotationEntries.find(entry => ScalaSignatureAnnotations(entry.getAnnotationType))
+        pair <- annotation.getElementValuePairs.find(_.getNameString == "bytes")
+      } yield {
+        val values = pair.getValue match {
+          case simpleValue: SimpleElementValue => Array(simpleValue)
+          case arrayValue: ArrayElementValue => arrayValue.getElementValuesArray.collect {
+            case simpleValue: SimpleElementValue => simpleValue
+          }
+        }
+        val bytes = Array.concat(values.map(_.getValueString.getBytes(UTF_8)): _*)
+        ByteCodecs.decode(bytes)
+        bytes
+      }
+      bh.consume(parsed.getSourceFileName)
+      bh.consume(signature)
+    }
+
+  @Benchmark
+  def asm(bh: Blackhole): Unit =
+    for (bytes <- classFiles) {
+      val visitor = new SignatureVisitor
+      new ClassReader(bytes).accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES)
+      bh.consume(visitor.signature)
+    }
+}
+
+object ScalaSigExtractionBenchmark {
+
+  private val ClassFileName = "Benchmark.class"
+
+  private val ScalaSignatureAnnotations = Set("Lscala/reflect/ScalaSignature;", "Lscala/reflect/ScalaLongSignature;")
+
+  private final class SignatureVisitor extends ClassVisitor(Opcodes.ASM6) {
+    var signature: Option[Array[Byte]] = None
+
+    override def visitAnnotation(desc: String, visible: Boolean): AnnotationVisitor = desc match {
+      case _ if ScalaSignatureAnnotations(desc) =>
+        new AnnotationVisitor(Opcodes.ASM6) {
+          private val parts = mutable.ArrayBuffer.empty[Array[Byte]]
+
+          override def visit(name: String, value: Any): Unit =
+            parts += value.asInstanceOf[String].getBytes(UTF_8)
+
+          // elements of `ScalaLongSignature`, visitEnd is called for the array and then for the annotation
+          override def visitArray(name: String): AnnotationVisitor = this
+
+          override def visitEnd(): Unit =
+            if (parts.nonEmpty && signature.isEmpty) {
+              val bytes = Array.concat(parts: _*)
+              ByteCodecs.decode(bytes)
+              signature = Some(bytes)
+            }
+        }
+      case _ => null
+    }
+  }
+}
@@ -0,0 +1,37 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package formatting
+
+import java.util.concurrent.TimeUnit
+
+import com.intellij.psi.PsiDocumentManager
+import com.intellij.psi.codeStyle.CodeStyleManager
+import org.jetbrains.plugins.scala.extensions.inWriteCommandAction
+import org.openjdk.jmh.annotations._
+
+/**
+  * Reformatting of a whole corpus file. The original text is restored before each invocation.
+  *
+  * >jmh:run FormattingBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class FormattingBenchmark extends ScalaFileBenchmarkBase {
+
+  @Setup(Level.Invocation)
+  def restoreText(): Unit = syncInEdt {
+    inWriteCommandAction {
+      getEditor.getDocument.setText(fileText)
+      PsiDocumentManager.getInstance(getProject).commitDocument(getEditor.getDocument)
+    }(getProject)
+  }
+
+  @Benchmark
+  def reformatFile(): Unit = syncInEdt {
+    inWriteCommandAction {
+      CodeStyleManager.getInstance(getProject).reformat(file)
+    }(getProject)
+  }
+}
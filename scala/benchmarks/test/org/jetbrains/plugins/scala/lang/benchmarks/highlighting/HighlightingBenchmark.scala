@@ -0,0 +1,27 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package highlighting
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * All highlighting passes, including the Scala annotator and inspections, over a corpus file
+  * with resolve and type caches dropped after each invocation.
+  *
+  * >jmh:run HighlightingBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class HighlightingBenchmark extends ScalaFileBenchmarkBase {
+
+  @Benchmark
+  def highlightFileUncached(bh: Blackhole): Unit = syncInEdt {
+    bh.consume(getFixture.doHighlighting())
+    dropCaches()
+  }
+}
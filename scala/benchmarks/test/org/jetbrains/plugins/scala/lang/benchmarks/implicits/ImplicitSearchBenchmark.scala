@@ -0,0 +1,64 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package implicits
+
+import java.util.concurrent.TimeUnit
+
+import com.intellij.openapi.progress.{EmptyProgressIndicator, ProgressManager}
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.ImplicitArgumentsOwner
+import org.jetbrains.plugins.scala.lang.psi.implicits.ImplicitCollector
+import org.jetbrains.plugins.scala.lang.psi.implicits.ImplicitCollector.ImplicitState
+import org.jetbrains.plugins.scala.settings.ScalaProjectSettings
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * Implicit search with `ImplicitCollector.collect` for all implicit parameters of a corpus file.
+  *
+  * Search states are recorded once by type inference of the file, so the measured part
+  * is the implicit search itself rather than inference of the surrounding expressions.
+  *
+  * `Derivation.scala` has a typeclass with dozens of instances in its companion, so all of them are checked
+  * for every search, it shows the effect of the parallel check of candidates.
+  * Candidates are checked in parallel only under a progress indicator, so searches run under one:
+  *
+  * >jmh:run ImplicitSearchBenchmark -p corpusFile=Derivation.scala
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class ImplicitSearchBenchmark extends ScalaFileBenchmarkBase {
+
+  @Param(Array("false", "true"))
+  var parallelCheck: Boolean = _
+
+  var states: Seq[ImplicitState] = _
+
+  override protected def setupData(): Unit = {
+    ScalaProjectSettings.getInstance(getProject).setParallelImplicitCandidatesCheck(parallelCheck)
+    ImplicitCollector.parallelChecksCount.set(0)
+
+    states = file.depthFirst()
+      .instancesOf[ImplicitArgumentsOwner]
+      .flatMap(_.findImplicitArguments.toSeq.flatten)
+      .flatMap(_.implicitSearchState)
+      .toVector
+  }
+
+  @Benchmark
+  def collectUncached(bh: Blackhole): Unit = syncInEdt {
+    val search: Runnable = () => states.foreach { state =>
+      bh.consume(new ImplicitCollector(state).collect())
+    }
+    ProgressManager.getInstance.runProcess(search, new EmptyProgressIndicator)
+    dropCaches()
+  }
+
+  @TearDown(Level.Iteration)
+  def checkPath(): Unit = {
+    val parallelChecks = ImplicitCollector.parallelChecksCount.get
+    assert(parallelCheck == (parallelChecks > 0), s"parallelCheck = $parallelCheck, but $parallelChecks searches were parallel")
+  }
+}
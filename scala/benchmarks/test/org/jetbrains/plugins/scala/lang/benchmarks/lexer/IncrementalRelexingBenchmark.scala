@@ -0,0 +1,138 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package lexer
+
+import java.util.concurrent.TimeUnit
+
+import com.intellij.openapi.editor.ex.util.LexerEditorHighlighter
+import com.intellij.openapi.editor.highlighter.{EditorHighlighterFactory, HighlighterClient}
+import com.intellij.openapi.editor.{Document, EditorFactory}
+import com.intellij.openapi.project.Project
+import org.jetbrains.plugins.scala.ScalaFileType
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.extensions.inWriteAction
+import org.openjdk.jmh.annotations._
+
+/**
+  * Relexing by the editor highlighter after a keystroke in a generated file of 10k lines,
+  * in plain code, inside a long multiline interpolated string and inside a long XML literal.
+  * `relexAll` relexes the whole file, for reference.
+  *
+  * >jmh:run IncrementalRelexingBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+class IncrementalRelexingBenchmark extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  import IncrementalRelexingBenchmark._
+
+  @Param(Array("code", "interpolatedString", "xml"))
+  var context: String = _
+
+  var document: Document = _
+  var highlighter: LexerEditorHighlighter = _
+  var offset: Int = _
+
+  override def getName: String = "testIncrementalRelexing"
+
+  @Setup(Level.Trial)
+  def trialSetup(): Unit = syncInEdt {
+    setUp()
+
+    val text = generatedText()
+    offset = text.indexOf(Markers(context))
+    document = EditorFactory.getInstance.createDocument(text)
+
+    highlighter = EditorHighlighterFactory.getInstance
+      .createEditorHighlighter(getProject, ScalaFileType.INSTANCE)
+      .asInstanceOf[LexerEditorHighlighter]
+    highlighter.setEditor(new StubClient(getProject, document))
+    highlighter.setText(document.getImmutableCharSequence)
+    document.addDocumentListener(highlighter)
+  }
+
+  @TearDown(Level.Trial)
+  def trialTearDown(): Unit = syncInEdt {
+    document.removeDocumentListener(highlighter)
+    tearDown()
+    scheduleShutdown(200L)
+  }
+
+  @Benchmark
+  def typeAndErase(): Unit = syncInEdt {
+    inWriteAction {
+      document.insertString(offset, "x")
+      document.deleteString(offset, offset + 1)
+    }
+  }
+
+  @Benchmark
+  def relexAll(): Unit = syncInEdt {
+    highlighter.setText(document.getImmutableCharSequence)
+  }
+}
+
+object IncrementalRelexingBenchmark {
+
+  private val Markers = Map(
+    "code" -> "codeMarker",
+    "interpolatedString" -> "stringMarker",
+    "xml" -> "xmlMarker"
+  )
+
+  private val Quotes = "\"\"\""
+
+  private class StubClient(project: Project, document: Document) extends HighlighterClient {
+    override def getProject: Project = project
+
+    override def repaint(start: Int, end: Int): Unit = {}
+
+    override def getDocument: Document = document
+  }
+
+  /**
+    * About 10k lines: plain code around a 2k-line interpolated string and a 2k-line XML literal,
+    * markers are in the middle of each.
+    */
+  private def generatedText(): String = {
+    val builder = new StringBuilder
+    def line(text: String): Unit = builder.append(text).append('\n')
+
+    def methods(prefix: String): Unit = for (i <- 1 to 500) {
+      line(s"  /** Computes `$prefix$i`. */")
+      line(s"  def $prefix$i(x: Int): String = {")
+      line(s"""    val y = x * $i + "$i".length // comment""")
+      line(s"""    if (y > 0) s"$$y: $${y + 1}" else "none"""")
+      line("  }")
+      line("")
+    }
+
+    line("package generated")
+    line("")
+    line("object Generated {")
+    methods("before")
+    line("  val codeMarker = 1")
+
+    line(s"  def template(title: String, items: Seq[Item]) = s$Quotes")
+    for (i <- 1 to 2000) {
+      if (i == 1000) line("    |stringMarker")
+      line(s"""    |line $i of $$title with $${items($i % items.size).name} and $${if (items.isEmpty) "{}" else s"$$i"}""")
+    }
+    line(s"    |$Quotes.stripMargin")
+
+    line("  def page(items: Seq[Item]) =")
+    line("    <html>")
+    for (i <- 1 to 2000) {
+      if (i == 1000) line("      <p>xmlMarker</p>")
+      line(s"""      <div class="row$i">{items.map(item => <span title={item.name}>{item.value + $i}</span>)}</div>""")
+    }
+    line("    </html>")
+
+    methods("after")
+    line("}")
+    builder.toString
+  }
+}
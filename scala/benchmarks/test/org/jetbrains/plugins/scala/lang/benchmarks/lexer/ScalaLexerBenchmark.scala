@@ -0,0 +1,42 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package lexer
+
+import java.util.concurrent.TimeUnit
+
+import org.jetbrains.plugins.scala.lang.lexer.ScalaLexer
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * Lexing of a whole corpus file, doesn't need a project.
+  *
+  * >jmh:run ScalaLexerBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+class ScalaLexerBenchmark {
+
+  @Param(Array("Collections.scala", "Typeclasses.scala"))
+  var corpusFile: String = _
+
+  var text: String = _
+
+  @Setup(Level.Trial)
+  def setup(): Unit = {
+    text = corpusText(corpusFile)
+  }
+
+  @Benchmark
+  def lexFile(bh: Blackhole): Unit = {
+    val lexer = new ScalaLexer()
+    lexer.start(text)
+    while (lexer.getTokenType != null) {
+      bh.consume(lexer.getTokenType)
+      lexer.advance()
+    }
+  }
+}
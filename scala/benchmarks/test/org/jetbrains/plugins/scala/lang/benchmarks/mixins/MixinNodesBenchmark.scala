@@ -0,0 +1,45 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package mixins
+
+import java.util.concurrent.TimeUnit
+
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.toplevel.typedef.ScTemplateDefinition
+import org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.TypeDefinitionMembers.{TermNodes, TypeNodes}
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * `MixinNodes.build` of term and type signatures for all template definitions of a corpus file.
+  *
+  * >jmh:run MixinNodesBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class MixinNodesBenchmark extends ScalaFileBenchmarkBase {
+
+  var definitions: Seq[ScTemplateDefinition] = _
+
+  override protected def setupData(): Unit = {
+    definitions = file.depthFirst().instancesOf[ScTemplateDefinition].toVector
+  }
+
+  @Benchmark
+  def buildTermNodes(bh: Blackhole): Unit = syncInEdt {
+    definitions.foreach { definition =>
+      bh.consume(TermNodes.build(definition))
+    }
+    dropCaches()
+  }
+
+  @Benchmark
+  def buildTypeNodes(bh: Blackhole): Unit = syncInEdt {
+    definitions.foreach { definition =>
+      bh.consume(TypeNodes.build(definition))
+    }
+    dropCaches()
+  }
+}
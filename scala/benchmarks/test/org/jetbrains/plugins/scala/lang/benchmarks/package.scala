@@ -1,7 +1,10 @@
 package org.jetbrains.plugins.scala.lang
 
+import java.io.File
 import java.util.{Timer, TimerTask}
 
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.util.text.StringUtil
 import com.intellij.testFramework.EdtTestUtil
 import com.intellij.util.ThrowableRunnable
 
@@ -16,6 +19,11 @@ package object benchmarks {
     new Timer().schedule(exitTask, delayMs)
   }
 
+  val corpusPath = "testdata/corpus/"
+
+  def corpusText(fileName: String): String =
+    StringUtil.convertLineSeparators(FileUtil.loadFile(new File(corpusPath + fileName), "UTF-8"))
+
   def syncInEdt(body: => Unit): Unit = EdtTestUtil.runInEdtAndWait(new ThrowableRunnable[Throwable] {
     override def run(): Unit = body
   })
@@ -0,0 +1,30 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package parser
+
+import java.util.concurrent.TimeUnit
+
+import com.intellij.psi.impl.source.tree.TreeUtil
+import org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiElementFactory
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * Parsing of a corpus file into a complete AST, including lazily parsed elements.
+  *
+  * >jmh:run ScalaParserBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class ScalaParserBenchmark extends ScalaFileBenchmarkBase {
+
+  @Benchmark
+  def parseFile(bh: Blackhole): Unit = syncInEdt {
+    val parsed = ScalaPsiElementFactory.createScalaFileFromText(fileText)(getProject)
+    val node = parsed.getNode
+    TreeUtil.ensureParsed(node)
+    bh.consume(node)
+  }
+}
@@ -0,0 +1,36 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package resolve
+
+import java.util.concurrent.TimeUnit
+
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.base.ScReference
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * Resolve of all references in a corpus file, with resolve and type caches dropped after each invocation.
+  *
+  * >jmh:run ReferenceResolveBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 10, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 3, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class ReferenceResolveBenchmark extends ScalaFileBenchmarkBase {
+
+  var references: Seq[ScReference] = _
+
+  override protected def setupData(): Unit = {
+    references = file.depthFirst().instancesOf[ScReference].toVector
+  }
+
+  @Benchmark
+  def resolveAllUncached(bh: Blackhole): Unit = syncInEdt {
+    references.foreach { ref =>
+      bh.consume(ref.multiResolveScala(false))
+    }
+    dropCaches()
+  }
+}
@@ -0,0 +1,28 @@
+package org.jetbrains.plugins.scala.lang.benchmarks
+package stubs
+
+import java.util.concurrent.TimeUnit
+
+import org.jetbrains.plugins.scala.lang.parser.ScalaParserDefinition
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+/**
+  * Building of a stub tree over the already parsed AST of a corpus file.
+  *
+  * >jmh:run StubBuildingBenchmark
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+class StubBuildingBenchmark extends ScalaFileBenchmarkBase {
+
+  private def stubBuilder = ScalaParserDefinition.FileNodeType.getBuilder
+
+  @Benchmark
+  def buildStubTree(bh: Blackhole): Unit = syncInEdt {
+    bh.consume(stubBuilder.buildStubTree(file))
+  }
+}
@@ -0,0 +1,167 @@
+package corpus.collections
+
+import scala.annotation.tailrec
+import scala.collection.mutable
+import scala.util.{Failure, Success, Try}
+
+final case class Account(id: Long, owner: String, balance: BigDecimal, tags: Set[String])
+
+sealed trait Transaction {
+  def accountId: Long
+  def amount: BigDecimal
+}
+
+object Transaction {
+  final case class Deposit(accountId: Long, amount: BigDecimal) extends Transaction
+  final case class Withdrawal(accountId: Long, amount: BigDecimal) extends Transaction
+  final case class Transfer(accountId: Long, to: Long, amount: BigDecimal) extends Transaction
+}
+
+trait Repository[K, V] {
+  def get(key: K): Option[V]
+  def put(key: K, value: V): Unit
+  def values: Iterable[V]
+
+  def getOrElse(key: K, default: => V): V = get(key).getOrElse(default)
+  def update(key: K)(f: V => V): Option[V] = get(key).map { v =>
+    val updated = f(v)
+    put(key, updated)
+    updated
+  }
+}
+
+class InMemoryRepository[K, V] extends Repository[K, V] {
+  private val storage = mutable.LinkedHashMap.empty[K, V]
+
+  override def get(key: K): Option[V] = storage.get(key)
+  override def put(key: K, value: V): Unit = storage.update(key, value)
+  override def values: Iterable[V] = storage.values
+}
+
+class Ledger(accounts: Repository[Long, Account]) {
+  import Transaction._
+
+  private val history = mutable.ArrayBuffer.empty[Transaction]
+
+  def apply(tx: Transaction): Either[String, Account] = tx match {
+    case Deposit(id, amount) if amount > 0 =>
+      record(tx, accounts.update(id)(a => a.copy(balance = a.balance + amount)))
+    case Withdrawal(id, amount) =>
+      accounts.get(id) match {
+        case Some(a) if a.balance >= amount =>
+          record(tx, accounts.update(id)(_.copy(balance = a.balance - amount)))
+        case Some(_) => Left(s"insufficient funds on $id")
+        case None => Left(s"unknown account $id")
+      }
+    case Transfer(from, to, amount) =>
+      for {
+        _ <- apply(Withdrawal(from, amount)).right
+        target <- apply(Deposit(to, amount)).right
+      } yield target
+    case other => Left(s"invalid transaction $other")
+  }
+
+  private def record(tx: Transaction, result: Option[Account]): Either[String, Account] =
+    result.map { account =>
+      history += tx
+      account
+    }.toRight(s"unknown account ${tx.accountId}")
+
+  def applyAll(txs: Seq[Transaction]): (Seq[Account], Seq[String]) = {
+    val results = txs.map(apply)
+    (results.collect { case Right(a) => a }, results.collect { case Left(e) => e })
+  }
+
+  def volumeByAccount: Map[Long, BigDecimal] =
+    history.groupBy(_.accountId).mapValues(_.map(_.amount).sum).toMap
+
+  def largest(n: Int): List[Transaction] =
+    history.sortBy(-_.amount).take(n).toList
+
+  def summary: String = {
+    val byType = history.groupBy(_.getClass.getSimpleName).map {
+      case (name, txs) => f"$name%-12s ${txs.size}%5d ${txs.map(_.amount).sum}%12.2f"
+    }
+    byType.toSeq.sorted.mkString("\n")
+  }
+}
+
+object Statistics {
+  def mean(xs: Seq[Double]): Option[Double] =
+    if (xs.isEmpty) None else Some(xs.sum / xs.size)
+
+  def median(xs: Seq[Double]): Option[Double] = xs.sorted match {
+    case Seq() => None
+    case sorted if sorted.size % 2 == 1 => Some(sorted(sorted.size / 2))
+    case sorted =>
+      val (lower, upper) = sorted.splitAt(sorted.size / 2)
+      Some((lower.last + upper.head) / 2)
+  }
+
+  def histogram(xs: Seq[Double], buckets: Int): Vector[Int] = {
+    require(buckets > 0)
+    if (xs.isEmpty) Vector.fill(buckets)(0)
+    else {
+      val (min, max) = (xs.min, xs.max)
+      val width = math.max((max - min) / buckets, Double.MinPositiveValue)
+      xs.foldLeft(Vector.fill(buckets)(0)) { (acc, x) =>
+        val idx = math.min(((x - min) / width).toInt, buckets - 1)
+        acc.updated(idx, acc(idx) + 1)
+      }
+    }
+  }
+
+  @tailrec
+  def gcd(a: Long, b: Long): Long = if (b == 0) a.abs else gcd(b, a % b)
+
+  def primes(limit: Int): Stream[Int] = {
+    def sieve(s: Stream[Int]): Stream[Int] = s.head #:: sieve(s.tail.filter(_ % s.head != 0))
+    sieve(Stream.from(2)).takeWhile(_ <= limit)
+  }
+}
+
+object Parsing {
+  private val Line = """(\d+);([^;]+);(-?\d+(?:\.\d+)?);(.*)""".r
+
+  def parseAccount(line: String): Try[Account] = line match {
+    case Line(id, owner, balance, tags) =>
+      Try(Account(id.toLong, owner.trim, BigDecimal(balance), tags.split(',').map(_.trim).filter(_.nonEmpty).toSet))
+    case _ => Failure(new IllegalArgumentException(s"malformed line: $line"))
+  }
+
+  def parseAll(lines: Iterator[String]): (List[Account], List[Throwable]) =
+    lines.map(parseAccount).foldRight((List.empty[Account], List.empty[Throwable])) {
+      case (Success(a), (as, es)) => (a :: as, es)
+      case (Failure(e), (as, es)) => (as, e :: es)
+    }
+
+  def index(accounts: Seq[Account]): Map[String, Seq[Account]] =
+    accounts
+      .flatMap(a => a.tags.toSeq.map(_ -> a))
+      .groupBy(_._1)
+      .map { case (tag, pairs) => tag -> pairs.map(_._2).sortBy(_.id) }
+}
+
+object Main {
+  def main(args: Array[String]): Unit = {
+    val repo = new InMemoryRepository[Long, Account]
+    val (accounts, errors) = Parsing.parseAll(Iterator("1;alice;100;vip,eu", "2;bob;20.5;us", "broken"))
+    accounts.foreach(a => repo.put(a.id, a))
+    errors.foreach(e => Console.err.println(e.getMessage))
+
+    val ledger = new Ledger(repo)
+    val (ok, failed) = ledger.applyAll(Seq(
+      Transaction.Deposit(1, 10),
+      Transaction.Transfer(1, 2, 50),
+      Transaction.Withdrawal(2, 1000)
+    ))
+
+    println(ok.map(_.owner).mkString(", "))
+    println(failed.mkString("\n"))
+    println(ledger.summary)
+    println(Statistics.median(repo.values.map(_.balance.toDouble).toSeq))
+    println(Statistics.histogram(Seq(1.0, 2.5, 3.5, 10.0), 3))
+    println(Statistics.primes(50).toList)
+    println(Parsing.index(repo.values.toSeq).keys.toList.sorted)
+  }
+}
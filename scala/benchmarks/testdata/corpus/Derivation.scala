@@ -0,0 +1,250 @@
+package corpus.derivation
+
+import scala.language.higherKinds
+
+trait Show[A] {
+  def show(a: A): String
+}
+
+object Show {
+  def apply[A](implicit s: Show[A]): Show[A] = s
+
+  def instance[A](f: A => String): Show[A] = new Show[A] {
+    override def show(a: A): String = f(a)
+  }
+
+  implicit val intShow: Show[Int] = instance(_.toString)
+  implicit val stringShow: Show[String] = instance(identity)
+  implicit val booleanShow: Show[Boolean] = instance(_.toString)
+
+  implicit def optionShow[A: Show]: Show[Option[A]] = instance(_.fold("None")(a => s"Some(${Show[A].show(a)})"))
+  implicit def listShow[A: Show]: Show[List[A]] = instance(_.map(Show[A].show).mkString("List(", ", ", ")"))
+  implicit def mapShow[K: Show, V: Show]: Show[Map[K, V]] =
+    instance(_.map { case (k, v) => s"${Show[K].show(k)} -> ${Show[V].show(v)}" }.mkString("Map(", ", ", ")"))
+  implicit def tupleShow[A: Show, B: Show]: Show[(A, B)] = instance { case (a, b) => s"(${Show[A].show(a)}, ${Show[B].show(b)})" }
+
+  implicit def record0Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record0] =
+    instance(r => s"Record0(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record1Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record1] =
+    instance(r => s"Record1(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record2Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record2] =
+    instance(r => s"Record2(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record3Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record3] =
+    instance(r => s"Record3(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record4Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record4] =
+    instance(r => s"Record4(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record5Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record5] =
+    instance(r => s"Record5(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record6Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record6] =
+    instance(r => s"Record6(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record7Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record7] =
+    instance(r => s"Record7(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record8Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record8] =
+    instance(r => s"Record8(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record9Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record9] =
+    instance(r => s"Record9(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record10Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record10] =
+    instance(r => s"Record10(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record11Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record11] =
+    instance(r => s"Record11(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record12Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record12] =
+    instance(r => s"Record12(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record13Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record13] =
+    instance(r => s"Record13(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record14Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record14] =
+    instance(r => s"Record14(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record15Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record15] =
+    instance(r => s"Record15(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record16Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record16] =
+    instance(r => s"Record16(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record17Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record17] =
+    instance(r => s"Record17(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record18Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record18] =
+    instance(r => s"Record18(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record19Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record19] =
+    instance(r => s"Record19(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record20Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record20] =
+    instance(r => s"Record20(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record21Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record21] =
+    instance(r => s"Record21(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record22Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record22] =
+    instance(r => s"Record22(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record23Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record23] =
+    instance(r => s"Record23(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record24Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record24] =
+    instance(r => s"Record24(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record25Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record25] =
+    instance(r => s"Record25(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record26Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record26] =
+    instance(r => s"Record26(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record27Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record27] =
+    instance(r => s"Record27(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record28Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record28] =
+    instance(r => s"Record28(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record29Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record29] =
+    instance(r => s"Record29(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record30Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record30] =
+    instance(r => s"Record30(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record31Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record31] =
+    instance(r => s"Record31(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record32Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record32] =
+    instance(r => s"Record32(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record33Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record33] =
+    instance(r => s"Record33(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record34Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record34] =
+    instance(r => s"Record34(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record35Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record35] =
+    instance(r => s"Record35(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record36Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record36] =
+    instance(r => s"Record36(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record37Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record37] =
+    instance(r => s"Record37(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record38Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record38] =
+    instance(r => s"Record38(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record39Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record39] =
+    instance(r => s"Record39(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record40Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record40] =
+    instance(r => s"Record40(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record41Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record41] =
+    instance(r => s"Record41(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record42Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record42] =
+    instance(r => s"Record42(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record43Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record43] =
+    instance(r => s"Record43(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record44Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record44] =
+    instance(r => s"Record44(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record45Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record45] =
+    instance(r => s"Record45(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record46Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record46] =
+    instance(r => s"Record46(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record47Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record47] =
+    instance(r => s"Record47(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record48Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record48] =
+    instance(r => s"Record48(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record49Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record49] =
+    instance(r => s"Record49(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record50Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record50] =
+    instance(r => s"Record50(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record51Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record51] =
+    instance(r => s"Record51(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record52Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record52] =
+    instance(r => s"Record52(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record53Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record53] =
+    instance(r => s"Record53(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record54Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record54] =
+    instance(r => s"Record54(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record55Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record55] =
+    instance(r => s"Record55(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record56Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record56] =
+    instance(r => s"Record56(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record57Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record57] =
+    instance(r => s"Record57(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record58Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record58] =
+    instance(r => s"Record58(${a.show(r.id)}, ${b.show(r.name)})")
+  implicit def record59Show(implicit a: Show[Int], b: Show[Option[String]]): Show[Record59] =
+    instance(r => s"Record59(${a.show(r.id)}, ${b.show(r.name)})")
+}
+
+final case class Record0(id: Int, name: Option[String])
+final case class Record1(id: Int, name: Option[String])
+final case class Record2(id: Int, name: Option[String])
+final case class Record3(id: Int, name: Option[String])
+final case class Record4(id: Int, name: Option[String])
+final case class Record5(id: Int, name: Option[String])
+final case class Record6(id: Int, name: Option[String])
+final case class Record7(id: Int, name: Option[String])
+final case class Record8(id: Int, name: Option[String])
+final case class Record9(id: Int, name: Option[String])
+final case class Record10(id: Int, name: Option[String])
+final case class Record11(id: Int, name: Option[String])
+final case class Record12(id: Int, name: Option[String])
+final case class Record13(id: Int, name: Option[String])
+final case class Record14(id: Int, name: Option[String])
+final case class Record15(id: Int, name: Option[String])
+final case class Record16(id: Int, name: Option[String])
+final case class Record17(id: Int, name: Option[String])
+final case class Record18(id: Int, name: Option[String])
+final case class Record19(id: Int, name: Option[String])
+final case class Record20(id: Int, name: Option[String])
+final case class Record21(id: Int, name: Option[String])
+final case class Record22(id: Int, name: Option[String])
+final case class Record23(id: Int, name: Option[String])
+final case class Record24(id: Int, name: Option[String])
+final case class Record25(id: Int, name: Option[String])
+final case class Record26(id: Int, name: Option[String])
+final case class Record27(id: Int, name: Option[String])
+final case class Record28(id: Int, name: Option[String])
+final case class Record29(id: Int, name: Option[String])
+final case class Record30(id: Int, name: Option[String])
+final case class Record31(id: Int, name: Option[String])
+final case class Record32(id: Int, name: Option[String])
+final case class Record33(id: Int, name: Option[String])
+final case class Record34(id: Int, name: Option[String])
+final case class Record35(id: Int, name: Option[String])
+final case class Record36(id: Int, name: Option[String])
+final case class Record37(id: Int, name: Option[String])
+final case class Record38(id: Int, name: Option[String])
+final case class Record39(id: Int, name: Option[String])
+final case class Record40(id: Int, name: Option[String])
+final case class Record41(id: Int, name: Option[String])
+final case class Record42(id: Int, name: Option[String])
+final case class Record43(id: Int, name: Option[String])
+final case class Record44(id: Int, name: Option[String])
+final case class Record45(id: Int, name: Option[String])
+final case class Record46(id: Int, name: Option[String])
+final case class Record47(id: Int, name: Option[String])
+final case class Record48(id: Int, name: Option[String])
+final case class Record49(id: Int, name: Option[String])
+final case class Record50(id: Int, name: Option[String])
+final case class Record51(id: Int, name: Option[String])
+final case class Record52(id: Int, name: Option[String])
+final case class Record53(id: Int, name: Option[String])
+final case class Record54(id: Int, name: Option[String])
+final case class Record55(id: Int, name: Option[String])
+final case class Record56(id: Int, name: Option[String])
+final case class Record57(id: Int, name: Option[String])
+final case class Record58(id: Int, name: Option[String])
+final case class Record59(id: Int, name: Option[String])
+
+object Usages {
+  val show0: String = Show[List[Record0]].show(List(Record0(0, Some("r0"))))
+  val pair0: String = Show[(Record0, Map[String, Record1])].show((Record0(0, None), Map.empty))
+  val show3: String = Show[List[Record3]].show(List(Record3(3, Some("r3"))))
+  val pair3: String = Show[(Record3, Map[String, Record4])].show((Record3(3, None), Map.empty))
+  val show6: String = Show[List[Record6]].show(List(Record6(6, Some("r6"))))
+  val pair6: String = Show[(Record6, Map[String, Record7])].show((Record6(6, None), Map.empty))
+  val show9: String = Show[List[Record9]].show(List(Record9(9, Some("r9"))))
+  val pair9: String = Show[(Record9, Map[String, Record10])].show((Record9(9, None), Map.empty))
+  val show12: String = Show[List[Record12]].show(List(Record12(12, Some("r12"))))
+  val pair12: String = Show[(Record12, Map[String, Record13])].show((Record12(12, None), Map.empty))
+  val show15: String = Show[List[Record15]].show(List(Record15(15, Some("r15"))))
+  val pair15: String = Show[(Record15, Map[String, Record16])].show((Record15(15, None), Map.empty))
+  val show18: String = Show[List[Record18]].show(List(Record18(18, Some("r18"))))
+  val pair18: String = Show[(Record18, Map[String, Record19])].show((Record18(18, None), Map.empty))
+  val show21: String = Show[List[Record21]].show(List(Record21(21, Some("r21"))))
+  val pair21: String = Show[(Record21, Map[String, Record22])].show((Record21(21, None), Map.empty))
+  val show24: String = Show[List[Record24]].show(List(Record24(24, Some("r24"))))
+  val pair24: String = Show[(Record24, Map[String, Record25])].show((Record24(24, None), Map.empty))
+  val show27: String = Show[List[Record27]].show(List(Record27(27, Some("r27"))))
+  val pair27: String = Show[(Record27, Map[String, Record28])].show((Record27(27, None), Map.empty))
+  val show30: String = Show[List[Record30]].show(List(Record30(30, Some("r30"))))
+  val pair30: String = Show[(Record30, Map[String, Record31])].show((Record30(30, None), Map.empty))
+  val show33: String = Show[List[Record33]].show(List(Record33(33, Some("r33"))))
+  val pair33: String = Show[(Record33, Map[String, Record34])].show((Record33(33, None), Map.empty))
+  val show36: String = Show[List[Record36]].show(List(Record36(36, Some("r36"))))
+  val pair36: String = Show[(Record36, Map[String, Record37])].show((Record36(36, None), Map.empty))
+  val show39: String = Show[List[Record39]].show(List(Record39(39, Some("r39"))))
+  val pair39: String = Show[(Record39, Map[String, Record40])].show((Record39(39, None), Map.empty))
+  val show42: String = Show[List[Record42]].show(List(Record42(42, Some("r42"))))
+  val pair42: String = Show[(Record42, Map[String, Record43])].show((Record42(42, None), Map.empty))
+  val show45: String = Show[List[Record45]].show(List(Record45(45, Some("r45"))))
+  val pair45: String = Show[(Record45, Map[String, Record46])].show((Record45(45, None), Map.empty))
+  val show48: String = Show[List[Record48]].show(List(Record48(48, Some("r48"))))
+  val pair48: String = Show[(Record48, Map[String, Record49])].show((Record48(48, None), Map.empty))
+  val show51: String = Show[List[Record51]].show(List(Record51(51, Some("r51"))))
+  val pair51: String = Show[(Record51, Map[String, Record52])].show((Record51(51, None), Map.empty))
+  val show54: String = Show[List[Record54]].show(List(Record54(54, Some("r54"))))
+  val pair54: String = Show[(Record54, Map[String, Record55])].show((Record54(54, None), Map.empty))
+  val show57: String = Show[List[Record57]].show(List(Record57(57, Some("r57"))))
+  val pair57: String = Show[(Record57, Map[String, Record58])].show((Record57(57, None), Map.empty))
+}
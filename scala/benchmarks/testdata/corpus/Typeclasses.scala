@@ -0,0 +1,153 @@
+package corpus.typeclasses
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.language.higherKinds
+
+trait Semigroup[A] {
+  def combine(x: A, y: A): A
+}
+
+trait Monoid[A] extends Semigroup[A] {
+  def empty: A
+}
+
+object Monoid {
+  def apply[A](implicit m: Monoid[A]): Monoid[A] = m
+
+  def instance[A](zero: A)(f: (A, A) => A): Monoid[A] = new Monoid[A] {
+    override def empty: A = zero
+    override def combine(x: A, y: A): A = f(x, y)
+  }
+
+  implicit val intMonoid: Monoid[Int] = instance(0)(_ + _)
+  implicit val stringMonoid: Monoid[String] = instance("")(_ + _)
+
+  implicit def listMonoid[A]: Monoid[List[A]] = instance(List.empty[A])(_ ++ _)
+
+  implicit def optionMonoid[A: Semigroup]: Monoid[Option[A]] = instance(Option.empty[A]) {
+    case (Some(x), Some(y)) => Some(implicitly[Semigroup[A]].combine(x, y))
+    case (x, None) => x
+    case (None, y) => y
+  }
+
+  implicit def mapMonoid[K, V: Monoid]: Monoid[Map[K, V]] = instance(Map.empty[K, V]) { (x, y) =>
+    y.foldLeft(x) { case (acc, (k, v)) =>
+      acc.updated(k, acc.get(k).fold(v)(Monoid[V].combine(_, v)))
+    }
+  }
+
+  implicit def tupleMonoid[A: Monoid, B: Monoid]: Monoid[(A, B)] =
+    instance((Monoid[A].empty, Monoid[B].empty)) { case ((a1, b1), (a2, b2)) =>
+      (Monoid[A].combine(a1, a2), Monoid[B].combine(b1, b2))
+    }
+}
+
+trait Functor[F[_]] {
+  def map[A, B](fa: F[A])(f: A => B): F[B]
+}
+
+trait Monad[F[_]] extends Functor[F] {
+  def pure[A](a: A): F[A]
+  def flatMap[A, B](fa: F[A])(f: A => F[B]): F[B]
+
+  override def map[A, B](fa: F[A])(f: A => B): F[B] = flatMap(fa)(a => pure(f(a)))
+}
+
+object Monad {
+  def apply[F[_]](implicit m: Monad[F]): Monad[F] = m
+
+  implicit val optionMonad: Monad[Option] = new Monad[Option] {
+    override def pure[A](a: A): Option[A] = Some(a)
+    override def flatMap[A, B](fa: Option[A])(f: A => Option[B]): Option[B] = fa.flatMap(f)
+  }
+
+  implicit val listMonad: Monad[List] = new Monad[List] {
+    override def pure[A](a: A): List[A] = List(a)
+    override def flatMap[A, B](fa: List[A])(f: A => List[B]): List[B] = fa.flatMap(f)
+  }
+
+  implicit def futureMonad(implicit ec: ExecutionContext): Monad[Future] = new Monad[Future] {
+    override def pure[A](a: A): Future[A] = Future.successful(a)
+    override def flatMap[A, B](fa: Future[A])(f: A => Future[B]): Future[B] = fa.flatMap(f)
+  }
+
+  implicit def eitherMonad[E]: Monad[({type L[A] = Either[E, A]})#L] = new Monad[({type L[A] = Either[E, A]})#L] {
+    override def pure[A](a: A): Either[E, A] = Right(a)
+    override def flatMap[A, B](fa: Either[E, A])(f: A => Either[E, B]): Either[E, B] = fa.right.flatMap(f)
+  }
+}
+
+object syntax {
+  implicit class MonoidOps[A](private val a: A) extends AnyVal {
+    def |+|(b: A)(implicit m: Monoid[A]): A = m.combine(a, b)
+  }
+
+  implicit class MonadOps[F[_], A](private val fa: F[A]) extends AnyVal {
+    def fmap[B](f: A => B)(implicit m: Monad[F]): F[B] = m.map(fa)(f)
+    def bind[B](f: A => F[B])(implicit m: Monad[F]): F[B] = m.flatMap(fa)(f)
+  }
+
+  implicit class FoldableOps[A](private val as: Seq[A]) extends AnyVal {
+    def combineAll(implicit m: Monoid[A]): A = as.foldLeft(m.empty)(m.combine)
+    def foldMap[B: Monoid](f: A => B): B = as.map(f).combineAll
+  }
+}
+
+trait Show[A] {
+  def show(a: A): String
+}
+
+object Show {
+  def apply[A](implicit s: Show[A]): Show[A] = s
+
+  implicit val intShow: Show[Int] = _.toString
+  implicit val stringShow: Show[String] = s => "\"" + s + "\""
+  implicit def listShow[A: Show]: Show[List[A]] = _.map(Show[A].show).mkString("[", ", ", "]")
+  implicit def optionShow[A: Show]: Show[Option[A]] = _.fold("none")(a => s"some(${Show[A].show(a)})")
+  implicit def mapShow[K: Show, V: Show]: Show[Map[K, V]] =
+    _.map { case (k, v) => s"${Show[K].show(k)} -> ${Show[V].show(v)}" }.mkString("{", ", ", "}")
+  implicit def tupleShow[A: Show, B: Show]: Show[(A, B)] = { case (a, b) => s"(${Show[A].show(a)}, ${Show[B].show(b)})" }
+}
+
+final case class Order(customer: String, items: List[String], total: Int)
+
+object Reports {
+  import syntax._
+
+  def itemCounts(orders: Seq[Order]): Map[String, Int] =
+    orders.foldMap(o => o.items.map(_ -> 1).toMap)
+
+  def totals(orders: Seq[Order]): Map[String, (Int, Int)] =
+    orders.foldMap(o => Map(o.customer -> (o.total, 1)))
+
+  def longestName(orders: Seq[Order]): Option[String] =
+    orders.map(o => Option(o.customer)).combineAll(Monoid.optionMonoid(new Semigroup[String] {
+      override def combine(x: String, y: String): String = if (x.length >= y.length) x else y
+    }))
+
+  def render[A: Show](title: String, a: A): String = s"$title: ${Show[A].show(a)}"
+
+  def validate(order: Order): Either[String, Order] =
+    for {
+      o <- Right(order).right
+      _ <- (if (o.items.nonEmpty) Right(()) else Left(s"empty order of ${o.customer}")).right
+      _ <- (if (o.total >= 0) Right(()) else Left("negative total")).right
+    } yield o
+
+  def pairs[F[_]: Monad, A, B](fa: F[A], fb: F[B]): F[(A, B)] =
+    fa.bind(a => fb.fmap(b => (a, b)))
+
+  def run(orders: Seq[Order])(implicit ec: ExecutionContext): Future[String] = {
+    val counts = Future(itemCounts(orders))
+    val sums = Future(totals(orders))
+    pairs[Future, Map[String, Int], Map[String, (Int, Int)]](counts, sums).map { case (c, s) =>
+      List(
+        render("items", c),
+        render("totals", s),
+        render("longest", longestName(orders)),
+        render("pairs", pairs(List(1, 2), List("a", "b"))),
+        render("sum", (List(1, 2, 3) |+| List(4)).combineAll)
+      ).mkString("\n")
+    }
+  }
+}
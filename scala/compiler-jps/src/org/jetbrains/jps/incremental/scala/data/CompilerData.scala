@@ -19,10 +19,6 @@ case class CompilerData(compilerJars: Option[CompilerJars],
 
 object CompilerData extends CompilerDataFactory {
 
-  private val JarExtension = ".jar"
-
-  private case class JarFileWithName(file: File, name: String)
-
   override def from(context: CompileContext, chunk: ModuleChunk): Either[String, CompilerData] = {
     val module = chunk.representativeTarget.getModule
 
@@ -34,9 +30,9 @@ object CompilerData extends CompilerDataFactory {
               val (messagePrefix, messageInfix) = if (files.isEmpty)
                 ("No", "")
               else
-                ("Multiple", s" files (${files.map(_.name).mkString(", ")})")
+                ("Multiple", s" files (${files.map(_.getName).mkString(", ")})")
 
-              Left(s"$messagePrefix '$kind*$JarExtension'$messageInfix in Scala compiler classpath in Scala SDK ${sdk.getName}")
+              Left(s"$messagePrefix '$kind*${CompilerDataKey.JarExtension}'$messageInfix in Scala compiler classpath in Scala SDK ${sdk.getName}")
           }, {
             case jars @ CompilerJars(library, compiler, extra) =>
               val absentJars = for {
@@ -84,10 +80,10 @@ object CompilerData extends CompilerDataFactory {
             .flatMap(references => Option(references.resolve))
         }
 
-        if (jvmSdk.map(_.getProperties).contains(moduleJdk)) Right(None)
-        else {
-          val directory = new File(moduleJdk.getHomePath)
-          Either.cond(directory.exists, Some(directory), "JDK home directory does not exists: " + directory)
+        val directory = new File(moduleJdk.getHomePath)
+        CompilerDataKey.javaHome(directory, jvmSdk.map(_.getProperties).contains(moduleJdk)) match {
+          case Some(_) if !directory.exists => Left("JDK home directory does not exists: " + directory)
+          case home => Right(home)
         }
       }
   }
@@ -108,40 +104,25 @@ object CompilerData extends CompilerDataFactory {
     SettingsManager.getScalaSdk(module)
       .flatMap(compilerJarsInSdk(_).toOption)
 
-  private def compilerJarsInSdk(sdk: JpsLibrary): Either[(String, Seq[JarFileWithName]), CompilerJars] = {
-    val files = sdk.getProperties match {
-      case settings: model.LibrarySettings =>
-        for {
-          file <- settings.getCompilerClasspath.toSeq
-          name = file.getName
-          if name.endsWith(JarExtension)
-        } yield JarFileWithName(file, name)
-      case _ =>
-        Seq.empty
+  private def compilerJarsInSdk(sdk: JpsLibrary): Either[(String, Seq[File]), CompilerJars] = {
+    val classpath = sdk.getProperties match {
+      case settings: model.LibrarySettings => settings.getCompilerClasspath.toSeq
+      case _ => Seq.empty
     }
 
     for {
-      library <- find(files, "scala-library")
-      compiler <- find(files, "scala-compiler")
+      jars <- CompilerDataKey.compilerJars(classpath)
+      (library, compiler, extra) = jars
 
-      extra = files.filter {
-        case `library` | `compiler` => false
-        case _ => true
-      }
-
-      _ <- if (versionIn(compiler.file, "2.10"))
+      _ <- if (versionIn(compiler, "2.10"))
         find(extra, "scala-reflect")
       else
         Right(null)
-    } yield CompilerJars(
-      library.file,
-      compiler.file,
-      extra.map(_.file)
-    )
+    } yield CompilerJars(library, compiler, extra)
   }
 
-  private def find(files: Seq[JarFileWithName], kind: String): Either[(String, Seq[JarFileWithName]), JarFileWithName] = {
-    val filesOfKind = files.filter(_.name.startsWith(kind)).distinct
+  private def find(files: Seq[File], kind: String): Either[(String, Seq[File]), File] = {
+    val filesOfKind = files.filter(_.getName.startsWith(kind)).distinct
     filesOfKind match {
       case Seq(file)  => Right(file)
       case duplicates => Left(kind, duplicates)
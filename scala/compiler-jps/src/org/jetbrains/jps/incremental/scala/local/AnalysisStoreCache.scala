@@ -0,0 +1,116 @@
+package org.jetbrains.jps.incremental.scala
+package local
+
+import java.io.File
+import java.util
+import java.util.Optional
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+
+import xsbti.compile.{AnalysisContents, AnalysisStore}
+
+/**
+ * Keeps loaded analyses of several modules in memory, within a heap budget.
+ *
+ * Unlike soft references, which are all cleared at once under GC pressure, entries are evicted in LRU order
+ * as soon as their estimated total weight exceeds `budgetBytes`. An analysis is loaded lazily, on the first `get`,
+ * and is reloaded when its file is changed on disk (e.g. by sbt).
+ */
+class AnalysisStoreCache(budgetBytes: Long) {
+  import AnalysisStoreCache._
+
+  private val lock = new Object()
+
+  // access-ordered, the eldest entry is the least recently used one
+  private val entries = new util.LinkedHashMap[File, Entry](16, 0.75F, true)
+  private var weight = 0L
+
+  private val everLoaded = ConcurrentHashMap.newKeySet[File]()
+
+  private val hits = new AtomicLong()
+  private val loads = new AtomicLong()
+  private val reloads = new AtomicLong()
+  private val evictions = new AtomicLong()
+
+  /**
+   * @param delegate an uncached store which actually reads and writes `file`
+   */
+  def storeFor(file: File, delegate: AnalysisStore): AnalysisStore = new AnalysisStore {
+    override def get(): Optional[AnalysisContents] = load(file, delegate)
+
+    override def set(contents: AnalysisContents): Unit = {
+      delegate.set(contents)
+      put(file, Optional.of(contents))
+    }
+  }
+
+  def stats: AnalysisStoreCacheStats = lock.synchronized {
+    AnalysisStoreCacheStats(entries.size, weight, budgetBytes, hits.get, loads.get, reloads.get, evictions.get)
+  }
+
+  private def load(file: File, delegate: AnalysisStore): Optional[AnalysisContents] = {
+    val stamp = Stamp(file)
+
+    lock.synchronized {
+      Option(entries.get(file)).filter(_.stamp == stamp)
+    } match {
+      case Some(entry) =>
+        hits.incrementAndGet()
+        entry.contents
+      case None =>
+        // analyses are large, load them outside of the lock
+        loads.incrementAndGet()
+        if (!everLoaded.add(file)) reloads.incrementAndGet()
+        val contents = delegate.get()
+        put(file, contents, stamp)
+        contents
+    }
+  }
+
+  private def put(file: File, contents: Optional[AnalysisContents], stamp: Stamp = null): Unit = {
+    val actualStamp = if (stamp == null) Stamp(file) else stamp
+    val entry = Entry(contents, actualStamp, estimateWeight(actualStamp))
+
+    lock.synchronized {
+      val previous = entries.put(file, entry)
+      if (previous != null) weight -= previous.weight
+      weight += entry.weight
+      evictOverBudget(file)
+    }
+  }
+
+  private def evictOverBudget(keep: File): Unit = {
+    val iterator = entries.entrySet().iterator()
+    while (weight > budgetBytes && iterator.hasNext) {
+      val eldest = iterator.next()
+      if (eldest.getKey != keep) {
+        weight -= eldest.getValue.weight
+        iterator.remove()
+        evictions.incrementAndGet()
+      }
+    }
+  }
+}
+
+object AnalysisStoreCache {
+  /**
+   * Analysis files are compressed, a loaded analysis takes roughly an order of magnitude more heap than its file.
+   */
+  private val ExpansionFactor = 10
+
+  private def estimateWeight(stamp: Stamp): Long = stamp.length * ExpansionFactor
+
+  private case class Stamp(length: Long, lastModified: Long)
+
+  private object Stamp {
+    def apply(file: File): Stamp = Stamp(file.length, file.lastModified)
+  }
+
+  private case class Entry(contents: Optional[AnalysisContents], stamp: Stamp, weight: Long)
+}
+
+case class AnalysisStoreCacheStats(entries: Int, bytesHeld: Long, budgetBytes: Long, hits: Long, loads: Long, reloads: Long, evictions: Long) {
+  override def toString: String =
+    s"entries: $entries, held: ${bytesHeld / 1024 / 1024} MB of ${budgetBytes / 1024 / 1024} MB, " +
+      s"hits: $hits, loads: $loads, reloads: $reloads, evictions: $evictions"
+}
@@ -4,22 +4,97 @@ package local
 import java.lang.ref.SoftReference
 import java.util
 import java.util.Map.Entry
+import java.util.concurrent.atomic.AtomicLong
 
 /**
+ * LRU cache of soft references.
+ *
+ * The map itself is guarded by a short lock which is never held while a value is being computed.
+ * Computation is synchronized per key, so concurrent requests for the same key wait for a single computation,
+ * while requests for other keys proceed in parallel.
+ *
  * @author Pavel Fatin
  */
 class Cache[K, V](capacity: Int) {
+  import Cache._
+
   private val lock = new Object()
 
-  private val map = new util.LinkedHashMap[K, SoftReference[V]](capacity, 0.75F, true) {
-    override def removeEldestEntry(eldest: Entry[K, SoftReference[V]]): Boolean = size > capacity
+  private val map = new util.LinkedHashMap[K, Slot[V]](capacity, 0.75F, true) {
+    override def removeEldestEntry(eldest: Entry[K, Slot[V]]): Boolean = {
+      val remove = size > capacity
+      if (remove) evictions.incrementAndGet()
+      remove
+    }
   }
 
-  def getOrUpdate(key: K)(value: => V): V = lock.synchronized {
-    Option(map.get(key)).flatMap(reference => Option(reference.get())).getOrElse {
-      val v = value
-      map.put(key, new SoftReference(v))
-      v
+  private val hits = new AtomicLong()
+  private val misses = new AtomicLong()
+  private val evictions = new AtomicLong()
+  private val loadTimeNanos = new AtomicLong()
+
+  def getOrUpdate(key: K)(value: => V): V = {
+    val slot = lock.synchronized {
+      val existing = map.get(key)
+      if (existing != null) existing
+      else {
+        val created = new Slot[V]
+        map.put(key, created)
+        created
+      }
+    }
+
+    slot.cached match {
+      case Some(v) =>
+        hits.incrementAndGet()
+        v
+      case None =>
+        slot.synchronized {
+          slot.cached match {
+            case Some(v) =>
+              hits.incrementAndGet()
+              v
+            case None =>
+              misses.incrementAndGet()
+              val start = System.nanoTime()
+              try {
+                val v = value
+                slot.reference = new SoftReference(v)
+                v
+              } finally {
+                loadTimeNanos.addAndGet(System.nanoTime() - start)
+              }
+          }
+        }
     }
   }
+
+  /**
+   * Doesn't count as an access, so the entry keeps its place in the LRU order.
+   * A value collected under memory pressure still counts as contained, it is recomputed on the next access.
+   */
+  def contains(key: K): Boolean = lock.synchronized(map.containsKey(key))
+
+  def size: Int = lock.synchronized(map.size)
+
+  def stats: CacheStats = CacheStats(hits.get, misses.get, evictions.get, loadTimeNanos.get)
+}
+
+object Cache {
+  private class Slot[V] {
+    @volatile var reference: SoftReference[V] = _
+
+    def cached: Option[V] = Option(reference).flatMap(r => Option(r.get()))
+  }
+}
+
+case class CacheStats(hits: Long, misses: Long, evictions: Long, loadTimeNanos: Long) {
+  def requests: Long = hits + misses
+
+  def hitRate: Double = if (requests == 0) 1.0 else hits.toDouble / requests
+
+  def averageLoadTimeMillis: Double = if (misses == 0) 0.0 else loadTimeNanos.toDouble / misses / 1000000
+
+  override def toString: String =
+    f"hits: $hits, misses: $misses, evictions: $evictions, hit rate: ${hitRate * 100}%.1f%%, average load: $averageLoadTimeMillis%.1f ms"
 }
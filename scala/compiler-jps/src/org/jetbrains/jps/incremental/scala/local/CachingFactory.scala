@@ -3,6 +3,7 @@ package local
 
 import java.io.File
 
+import com.intellij.openapi.diagnostic.{Logger => JpsLogger}
 import org.jetbrains.jps.incremental.scala.data.{CompilerData, CompilerJars, SbtData}
 import sbt.internal.inc.AnalyzingCompiler
 import xsbti.compile.AnalysisStore
@@ -10,24 +11,41 @@ import xsbti.compile.AnalysisStore
 /**
  * @author Pavel Fatin
  */
-class CachingFactory(delegate: CompilerFactory, compilersLimit: Int, analysisLimit: Int, scalacLimit: Int) extends CompilerFactory {
+class CachingFactory(delegate: CompilerFactory, compilersLimit: Int, analysisBudgetBytes: Long, scalacLimit: Int) extends CompilerFactory {
   private val compilerCache = new Cache[CompilerData, Compiler](compilersLimit)
 
-  private val analysisCache = new Cache[File, AnalysisStore](analysisLimit)
+  private val analysisCache = new AnalysisStoreCache(analysisBudgetBytes)
 
   private val scalacCache = new Cache[(SbtData, Option[CompilerJars]), Option[AnalyzingCompiler]](scalacLimit)
 
   def createCompiler(compilerData: CompilerData, client: Client, fileToStore: File => AnalysisStore): Compiler = {
-    val cachingFileToStore = (file: File) => analysisCache.getOrUpdate(file)(fileToStore(file))
+    val cachingFileToStore = (file: File) => AnalysisStore.getThreadSafeStore(analysisCache.storeFor(file, fileToStore(file)))
 
-    compilerCache.getOrUpdate(compilerData) {
+    val compiler = compilerCache.getOrUpdate(compilerData) {
       delegate.createCompiler(compilerData, client, cachingFileToStore)
     }
+    logStats()
+    compiler
   }
 
+  def analysisStats: AnalysisStoreCacheStats = analysisCache.stats
+
+  def hasCompiler(compilerData: CompilerData): Boolean =
+    compilerCache.contains(compilerData)
+
   def getScalac(sbtData: SbtData, compilerJars: Option[CompilerJars], client: Client): Option[AnalyzingCompiler] = {
     scalacCache.getOrUpdate((sbtData, compilerJars)) {
       delegate.getScalac(sbtData, compilerJars, client)
     }
   }
+
+  private def logStats(): Unit = if (CachingFactory.Log.isDebugEnabled) {
+    CachingFactory.Log.debug(s"Compiler cache: ${compilerCache.stats}")
+    CachingFactory.Log.debug(s"Analysis cache: ${analysisCache.stats}")
+    CachingFactory.Log.debug(s"Scalac cache: ${scalacCache.stats}")
+  }
+}
+
+object CachingFactory {
+  private val Log: JpsLogger = JpsLogger.getInstance(CachingFactory.getClass.getName)
 }
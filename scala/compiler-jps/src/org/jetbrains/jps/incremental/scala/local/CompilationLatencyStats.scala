@@ -0,0 +1,35 @@
+package org.jetbrains.jps.incremental.scala
+package local
+
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * Compares compilations which had to instantiate a compiler ("cold") with those reusing a cached one ("warm").
+ */
+class CompilationLatencyStats {
+  private val cold = new Latencies
+  private val warm = new Latencies
+
+  def record(isWarm: Boolean, instantiationNanos: Long, compilationNanos: Long): Unit =
+    (if (isWarm) warm else cold).record(instantiationNanos, compilationNanos)
+
+  override def toString: String = s"cold: $cold; warm: $warm"
+
+  private class Latencies {
+    private val count = new LongAdder
+    private val instantiationNanos = new LongAdder
+    private val compilationNanos = new LongAdder
+
+    def record(instantiation: Long, compilation: Long): Unit = {
+      count.increment()
+      instantiationNanos.add(instantiation)
+      compilationNanos.add(compilation)
+    }
+
+    override def toString: String = {
+      val n = count.sum
+      def average(nanos: LongAdder) = if (n == 0) 0L else nanos.sum / n / 1000000
+      s"$n compilations, average instantiation ${average(instantiationNanos)} ms, average compilation ${average(compilationNanos)} ms"
+    }
+  }
+}
@@ -3,6 +3,7 @@ package local
 
 import java.io.File
 import java.util.ServiceLoader
+import java.util.concurrent.{ConcurrentHashMap, Semaphore, TimeUnit}
 
 import com.intellij.openapi.diagnostic.{Logger => JpsLogger}
 import org.jetbrains.jps.incremental.ModuleLevelBuilder.ExitCode
@@ -11,17 +12,32 @@ import xsbti.compile.AnalysisStore
 import sbt.internal.inc.FileAnalysisStore
 
 import scala.collection.JavaConverters._
+import scala.util.Try
 
 /**
+ * Compiles module chunks, possibly for several clients at once.
+ *
+ * Chunks with different cache files are compiled in parallel, at most [[LocalServer.Parallelism]] at a time;
+ * chunks sharing a cache file are compiled one after another.
+ *
  * @author Pavel Fatin
  */
 class LocalServer extends Server {
-  private var cachedCompilerFactory: Option[CompilerFactory] = None
+  @volatile private var cachedCompilerFactory: Option[CachingFactory] = None
   private val lock = new Object()
 
+  private val compilationPermits = new Semaphore(LocalServer.Parallelism, true)
+  private val cacheFileLocks = new ConcurrentHashMap[File, Object]()
+
+  private val latencyStats = new CompilationLatencyStats
+
   def compile(sbtData: SbtData, compilerData: CompilerData, compilationData: CompilationData, client: Client): ExitCode = {
-    val compiler = try lock.synchronized {
+    val instantiationStart = System.nanoTime()
+    var isWarm = false
+
+    val compiler = try {
       val compilerFactory = compilerFactoryFrom(sbtData, compilerData)
+      isWarm = compilerFactory.hasCompiler(compilerData)
 
       client.progress("Instantiating compiler...")
       compilerFactory.createCompiler(compilerData, client, LocalServer.createAnalysisStore)
@@ -31,30 +47,104 @@ class LocalServer extends Server {
         throw e
     }
 
+    val compilationStart = System.nanoTime()
+
     if (!client.isCanceled) {
-      compiler.compile(compilationData, client)
+      withCompilationPermit(compilationData, client) {
+        compiler.compile(compilationData, client)
+      }
     }
 
+    latencyStats.record(isWarm, compilationStart - instantiationStart, System.nanoTime() - compilationStart)
+    LocalServer.Log.info(s"Compilation latency, $latencyStats")
+    cachedCompilerFactory.foreach(factory => LocalServer.Log.info(s"Analysis cache, ${factory.analysisStats}"))
+
     client.compilationEnd()
     ExitCode.OK
   }
 
-  private def compilerFactoryFrom(sbtData: SbtData, compilerData: CompilerData): CompilerFactory = cachedCompilerFactory.getOrElse {
-    val cf = ServiceLoader.load(classOf[CompilerFactoryService])
-    val registeredCompilerFactories = cf.iterator().asScala.toList
-    LocalServer.Log.info(s"Registered factories of ${classOf[CompilerFactoryService].getName}: $registeredCompilerFactories")
-    val firstEnabledCompilerFactory = registeredCompilerFactories.find(_.isEnabled(compilerData))
-    LocalServer.Log.info(s"First enabled factory (if any): $firstEnabledCompilerFactory")
-    val factory = new CachingFactory(firstEnabledCompilerFactory.map(_.get(sbtData)).getOrElse(new CompilerFactoryImpl(sbtData)), 10, 600, 10)
-    cachedCompilerFactory = Some(factory)
-    factory
+  /**
+   * Instantiates and caches a compiler for `compilerData`, then compiles the (small) `compilationData`
+   * a few times so that the following builds find the compiler loaded and JIT-compiled.
+   */
+  def warmUp(sbtData: SbtData, compilerData: CompilerData, compilationData: CompilationData, client: Client): Unit = {
+    val compilerFactory = compilerFactoryFrom(sbtData, compilerData)
+    if (compilerFactory.hasCompiler(compilerData)) return
+
+    val start = System.nanoTime()
+    val compiler = compilerFactory.createCompiler(compilerData, client, LocalServer.createAnalysisStore)
+
+    for (_ <- 1 to LocalServer.WarmUpIterations if !client.isCanceled) {
+      withCompilationPermit(compilationData, client) {
+        compiler.compile(compilationData, client)
+      }
+    }
+
+    val jars = compilerData.compilerJars.map(_.compiler.getName).getOrElse("no compiler jars")
+    LocalServer.Log.info(s"Warmed up compiler ($jars) in ${(System.nanoTime() - start) / 1000000} ms")
+  }
+
+  private def withCompilationPermit(compilationData: CompilationData, client: Client)(body: => Unit): Unit = {
+    if (!compilationPermits.tryAcquire()) {
+      client.progress("Waiting for other modules to compile...")
+      while (!compilationPermits.tryAcquire(LocalServer.PermitPollingIntervalMs, TimeUnit.MILLISECONDS)) {
+        if (client.isCanceled) return
+      }
+    }
+
+    try {
+      // worksheets, the evaluator and warm-up requests don't use a cache file
+      val cacheFileLock =
+        if (compilationData.cacheFile.getPath.isEmpty) new Object()
+        else cacheFileLocks.computeIfAbsent(compilationData.cacheFile, _ => new Object())
+      cacheFileLock.synchronized {
+        if (!client.isCanceled) body
+      }
+    } finally {
+      compilationPermits.release()
+    }
+  }
+
+  private def compilerFactoryFrom(sbtData: SbtData, compilerData: CompilerData): CachingFactory = cachedCompilerFactory.getOrElse {
+    lock.synchronized {
+      cachedCompilerFactory.getOrElse {
+        val cf = ServiceLoader.load(classOf[CompilerFactoryService])
+        val registeredCompilerFactories = cf.iterator().asScala.toList
+        LocalServer.Log.info(s"Registered factories of ${classOf[CompilerFactoryService].getName}: $registeredCompilerFactories")
+        val firstEnabledCompilerFactory = registeredCompilerFactories.find(_.isEnabled(compilerData))
+        LocalServer.Log.info(s"First enabled factory (if any): $firstEnabledCompilerFactory")
+        val delegate = firstEnabledCompilerFactory.map(_.get(sbtData)).getOrElse(new CompilerFactoryImpl(sbtData))
+        val factory = new CachingFactory(delegate, LocalServer.CompilersLimit, LocalServer.AnalysisBudgetBytes, LocalServer.ScalacLimit)
+        cachedCompilerFactory = Some(factory)
+        factory
+      }
+    }
   }
 }
 
 object LocalServer {
   private val Log: JpsLogger = JpsLogger.getInstance(LocalServer.getClass.getName)
-  private def createAnalysisStore(cacheFile: File): AnalysisStore = {
-    val store = FileAnalysisStore.binary(cacheFile)
-    AnalysisStore.getThreadSafeStore(AnalysisStore.getCachedStore(store))
-  }
-}
\ No newline at end of file
+
+  private val PermitPollingIntervalMs = 1000L
+
+  /**
+   * Maximum number of chunks compiled simultaneously, set by the IDE via "-Dcompile.parallelism"
+   */
+  val Parallelism: Int = intProperty("compile.parallelism", Runtime.getRuntime.availableProcessors)
+
+  private val CompilersLimit = intProperty("compile.server.compilers.limit", 10)
+  // heap for loaded analyses, a quarter of the server heap by default
+  private val AnalysisBudgetBytes = intProperty("compile.server.analysis.budget.mb", (Runtime.getRuntime.maxMemory / 4 / 1024 / 1024).toInt) * 1024L * 1024L
+  private val ScalacLimit = intProperty("compile.server.scalac.limit", 10)
+
+  private val WarmUpIterations = intProperty("compile.server.warmup.iterations", 3)
+
+  private def intProperty(name: String, default: => Int): Int = Option(System.getProperty(name))
+    .flatMap(s => Try(s.toInt).toOption)
+    .filter(_ > 0)
+    .getOrElse(default)
+
+  // caching and thread safety are provided by CachingFactory
+  private def createAnalysisStore(cacheFile: File): AnalysisStore =
+    FileAnalysisStore.binary(cacheFile)
+}
@@ -0,0 +1,80 @@
+package org.jetbrains.jps.incremental.scala.remote
+
+import java.util.concurrent.{Executors, ScheduledExecutorService, ThreadFactory, TimeUnit}
+
+import com.intellij.openapi.diagnostic.{Logger => JpsLogger}
+
+import scala.collection.mutable.ArrayBuffer
+import scala.util.control.NonFatal
+
+/**
+ * Coalesces consecutive [[GeneratedEvent]]s and [[SourceProcessedEvent]]s into [[EventBatch]]es.
+ *
+ * A batch is flushed when it reaches `maxSize` events, when it is older than `maxDelayMs`,
+ * or right before any other event, so the relative order of all events is preserved.
+ */
+class EventBatcher(writeEvent: Event => Unit, maxSize: Int, maxDelayMs: Long) {
+
+  import EventBatcher._
+
+  private val buffer = ArrayBuffer[Event]()
+  private var bufferedSince = 0L
+
+  private val staleFlush = Scheduler.scheduleWithFixedDelay(new Runnable {
+    override def run(): Unit = flushIfStale()
+  }, maxDelayMs, maxDelayMs, TimeUnit.MILLISECONDS)
+
+  def listener(event: Event): Unit = synchronized {
+    event match {
+      case _: GeneratedEvent | _: SourceProcessedEvent =>
+        if (buffer.isEmpty) bufferedSince = System.currentTimeMillis()
+        buffer += event
+        if (buffer.size >= maxSize) flush()
+      case _ =>
+        flush()
+        writeEvent(event)
+    }
+  }
+
+  def flush(): Unit = synchronized {
+    // events that failed to be written are not retried
+    try buffer.size match {
+      case 0 =>
+      case 1 => writeEvent(buffer.head)
+      case _ => writeEvent(EventBatch(buffer.toVector))
+    } finally buffer.clear()
+  }
+
+  def complete(): Unit = {
+    staleFlush.cancel(false)
+    flush()
+  }
+
+  // an exception thrown from a periodic task would silently cancel all its further runs
+  private def flushIfStale(): Unit = synchronized {
+    try {
+      if (buffer.nonEmpty && System.currentTimeMillis() - bufferedSince >= maxDelayMs) {
+        flush()
+      }
+    } catch {
+      case NonFatal(e) => Log.warn("Failed to flush batched events", e)
+    }
+  }
+}
+
+object EventBatcher {
+  val DefaultMaxSize = 500
+
+  val DefaultMaxDelayMs = 100L
+
+  private val Log: JpsLogger = JpsLogger.getInstance(EventBatcher.getClass.getName)
+
+  // shared by all compilations, which run concurrently in the compile server
+  private val Scheduler: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor(new ThreadFactory {
+    override def newThread(r: Runnable): Thread = {
+      val thread = new Thread(r, "compile-server-event-batcher")
+      thread.setDaemon(true)
+      thread
+    }
+  })
+}
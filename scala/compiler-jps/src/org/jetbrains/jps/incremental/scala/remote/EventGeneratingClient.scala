@@ -11,13 +11,23 @@ import sbt.internal.inc.CompileFailed
  * @author Pavel Fatin
  * @see [[org.jetbrains.jps.incremental.scala.ClientEventProcessor]]
  */
-class EventGeneratingClient(writeEvent: Event => Unit, canceled: => Boolean) extends Client with AutoCloseable {
+class EventGeneratingClient(writeEvent: Event => Unit, canceled: => Boolean, batchEvents: Boolean = false) extends Client with AutoCloseable {
 
   private val eventGenerator = new AsynchEventGenerator(writeEvent)
-  import eventGenerator.listener
 
-  override def close(): Unit =
+  private val eventBatcher =
+    if (batchEvents) Some(new EventBatcher(eventGenerator.listener, EventBatcher.DefaultMaxSize, EventBatcher.DefaultMaxDelayMs))
+    else None
+
+  private val listener: Event => Unit = eventBatcher match {
+    case Some(batcher) => batcher.listener
+    case None => eventGenerator.listener
+  }
+
+  override def close(): Unit = {
+    eventBatcher.foreach(_.complete())
     eventGenerator.complete(20, TimeUnit.MINUTES)
+  }
 
   override def isCanceled: Boolean = canceled
 
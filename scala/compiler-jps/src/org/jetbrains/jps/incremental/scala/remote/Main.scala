@@ -20,7 +20,14 @@ object Main {
   private val server = new LocalServer()
   private val worksheetServer = new WorksheetServer
 
+  // guarded by `this`, together with the shutdown timer
   private var shutdownTimer: Timer = _
+  private var activeNails = 0
+
+  // Nailgun runs each nail in its own thread, so several compilations may redirect stdout at once
+  private val outLock = new Object()
+  private var outRedirections = 0
+  private var originalOut: PrintStream = _
 
   /**
    * This method is called by NGServer
@@ -32,27 +39,38 @@ object Main {
    *      [[com.martiansoftware.nailgun.NGServer:198]]<br>
    */
   def nailMain(context: NGContext): Unit = {
-    cancelShutdown()
-    make(context.getArgs.toSeq, context.out, context.getNGServer.getPort, standalone = false)
-    resetShutdownTimer(context)
+    nailStarted()
+    try {
+      val eventProtocol = EventCodec.negotiate(Option(context.getEnv.getProperty(EventCodec.ProtocolVersionKey)))
+      val warmUp = context.getEnv.getProperty(RemoteResourceOwner.WarmUpKey) == "true"
+      make(context.getArgs.toSeq, context.out, context.getNGServer.getPort, standalone = false, eventProtocol, warmUp)
+    } finally {
+      nailFinished(context)
+    }
   }
 
   // Started by NonServerRunner
   def main(args: Array[String]): Unit = {
-    make(args, System.out, -1, standalone = true)
+    make(args, System.out, -1, standalone = true, eventProtocol = None, warmUp = false)
   }
 
-  private def make(argsEncoded: Seq[String], out: PrintStream, port: Int, standalone: Boolean): Unit = {
-    var hasErrors = false
+  private def make(argsEncoded: Seq[String], out: PrintStream, port: Int, standalone: Boolean, eventProtocol: Option[Int], warmUp: Boolean): Unit = {
+    @volatile var hasErrors = false
 
     val client: EventGeneratingClient = {
       val eventHandler = (event: Event) => {
-        val encoded = Base64Converter.encode(event.toBytes)
-        val encodedNormalized = if (standalone && !encoded.endsWith("=")) encoded + "=" else encoded
-        val bytes = encodedNormalized.getBytes
+        val bytes = eventProtocol match {
+          case Some(version) =>
+            EventCodec.encode(event, version)
+          case None =>
+            val encoded = Base64Converter.encode(event.toBytes)
+            val encodedNormalized = if (standalone && !encoded.endsWith("=")) encoded + "=" else encoded
+            encodedNormalized.getBytes
+        }
         out.write(bytes)
       }
-      new EventGeneratingClient(eventHandler, out.checkError) {
+      val batchEvents = eventProtocol.exists(_ >= EventCodec.BatchingVersion)
+      new EventGeneratingClient(eventHandler, out.checkError, batchEvents) {
         override def error(text: String, source: Option[File], line: Option[Long], column: Option[Long]): Unit = {
           hasErrors = true
           super.error(text, source, line, column)
@@ -65,9 +83,8 @@ object Main {
       }
     }
 
-    val oldOut = System.out
     // Suppress any stdout data, interpret such data as error
-    System.setOut(System.err)
+    redirectOut()
 
     try {
       val args: Arguments = decodeArguments(argsEncoded)
@@ -84,12 +101,16 @@ object Main {
         }
       }
 
-      if (!worksheetServer.isRepl(args)) {
-        server.compile(args.sbtData, args.compilerData, args.compilationData, client)
-      }
+      if (warmUp) {
+        server.warmUp(args.sbtData, args.compilerData, args.compilationData, client)
+      } else {
+        if (!worksheetServer.isRepl(args)) {
+          server.compile(args.sbtData, args.compilerData, args.compilationData, client)
+        }
 
-      if (!hasErrors) {
-        worksheetServer.loadAndRun(args, out, client, standalone)
+        if (!hasErrors) {
+          worksheetServer.loadAndRun(args, out, client, standalone)
+        }
       }
     } catch {
       case e: Throwable =>
@@ -97,7 +118,23 @@ object Main {
     } finally {
       client.processingEnd()
       client.close()
-      System.setOut(oldOut)
+      restoreOut()
+    }
+  }
+
+  private def redirectOut(): Unit = outLock.synchronized {
+    if (outRedirections == 0) {
+      originalOut = System.out
+      System.setOut(System.err)
+    }
+    outRedirections += 1
+  }
+
+  private def restoreOut(): Unit = outLock.synchronized {
+    outRedirections -= 1
+    if (outRedirections == 0) {
+      System.setOut(originalOut)
+      originalOut = null
     }
   }
 
@@ -135,6 +172,18 @@ object Main {
 
   private class TokenVerificationException(message: String) extends Exception(message)
 
+  private def nailStarted(): Unit = synchronized {
+    activeNails += 1
+    cancelShutdown()
+  }
+
+  private def nailFinished(context: NGContext): Unit = synchronized {
+    activeNails -= 1
+    if (activeNails == 0) {
+      resetShutdownTimer(context)
+    }
+  }
+
   private def cancelShutdown(): Unit = synchronized {
     if (shutdownTimer != null) {
       shutdownTimer.cancel()
@@ -142,19 +191,20 @@ object Main {
     }
   }
 
-  private def resetShutdownTimer(context: NGContext): Unit = {
+  private def resetShutdownTimer(context: NGContext): Unit = synchronized {
     val delay = Option(System.getProperty("shutdown.delay")).map(_.toInt)
     delay.foreach { t =>
       val delayMs = t * 60 * 1000
       val shutdownTask = new TimerTask {
-        override def run(): Unit = context.getNGServer.shutdown(true)
+        // a nail may have started after the task was due but before it could be cancelled
+        override def run(): Unit = Main.synchronized {
+          if (activeNails == 0) context.getNGServer.shutdown(true)
+        }
       }
 
-      synchronized {
-        cancelShutdown()
-        shutdownTimer = new Timer()
-        shutdownTimer.schedule(shutdownTask, delayMs)
-      }
+      cancelShutdown()
+      shutdownTimer = new Timer()
+      shutdownTimer.schedule(shutdownTask, delayMs)
     }
   }
 }
@@ -0,0 +1,41 @@
+package org.jetbrains.jps.incremental.scala
+package data
+
+import java.io.File
+
+/**
+ * Derivation of the parts of `CompilerData` by which the compile server caches compilers.
+ *
+ * Used both by JPS builds and by the compile server warm-up in the IDE,
+ * so that a warmed up compiler is found by the first real build.
+ */
+object CompilerDataKey {
+
+  val JarExtension = ".jar"
+
+  /**
+   * Scala library jar, Scala compiler jar and the remaining jars of an SDK compiler classpath, in this order.
+   *
+   * @return either the kind of a missing or duplicated jar with all jars of that kind, or the ordered jars
+   */
+  def compilerJars(classpath: Seq[File]): Either[(String, Seq[File]), (File, File, Seq[File])] = {
+    val jars = classpath.filter(_.getName.endsWith(JarExtension))
+
+    for {
+      library <- find(jars, "scala-library")
+      compiler <- find(jars, "scala-compiler")
+    } yield (library, compiler, jars.filter(jar => jar != library && jar != compiler))
+  }
+
+  /**
+   * The JDK is passed to the compile server only when the module is compiled with a different one.
+   */
+  def javaHome(moduleJdkHome: File, isCompileServerJdk: Boolean): Option[File] =
+    if (isCompileServerJdk) None else Some(moduleJdkHome)
+
+  private def find(jars: Seq[File], kind: String): Either[(String, Seq[File]), File] =
+    jars.filter(_.getName.startsWith(kind)).distinct match {
+      case Seq(jar) => Right(jar)
+      case duplicates => Left(kind, duplicates)
+    }
+}
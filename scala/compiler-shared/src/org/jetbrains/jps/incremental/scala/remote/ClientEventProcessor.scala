@@ -41,6 +41,9 @@ class ClientEventProcessor(client: Client) {
 
       case CompilationStartedInSbt(file) =>
         client.sourceStarted(file)
+
+      case EventBatch(events) =>
+        events.foreach(process)
     }
   }
 }
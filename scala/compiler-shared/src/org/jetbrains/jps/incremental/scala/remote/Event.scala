@@ -66,3 +66,8 @@ case class WorksheetOutputEvent(text: String) extends Event
 @SerialVersionUID(1L)
 case class CompilationStartedInSbt(path: String) extends Event
 
+/**
+ * Consecutive per-file events ([[GeneratedEvent]], [[SourceProcessedEvent]]) delivered at once, in the original order
+ */
+@SerialVersionUID(1L)
+case class EventBatch(events: Seq[Event]) extends Event
@@ -0,0 +1,260 @@
+package org.jetbrains.jps.incremental.scala
+package remote
+
+import java.io._
+import java.nio.charset.StandardCharsets
+
+import org.jetbrains.jps.incremental.messages.BuildMessage.Kind
+
+import scala.util.Try
+
+/**
+ * Compact binary encoding of [[Event]]s, an alternative to Java serialization + Base64.
+ *
+ * Frame layout: marker byte (0), protocol version, payload length, payload.
+ * Legacy frames are Base64 text and never start with the marker, so both formats can be told apart per chunk.
+ *
+ * The client advertises the highest version it understands in the [[EventCodec.ProtocolVersionKey]]
+ * environment variable; servers which don't know the variable keep sending legacy frames.
+ *
+ * @see [[org.jetbrains.jps.incremental.scala.remote.ClientEventProcessor]]
+ */
+object EventCodec {
+  /**
+   * 1 - individual events
+   * 2 - [[EventBatch]]
+   */
+  val Version: Int = 2
+
+  val BatchingVersion: Int = 2
+
+  val ProtocolVersionKey = "SCALA_COMPILE_SERVER_EVENT_PROTOCOL"
+
+  private val Marker: Byte = 0
+
+  private val HeaderSize = 1 + 1 + 4
+
+  def negotiate(clientVersion: Option[String]): Option[Int] = for {
+    string <- clientVersion
+    version <- Try(string.trim.toInt).toOption
+    if version > 0
+  } yield math.min(version, Version)
+
+  def isBinary(bytes: Array[Byte]): Boolean =
+    bytes.length >= HeaderSize && bytes(0) == Marker
+
+  def encode(event: Event, version: Int = Version): Array[Byte] = {
+    val buffer = new ByteArrayOutputStream(64)
+    val output = new DataOutputStream(buffer)
+    output.writeByte(Marker)
+    output.writeByte(version)
+    output.writeInt(0) // payload length, patched below
+    writeEvent(event, version, output)
+    output.close()
+
+    val bytes = buffer.toByteArray
+    val length = bytes.length - HeaderSize
+    bytes(2) = (length >>> 24).toByte
+    bytes(3) = (length >>> 16).toByte
+    bytes(4) = (length >>> 8).toByte
+    bytes(5) = length.toByte
+    bytes
+  }
+
+  def decode(bytes: Array[Byte]): Event = {
+    val input = new DataInputStream(new ByteArrayInputStream(bytes))
+
+    if (input.readByte() != Marker)
+      throw new IllegalArgumentException("Not a binary event frame")
+
+    val version = input.readByte()
+    if (version < 1 || version > Version)
+      throw new IllegalArgumentException(s"Unsupported event protocol version: $version")
+
+    val length = input.readInt()
+    if (length != bytes.length - HeaderSize)
+      throw new IllegalArgumentException(s"Event frame length mismatch: expected $length, got ${bytes.length - HeaderSize}")
+
+    val event = readEvent(version, input)
+    if (input.available > 0)
+      throw new IllegalArgumentException(s"Excess bytes after event decoding: ${input.available}")
+    event
+  }
+
+  private object Tag {
+    final val Message = 1
+    final val Progress = 2
+    final val Debug = 3
+    final val Trace = 4
+    final val Generated = 5
+    final val Deleted = 6
+    final val SourceProcessed = 7
+    final val CompilationEnd = 8
+    final val ProcessingEnd = 9
+    final val WorksheetOutput = 10
+    final val CompilationStarted = 11
+    final val Batch = 12
+  }
+
+  private val Kinds = Kind.values()
+
+  private def writeEvent(event: Event, version: Int, output: DataOutputStream): Unit = event match {
+    case MessageEvent(kind, text, source, line, column) =>
+      output.writeByte(Tag.Message)
+      output.writeByte(kind.ordinal)
+      writeString(text, output)
+      writeOption(source, output)(writeFile)
+      writeOption(line, output)((l, o) => o.writeLong(l))
+      writeOption(column, output)((c, o) => o.writeLong(c))
+
+    case ProgressEvent(text, done) =>
+      output.writeByte(Tag.Progress)
+      writeString(text, output)
+      writeOption(done, output)((d, o) => o.writeFloat(d))
+
+    case DebugEvent(text) =>
+      output.writeByte(Tag.Debug)
+      writeString(text, output)
+
+    case TraceEvent(exceptionClassName, message, stackTrace) =>
+      output.writeByte(Tag.Trace)
+      writeString(exceptionClassName, output)
+      writeString(message, output)
+      output.writeInt(stackTrace.length)
+      stackTrace.foreach { element =>
+        writeString(element.getClassName, output)
+        writeString(element.getMethodName, output)
+        writeString(element.getFileName, output)
+        output.writeInt(element.getLineNumber)
+      }
+
+    case GeneratedEvent(source, module, name) =>
+      output.writeByte(Tag.Generated)
+      writeFile(source, output)
+      writeFile(module, output)
+      writeString(name, output)
+
+    case DeletedEvent(module) =>
+      output.writeByte(Tag.Deleted)
+      writeFile(module, output)
+
+    case SourceProcessedEvent(source) =>
+      output.writeByte(Tag.SourceProcessed)
+      writeFile(source, output)
+
+    case CompilationEndEvent() =>
+      output.writeByte(Tag.CompilationEnd)
+
+    case ProcessingEndEvent() =>
+      output.writeByte(Tag.ProcessingEnd)
+
+    case WorksheetOutputEvent(text) =>
+      output.writeByte(Tag.WorksheetOutput)
+      writeString(text, output)
+
+    case CompilationStartedInSbt(path) =>
+      output.writeByte(Tag.CompilationStarted)
+      writeString(path, output)
+
+    case EventBatch(events) =>
+      if (version < BatchingVersion)
+        throw new IllegalArgumentException(s"Event batches are not supported by protocol version $version")
+      output.writeByte(Tag.Batch)
+      output.writeInt(events.size)
+      events.foreach(writeEvent(_, version, output))
+  }
+
+  private def readEvent(version: Int, input: DataInputStream): Event = input.readByte().toInt match {
+    case Tag.Message =>
+      val kind = Kinds(input.readByte())
+      val text = readString(input)
+      val source = readOption(input)(readFile)
+      val line = readOption(input)(_.readLong())
+      val column = readOption(input)(_.readLong())
+      MessageEvent(kind, text, source, line, column)
+
+    case Tag.Progress =>
+      val text = readString(input)
+      val done = readOption(input)(_.readFloat())
+      ProgressEvent(text, done)
+
+    case Tag.Debug =>
+      DebugEvent(readString(input))
+
+    case Tag.Trace =>
+      val exceptionClassName = readString(input)
+      val message = readString(input)
+      val stackTrace = Array.fill(input.readInt()) {
+        val className = readString(input)
+        val methodName = readString(input)
+        val fileName = readString(input)
+        val lineNumber = input.readInt()
+        new StackTraceElement(className, methodName, fileName, lineNumber)
+      }
+      TraceEvent(exceptionClassName, message, stackTrace)
+
+    case Tag.Generated =>
+      val source = readFile(input)
+      val module = readFile(input)
+      val name = readString(input)
+      GeneratedEvent(source, module, name)
+
+    case Tag.Deleted =>
+      DeletedEvent(readFile(input))
+
+    case Tag.SourceProcessed =>
+      SourceProcessedEvent(readFile(input))
+
+    case Tag.CompilationEnd =>
+      CompilationEndEvent()
+
+    case Tag.ProcessingEnd =>
+      ProcessingEndEvent()
+
+    case Tag.WorksheetOutput =>
+      WorksheetOutputEvent(readString(input))
+
+    case Tag.CompilationStarted =>
+      CompilationStartedInSbt(readString(input))
+
+    case Tag.Batch if version >= BatchingVersion =>
+      EventBatch(Vector.fill(input.readInt())(readEvent(version, input)))
+
+    case tag =>
+      throw new IllegalArgumentException(s"Unknown event tag: $tag")
+  }
+
+  // null is encoded as -1, as exception messages and stack trace file names may be absent
+  private def writeString(s: String, output: DataOutputStream): Unit =
+    if (s == null) output.writeInt(-1)
+    else {
+      val bytes = s.getBytes(StandardCharsets.UTF_8)
+      output.writeInt(bytes.length)
+      output.write(bytes)
+    }
+
+  private def readString(input: DataInputStream): String = input.readInt() match {
+    case -1 => null
+    case length =>
+      val bytes = new Array[Byte](length)
+      input.readFully(bytes)
+      new String(bytes, StandardCharsets.UTF_8)
+  }
+
+  private def writeFile(file: File, output: DataOutputStream): Unit =
+    writeString(file.getPath, output)
+
+  private def readFile(input: DataInputStream): File =
+    new File(readString(input))
+
+  private def writeOption[T](value: Option[T], output: DataOutputStream)(write: (T, DataOutputStream) => Unit): Unit = value match {
+    case Some(v) =>
+      output.writeBoolean(true)
+      write(v, output)
+    case None =>
+      output.writeBoolean(false)
+  }
+
+  private def readOption[T](input: DataInputStream)(read: DataInputStream => T): Option[T] =
+    if (input.readBoolean()) Some(read(input)) else None
+}
@@ -20,11 +20,11 @@ trait RemoteResourceOwner {
   protected val currentDirectory = System.getProperty("user.dir")
   protected val serverAlias = "compile-server"
 
-  def send(command: String, arguments: Seq[String], client: Client) {
+  def send(command: String, arguments: Seq[String], client: Client, environment: Map[String, String] = Map.empty) {
     val encodedArgs = arguments.map(s => Base64Converter.encode(s.getBytes("UTF-8")))
     using(new Socket(address, port)) { socket =>
       using(new DataOutputStream(new BufferedOutputStream(socket.getOutputStream))) { output =>
-        createChunks(command, encodedArgs).foreach(_.writeTo(output))
+        createChunks(command, encodedArgs, environment).foreach(_.writeTo(output))
         output.flush()
         if (client != null) {
           using(new DataInputStream(new BufferedInputStream(socket.getInputStream))) { input =>
@@ -44,7 +44,9 @@ trait RemoteResourceOwner {
           return
         case Chunk(NGConstants.CHUNKTYPE_STDOUT, data) =>
           try {
-            val event = Event.fromBytes(Base64Converter.decode(data))
+            val event =
+              if (EventCodec.isBinary(data)) EventCodec.decode(data)
+              else Event.fromBytes(Base64Converter.decode(data))
             processor.process(event)
           } catch {
             case e: Exception =>
@@ -70,8 +72,10 @@ trait RemoteResourceOwner {
     }
   }
 
-  protected def createChunks(command: String, args: Seq[String]): Seq[Chunk] = {
-    args.map(s => Chunk(NGConstants.CHUNKTYPE_ARGUMENT.toChar, toBytes(s))) :+
+  protected def createChunks(command: String, args: Seq[String], environment: Map[String, String] = Map.empty): Seq[Chunk] = {
+    val variables = environment + (EventCodec.ProtocolVersionKey -> EventCodec.Version.toString)
+    args.map(s => Chunk(NGConstants.CHUNKTYPE_ARGUMENT.toChar, toBytes(s))) ++
+      variables.map { case (key, value) => Chunk(NGConstants.CHUNKTYPE_ENVIRONMENT.toChar, toBytes(s"$key=$value")) } :+
       Chunk(NGConstants.CHUNKTYPE_WORKINGDIRECTORY.toChar, toBytes(currentDirectory)) :+
       Chunk(NGConstants.CHUNKTYPE_COMMAND.toChar, toBytes(command))
   }
@@ -81,6 +85,13 @@ trait RemoteResourceOwner {
   private def fromBytes(bytes: Array[Byte]) = new String(bytes)
 }
 
+object RemoteResourceOwner {
+  /**
+   * Environment variable which turns a compilation request into a compiler warm-up
+   */
+  val WarmUpKey = "SCALA_COMPILE_SERVER_WARM_UP"
+}
+
 case class Chunk(kind: Chunk.Kind, data: Array[Byte]) {
   def writeTo(output: DataOutputStream) {
     output.writeInt(data.length)
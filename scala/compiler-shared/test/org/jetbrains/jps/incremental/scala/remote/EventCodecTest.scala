@@ -0,0 +1,82 @@
+package org.jetbrains.jps.incremental.scala
+package remote
+
+import java.io.File
+
+import junit.framework.TestCase
+import org.jetbrains.jps.incremental.messages.BuildMessage.Kind
+import org.junit.Assert._
+
+class EventCodecTest extends TestCase {
+
+  private val source = new File("/project/src/Foo.scala")
+  private val module = new File("/project/out/production/foo")
+
+  private val events = Seq(
+    MessageEvent(Kind.ERROR, "type mismatch;\n found: Int", Some(source), Some(10L), Some(5L)),
+    MessageEvent(Kind.INFO, "", None, None, None),
+    ProgressEvent("Compiling 3 Scala sources", Some(0.5f)),
+    ProgressEvent("Compiling", None),
+    DebugEvent("debug ∑ non-ASCII"),
+    TraceEvent("java.lang.IllegalStateException", null, Array(
+      new StackTraceElement("Foo", "bar", "Foo.scala", 42),
+      new StackTraceElement("Foo", "baz", null, -2)
+    )),
+    GeneratedEvent(source, module, "Foo"),
+    DeletedEvent(module),
+    SourceProcessedEvent(source),
+    CompilationEndEvent(),
+    ProcessingEndEvent(),
+    WorksheetOutputEvent("res0: Int = 42\n"),
+    CompilationStartedInSbt("/project/src/Foo.scala")
+  )
+
+  // stack traces are arrays, so trace events are compared by their contents
+  private def comparable(event: Event): Any = event match {
+    case TraceEvent(exceptionClassName, message, stackTrace) => (exceptionClassName, message, stackTrace.toSeq)
+    case EventBatch(batched) => batched.map(comparable)
+    case _ => event
+  }
+
+  private def assertRoundTrip(event: Event, version: Int = EventCodec.Version): Unit = {
+    val bytes = EventCodec.encode(event, version)
+    assertTrue(EventCodec.isBinary(bytes))
+    assertEquals(comparable(event), comparable(EventCodec.decode(bytes)))
+  }
+
+  def testEveryEventType(): Unit =
+    events.foreach(assertRoundTrip(_))
+
+  def testEveryEventTypeInFirstVersion(): Unit =
+    events.foreach(assertRoundTrip(_, version = 1))
+
+  def testBatch(): Unit = {
+    assertRoundTrip(EventBatch(events))
+    assertRoundTrip(EventBatch(Seq.empty))
+  }
+
+  def testBatchInFirstVersion(): Unit =
+    try {
+      EventCodec.encode(EventBatch(events), version = 1)
+      fail("Batches are not a part of the first version")
+    } catch {
+      case _: IllegalArgumentException =>
+    }
+
+  def testTruncatedFrame(): Unit = {
+    val bytes = EventCodec.encode(events.head)
+    try {
+      EventCodec.decode(bytes.dropRight(1))
+      fail("A truncated frame is decoded")
+    } catch {
+      case _: IllegalArgumentException =>
+    }
+  }
+
+  def testNegotiation(): Unit = {
+    assertEquals(None, EventCodec.negotiate(None))
+    assertEquals(None, EventCodec.negotiate(Some("not a number")))
+    assertEquals(Some(1), EventCodec.negotiate(Some("1")))
+    assertEquals(Some(EventCodec.Version), EventCodec.negotiate(Some("100")))
+  }
+}
@@ -1,28 +1,25 @@
 package org.jetbrains.plugins.scala
 package decompiler
 
-import java.io.ByteArrayInputStream
 import java.lang.StringBuilder
 import java.nio.charset.StandardCharsets.UTF_8
 
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.util.text.StringUtil
-import org.apache.bcel.classfile._
-
-import scala.reflect.internal.pickling.ByteCodecs
 
 object Decompiler {
-  private val SCALA_SIG                 = "ScalaSig"
-  val BYTES_VALUE                       = "bytes"
-  val SCALA_SIG_ANNOTATION: String      = "Lscala/reflect/ScalaSignature;"
-  val SCALA_LONG_SIG_ANNOTATION: String = "Lscala/reflect/ScalaLongSignature;"
-
   import scalasig._
 
   private[this] val Log: Logger = Logger.getInstance("#org.jetbrains.plugins.scala.decompiler.DecompilerUtil")
 
   private val ScalaSigBytes = "ScalaSig".getBytes(UTF_8)
 
+  /**
+    * Cheap check, which rules out most of the files [[sourceNameAndText]] would return None for.
+    */
+  def mayBeScala(fileName: String, bytes: Array[Byte]): Boolean =
+    fileName.endsWith(".sig") || containsMarker(bytes)
+
   def sourceNameAndText(fileName: String, bytes: Array[Byte]): Option[(String, String)] = {
 
     if (fileName.endsWith(".sig")) {
@@ -36,43 +33,12 @@ object Decompiler {
 
     if (!containsMarker(bytes)) return None
 
-    val parsed = new ClassParser(new ByteArrayInputStream(bytes), fileName).parse()
     for {
-      annotation <- parsed.getAnnotationEntries.find(isScalaSignatureAnnotation)
-      pair <- annotation.getElementValuePairs.find(_.getNameString == "bytes")
-
-      simpleValues = collectSimple(pair.getValue)
-      strings = simpleValues.map(valueBytes)
-
-      bytes = decode(strings)
-      signature = Parser.parseScalaSig(bytes, fileName)
-
-      text <- decompiledText(signature, parsed.getClassName, fileName == "package.class")
-    } yield (parsed.getSourceFileName, StringUtil.convertLineSeparators(text))
-  }
-
-  private def isScalaSignatureAnnotation(entry: AnnotationEntry) =
-    entry.getAnnotationType match {
-      case "Lscala/reflect/ScalaSignature;" |
-           "Lscala/reflect/ScalaLongSignature;" => true
-      case _ => false
-    }
-
-  private def collectSimple(value: ElementValue) = value match {
-    case simpleValue: SimpleElementValue => simpleValue :: Nil
-    case arrayValue: ArrayElementValue =>
-      arrayValue.getElementValuesArray.collect {
-        case simpleValue: SimpleElementValue => simpleValue
-      }.toList
-  }
-
-  private def valueBytes(value: SimpleElementValue) =
-    value.getValueString.getBytes(UTF_8)
+      scanned <- ScalaSigScanner.scan(bytes)
+      signature = Parser.parseScalaSig(scanned.signature, fileName)
 
-  private def decode(strings: List[Array[Byte]]) = {
-    val bytes = Array.concat(strings: _*)
-    ByteCodecs.decode(bytes)
-    bytes
+      text <- decompiledText(signature, scanned.className, fileName == "package.class")
+    } yield (scanned.sourceFileName, StringUtil.convertLineSeparators(text))
   }
 
   private def decompiledText(scalaSig: ScalaSig,
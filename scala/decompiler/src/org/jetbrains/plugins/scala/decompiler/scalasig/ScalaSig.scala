@@ -1,5 +1,7 @@
 package org.jetbrains.plugins.scala.decompiler.scalasig
 
+import java.util
+
 import scala.collection.mutable
 import scala.collection.mutable.ArrayBuffer
 
@@ -29,20 +31,33 @@ class ScalaSig(val entries: Array[Entry]) {
     classes.find(c => c.info.owner.get.eq(owner) && c.name == objectSymbol.name)
   }
 
-  def children(symbol: ScalaSigSymbol): Seq[Symbol] = {
-    parentToChildren.keysIterator.find(get(_) eq symbol) match {
-      case None => Seq.empty
-      case Some(i) => parentToChildren(i)
+  //both are called for every printed symbol, so lookups are indexed once the signature is read
+  private lazy val childrenBySymbol: util.IdentityHashMap[Entry, Seq[Symbol]] = {
+    val result = new util.IdentityHashMap[Entry, Seq[Symbol]](parentToChildren.size)
+    for ((index, children) <- parentToChildren) {
+      result.putIfAbsent(get(index), children)
     }
+    result
   }
 
+  //equal or equivalent symbols always have the same name
+  private lazy val symAnnotsByName: Map[String, Seq[SymAnnot]] =
+    symAnnots.groupBy(_.symbol.get.name)
+
+  def children(symbol: ScalaSigSymbol): Seq[Symbol] =
+    childrenBySymbol.get(symbol) match {
+      case null => Seq.empty
+      case children => children
+    }
+
   def attributes(symbol: ScalaSigSymbol): Seq[SymAnnot] = {
     def sameSymbol(ann: SymAnnot) = (ann.symbol.get, symbol) match {
       case (s, t) if s == t => true
       case (m1: MethodSymbol, m2: MethodSymbol) if equiv(m1, m2) => true
       case _ => false
     }
-    val forSameSymbol = symAnnots.filter(sameSymbol)
+    val candidates = symAnnotsByName.getOrElse(symbol.name, Seq.empty)
+    val forSameSymbol = candidates.filter(sameSymbol)
     val distinctTypes = forSameSymbol.map(ann => ann.typeRef -> ann).toMap.values
     distinctTypes.toVector
   }
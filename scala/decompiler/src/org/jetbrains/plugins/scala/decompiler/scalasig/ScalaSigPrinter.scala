@@ -9,6 +9,7 @@
 package org.jetbrains.plugins.scala.decompiler.scalasig
 
 import java.lang.StringBuilder
+import java.util
 import java.util.regex.Pattern
 
 import org.apache.commons.lang.{StringEscapeUtils, StringUtils}
@@ -60,6 +61,19 @@ class ScalaSigPrinter(builder: StringBuilder, verbosity: Verbosity) {
     currentTypeParameters.remove(t)
   }
 
+  // names of setters per owner, so that accessors of large classes don't scan all members each
+  private val setterNamesCache = new util.IdentityHashMap[Symbol, Set[String]]()
+
+  private def setterNames(owner: Symbol): Set[String] = setterNamesCache.get(owner) match {
+    case null =>
+      val names = owner.children.collect {
+        case ms: MethodSymbol if ms.name.endsWith(setterSuffix) => ms.name
+      }.toSet
+      setterNamesCache.put(owner, names)
+      names
+    case names => names
+  }
+
   val CONSTRUCTOR_NAME = "<init>"
 
   val INIT_NAME = "$init$"
@@ -120,8 +134,8 @@ class ScalaSigPrinter(builder: StringBuilder, verbosity: Verbosity) {
           printSymbolAttributes(a, onNewLine = true, indent())
           indent()
           printAlias(level, a)
-        case t: TypeSymbol if !t.isParam && !t.name.matches("_\\$\\d+") &&
-          !t.name.matches("\\?(\\d)+") =>
+        case t: TypeSymbol if !t.isParam && !placeholderPattern.matcher(t.name).matches() &&
+          !existentialParamPattern.matcher(t.name).matches() =>
           // todo: type 0? found in Suite class from scalatest package. So this is quickfix,
           // todo: we need to find why such strange type is here
           printSymbolAttributes(t, onNewLine = true, indent())
@@ -397,10 +411,7 @@ class ScalaSigPrinter(builder: StringBuilder, verbosity: Verbosity) {
     indent()
     printModifiers(m)
 
-    def hasSetter: Boolean = m.parent.get.children.exists {
-      case ms: MethodSymbol => isSetterFor(ms.name, m.name)
-      case _ => false
-    }
+    def hasSetter: Boolean = setterNames(m.parent.get).contains(m.name + setterSuffix)
 
     val keywords =
       if (!m.isAccessor) "def "
@@ -785,6 +796,8 @@ object ScalaSigPrinter {
 
   private val placeholderPattern = Pattern.compile("_\\$(\\d)+")
 
+  private val existentialParamPattern = Pattern.compile("\\?(\\d)+")
+
   private val defaultParamMarker = "$default$"
 
   implicit class StringFixes(private val str: String) extends AnyVal {
@@ -0,0 +1,299 @@
+package org.jetbrains.plugins.scala.decompiler.scalasig
+
+import java.io.{ByteArrayInputStream, DataInputStream}
+import java.nio.charset.StandardCharsets.UTF_8
+
+import scala.annotation.switch
+import scala.reflect.internal.pickling.ByteCodecs
+import scala.util.control.NoStackTrace
+
+/**
+  * Finds the pickled Scala signature of a class file without building a model of the whole class file.
+  *
+  * The constant pool is walked once to record offsets of its entries, fields and methods are skipped
+  * by lengths of their attributes, and only `SourceFile` and `RuntimeVisibleAnnotations` attributes
+  * of the class itself are read. Class files without a `ScalaSignature` or `ScalaLongSignature`
+  * descriptor in the constant pool are rejected right after it.
+  */
+object ScalaSigScanner {
+
+  /**
+    * @param signature decoded signature bytes, ready for [[Parser.parseScalaSig]]
+    */
+  final class ScannedClass(val className: String, val sourceFileName: String, val signature: Array[Byte])
+
+  /**
+    * @return None if the class file has no Scala signature or is malformed
+    */
+  def scan(bytes: Array[Byte]): Option[ScannedClass] =
+    try new Scanner(bytes).scan()
+    catch {
+      case _: IndexOutOfBoundsException | MalformedClassFile => None
+    }
+
+  private val ScalaSignatureDescriptor     = "Lscala/reflect/ScalaSignature;".getBytes(UTF_8)
+  private val ScalaLongSignatureDescriptor = "Lscala/reflect/ScalaLongSignature;".getBytes(UTF_8)
+  private val BytesValueName               = "bytes".getBytes(UTF_8)
+  private val SourceFileAttribute          = "SourceFile".getBytes(UTF_8)
+  private val AnnotationsAttribute         = "RuntimeVisibleAnnotations".getBytes(UTF_8)
+
+  // reported by BCEL for class files without a SourceFile attribute, the decompiler used to rely on it
+  private val UnknownSourceFile = "<Unknown>"
+
+  private object MalformedClassFile extends RuntimeException with NoStackTrace
+
+  private final class Scanner(bytes: Array[Byte]) {
+
+    private[this] var offset = 0
+
+    // offsets of tags of constant pool entries, 0 for unusable entries
+    private[this] var entries: Array[Int] = _
+
+    def scan(): Option[ScannedClass] = {
+      if (u4() != 0xCAFEBABE) return None
+      offset += 4 // minor and major versions
+
+      readConstantPool()
+      val signatureIndex = utf8Index(ScalaSignatureDescriptor)
+      val longSignatureIndex = utf8Index(ScalaLongSignatureDescriptor)
+      if (signatureIndex == 0 && longSignatureIndex == 0) return None
+
+      offset += 2 // access flags
+      val thisClass = u2()
+      offset += 2 // super class
+      offset += 2 * u2() // interfaces
+
+      skipMembers() // fields
+      skipMembers() // methods
+
+      var sourceFileName = UnknownSourceFile
+      var signature: Array[Byte] = null
+
+      var attributesCount = u2()
+      while (attributesCount > 0) {
+        val name = u2()
+        val length = u4()
+        val end = offset + length
+
+        if (utf8Equals(name, SourceFileAttribute)) sourceFileName = utf8(u2())
+        else if (signature == null && utf8Equals(name, AnnotationsAttribute)) signature = findSignature(signatureIndex, longSignatureIndex)
+
+        offset = end
+        attributesCount -= 1
+      }
+
+      Option(signature).map(new ScannedClass(className(thisClass), sourceFileName, _))
+    }
+
+    private def readConstantPool(): Unit = {
+      val count = u2()
+      entries = new Array[Int](count)
+
+      var index = 1
+      while (index < count) {
+        entries(index) = offset
+        val tag = bytes(offset)
+        offset += 1
+
+        (tag: @switch) match {
+          case 1 => // Utf8
+            offset += u2()
+          case 3 | 4 | 9 | 10 | 11 | 12 | 17 | 18 => // Integer, Float, member references, NameAndType, Dynamic, InvokeDynamic
+            offset += 4
+          case 5 | 6 => // Long and Double take two entries
+            offset += 8
+            index += 1
+          case 7 | 8 | 16 | 19 | 20 => // Class, String, MethodType, Module, Package
+            offset += 2
+          case 15 => // MethodHandle
+            offset += 3
+          case _ => throw MalformedClassFile
+        }
+        index += 1
+      }
+    }
+
+    private def skipMembers(): Unit = {
+      var count = u2()
+      while (count > 0) {
+        offset += 6 // access flags, name and descriptor
+        var attributesCount = u2()
+        while (attributesCount > 0) {
+          offset += 2
+          offset += u4()
+          attributesCount -= 1
+        }
+        count -= 1
+      }
+    }
+
+    /**
+      * Reads annotations of the class, the offset is at the start of the attribute.
+      *
+      * @return decoded signature, or null if there is none
+      */
+    private def findSignature(signatureIndex: Int, longSignatureIndex: Int): Array[Byte] = {
+      var count = u2()
+      while (count > 0) {
+        val typeIndex = u2()
+        var pairsCount = u2()
+        val isSignature = typeIndex == signatureIndex || typeIndex == longSignatureIndex
+
+        while (pairsCount > 0) {
+          val name = u2()
+          if (isSignature && utf8Equals(name, BytesValueName)) return decode(signatureParts())
+          skipElementValue()
+          pairsCount -= 1
+        }
+
+        if (isSignature) return null
+        count -= 1
+      }
+      null
+    }
+
+    // `ScalaSignature` holds a single string, `ScalaLongSignature` an array of them
+    private def signatureParts(): Seq[Int] = {
+      val tag = bytes(offset).toChar
+      offset += 1
+
+      tag match {
+        case 's' => Seq(u2())
+        case '[' =>
+          val count = u2()
+          (0 until count).flatMap { _ =>
+            if (bytes(offset).toChar == 's') {
+              offset += 1
+              Some(u2())
+            } else {
+              skipElementValue()
+              None
+            }
+          }
+        case _ => Seq.empty
+      }
+    }
+
+    private def skipElementValue(): Unit = {
+      val tag = bytes(offset).toChar
+      offset += 1
+
+      (tag: @switch) match {
+        case 'B' | 'C' | 'D' | 'F' | 'I' | 'J' | 'S' | 'Z' | 's' | 'c' =>
+          offset += 2
+        case 'e' =>
+          offset += 4
+        case '@' =>
+          offset += 2
+          var pairsCount = u2()
+          while (pairsCount > 0) {
+            offset += 2
+            skipElementValue()
+            pairsCount -= 1
+          }
+        case '[' =>
+          var count = u2()
+          while (count > 0) {
+            skipElementValue()
+            count -= 1
+          }
+        case _ => throw MalformedClassFile
+      }
+    }
+
+    private def decode(parts: Seq[Int]): Array[Byte] = {
+      val result = Array.concat(parts.map(utf8Bytes): _*)
+      ByteCodecs.decode(result)
+      result
+    }
+
+    /**
+      * Bytes of a string constant in standard UTF-8, as expected by [[ByteCodecs.decode]].
+      *
+      * Pickled signatures consist of 7-bit characters, so the only difference of the modified UTF-8
+      * of class files is the two-byte encoding of zeros.
+      */
+    private def utf8Bytes(index: Int): Array[Byte] = {
+      val start = utf8Start(index)
+      val end = start + u2At(start - 2)
+
+      val result = new Array[Byte](end - start)
+      var length = 0
+      var i = start
+      while (i < end) {
+        val b = bytes(i)
+        if (b >= 0) {
+          result(length) = b
+          i += 1
+        } else if (b == 0xC0.toByte && i + 1 < end && bytes(i + 1) == 0x80.toByte) {
+          result(length) = 0
+          i += 2
+        } else {
+          return utf8(index).getBytes(UTF_8)
+        }
+        length += 1
+      }
+
+      java.util.Arrays.copyOf(result, length)
+    }
+
+    private def utf8(index: Int): String = {
+      val start = utf8Start(index)
+      val length = u2At(start - 2)
+      new DataInputStream(new ByteArrayInputStream(bytes, start - 2, length + 2)).readUTF()
+    }
+
+    private def utf8Equals(index: Int, expected: Array[Byte]): Boolean = {
+      val start = utf8Start(index)
+      val length = u2At(start - 2)
+
+      length == expected.length && {
+        var i = 0
+        while (i < length && bytes(start + i) == expected(i)) i += 1
+        i == length
+      }
+    }
+
+    /**
+      * @return index of the Utf8 entry equal to `expected`, or 0 if there is none
+      */
+    private def utf8Index(expected: Array[Byte]): Int = {
+      var index = 1
+      while (index < entries.length) {
+        if (entries(index) != 0 && bytes(entries(index)) == 1 && utf8Equals(index, expected)) return index
+        index += 1
+      }
+      0
+    }
+
+    private def className(classIndex: Int): String = {
+      val entry = entryAt(classIndex, tag = 7)
+      utf8(u2At(entry + 1)).replace('/', '.')
+    }
+
+    private def utf8Start(index: Int): Int = entryAt(index, tag = 1) + 3
+
+    private def entryAt(index: Int, tag: Int): Int = {
+      if (index <= 0 || index >= entries.length || entries(index) == 0) throw MalformedClassFile
+
+      val entry = entries(index)
+      if (bytes(entry) != tag) throw MalformedClassFile
+      entry
+    }
+
+    private def u2At(at: Int): Int =
+      ((bytes(at) & 0xFF) << 8) | (bytes(at + 1) & 0xFF)
+
+    private def u2(): Int = {
+      val result = u2At(offset)
+      offset += 2
+      result
+    }
+
+    private def u4(): Int = {
+      val result = (u2At(offset) << 16) | u2At(offset + 2)
+      offset += 4
+      result
+    }
+  }
+}
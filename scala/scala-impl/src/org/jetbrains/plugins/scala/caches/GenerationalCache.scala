@@ -0,0 +1,124 @@
+package org.jetbrains.plugins.scala.caches
+
+import java.util
+import java.util.Map.Entry
+import java.util.concurrent.atomic.{AtomicLong, LongAdder}
+
+import org.jetbrains.plugins.scala.caches.GenerationalCache._
+
+/**
+  * Size-bounded LRU cache, whose entries depend either on library code only, or on project code as well.
+  *
+  * Each entry is stamped with the generation of the code it depends on. A change in project code
+  * bumps only the project generation, so entries computed from library code alone stay valid
+  * until the next roots change. Outdated entries are not removed eagerly, they are dropped when
+  * looked up or pushed out by LRU eviction.
+  *
+  * The cache is split into independently locked segments to keep contention low.
+  */
+final class GenerationalCache[K, V >: Null](maxSize: Int, segmentsCount: Int = DefaultSegmentsCount) {
+
+  private val projectGeneration = new AtomicLong()
+  private val libraryGeneration = new AtomicLong()
+
+  private val segments = Array.fill(segmentsCount)(new Segment[K, V](math.max(maxSize / segmentsCount, 1)))
+
+  private val hits        = new LongAdder
+  private val misses      = new LongAdder
+  private val invalidated = new LongAdder
+
+  private def segmentFor(key: K): Segment[K, V] = {
+    val h = key.hashCode
+    segments(((h ^ (h >>> 16)) & Int.MaxValue) % segments.length)
+  }
+
+  private def generationOf(libraryOnly: Boolean): Long =
+    if (libraryOnly) libraryGeneration.get else projectGeneration.get
+
+  /**
+    * @return cached value, or null if there is no valid entry for `key`
+    */
+  def get(key: K): V = {
+    val segment = segmentFor(key)
+    val entry   = segment.synchronized(segment.get(key))
+
+    if (entry == null) {
+      misses.increment()
+      null
+    } else if (entry.generation != generationOf(entry.libraryOnly)) {
+      segment.synchronized(segment.remove(key, entry))
+      invalidated.increment()
+      misses.increment()
+      null
+    } else {
+      hits.increment()
+      entry.value
+    }
+  }
+
+  /**
+    * Generations of the code before a value is computed, to be passed to [[put]] along with the value:
+    * a value computed while the code was being changed must not outlive the change.
+    */
+  def stamp: Stamp = new Stamp(projectGeneration.get, libraryGeneration.get)
+
+  /**
+    * @param libraryOnly whether `value` depends on library code only
+    * @param stamp       taken before `value` was computed
+    */
+  def put(key: K, value: V, libraryOnly: Boolean, stamp: Stamp): Unit = {
+    val generation = if (libraryOnly) stamp.library else stamp.project
+
+    if (generation == generationOf(libraryOnly)) {
+      val segment = segmentFor(key)
+      val entry   = new CacheEntry(value, generation, libraryOnly)
+      segment.synchronized(segment.put(key, entry))
+    }
+  }
+
+  /**
+    * Invalidates entries, which depend on project code.
+    */
+  def invalidateProjectEntries(): Unit = projectGeneration.incrementAndGet()
+
+  def clear(): Unit = {
+    projectGeneration.incrementAndGet()
+    libraryGeneration.incrementAndGet()
+    segments.foreach(s => s.synchronized(s.clear()))
+  }
+
+  def size: Int = segments.foldLeft(0)((acc, s) => acc + s.synchronized(s.size))
+
+  def stats: GenerationalCacheStats = GenerationalCacheStats(
+    hits.sum,
+    misses.sum,
+    segments.foldLeft(0L)(_ + _.evictions),
+    invalidated.sum
+  )
+}
+
+object GenerationalCache {
+  private val DefaultSegmentsCount = 16
+
+  final class Stamp private[GenerationalCache](private[GenerationalCache] val project: Long,
+                                               private[GenerationalCache] val library: Long)
+
+  private final class CacheEntry[V](val value: V, val generation: Long, val libraryOnly: Boolean)
+
+  // access-ordered, guarded by itself
+  private final class Segment[K, V](capacity: Int)
+    extends util.LinkedHashMap[K, CacheEntry[V]](16, 0.75F, true) {
+
+    @volatile var evictions = 0L
+
+    override def removeEldestEntry(eldest: Entry[K, CacheEntry[V]]): Boolean = {
+      val remove = size > capacity
+      if (remove) evictions += 1
+      remove
+    }
+  }
+}
+
+final case class GenerationalCacheStats(hits: Long, misses: Long, evictions: Long, invalidated: Long) {
+  def hitRate: Double = if (hits + misses == 0) 0.0 else hits.toDouble / (hits + misses)
+}
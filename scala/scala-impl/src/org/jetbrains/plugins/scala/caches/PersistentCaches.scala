@@ -0,0 +1,41 @@
+package org.jetbrains.plugins.scala.caches
+
+import java.io.{File, IOException}
+import java.security.MessageDigest
+
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.io.FileUtil
+import com.intellij.openapi.util.text.StringUtil
+import com.intellij.util.io.{DataExternalizer, EnumeratorStringDescriptor, PersistentHashMap}
+
+import scala.util.control.NonFatal
+
+/**
+  * Common parts of on-disk caches keyed by content hashes, which are stored in [[PersistentHashMap]]s
+  * and are recreated from scratch whenever their storage turns out to be corrupted.
+  */
+object PersistentCaches {
+
+  def hash(bytes: Array[Byte]): String =
+    StringUtil.toHexString(MessageDigest.getInstance("MD5").digest(bytes))
+
+  def dirSize(dir: File): Long =
+    Option(dir.listFiles()).fold(0L)(_.map(f => if (f.isDirectory) dirSize(f) else f.length).sum)
+
+  def stringKeyedMap[V](dir: File, name: String, externalizer: DataExternalizer[V]): PersistentHashMap[String, V] =
+    new PersistentHashMap(new File(dir, name), EnumeratorStringDescriptor.INSTANCE, externalizer)
+
+  /**
+    * @param description name of the cache in log messages, e.g. "decompilation cache"
+    * @return None if the storage can't be created even in an empty `dir`
+    */
+  def openOrRecreate[T](dir: File, description: String, log: Logger)(create: => T): Option[T] =
+    try Option(create)
+    catch {
+      case _: IOException =>
+        log.info(s"${StringUtil.capitalize(description)} is corrupted, recreating it.")
+        FileUtil.delete(dir)
+        try Option(create)
+        catch { case NonFatal(e) => log.warn(s"Failed to create $description.", e); None }
+    }
+}
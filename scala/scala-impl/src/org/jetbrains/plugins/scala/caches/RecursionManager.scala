@@ -40,6 +40,9 @@ object RecursionManager {
     }
   }
 
+  /** Whether a computation of any [[RecursionGuard]] is in progress on this thread. */
+  def isInsideGuardedComputation: Boolean = !ourStack.get.progressMap.isEmpty
+
   //invalidates all current StackStamps
   def prohibitCaching(): Unit = {
     ourStack.get().prohibitCaching()
@@ -7,4 +7,7 @@ trait CacheCapabilities[T] {
 
   def cachedEntitiesCount(cache: CacheType): Int
   def clear(cache: CacheType): Unit
+
+  /** Entries dropped by a bounded cache to stay within its limits, or because they became outdated. */
+  def evictedEntitiesCount(cache: CacheType): Long = 0
 }
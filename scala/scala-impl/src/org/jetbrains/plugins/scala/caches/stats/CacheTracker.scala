@@ -21,6 +21,7 @@ object CacheTracker {
 
     override def tracked: List[Cache] = trackedCaches.values
     override def cachedEntityCount: Int = tracked.foldLeft(0)(_ + capabilities.cachedEntitiesCount(_))
+    override def evictedEntityCount: Long = tracked.foldLeft(0L)(_ + capabilities.evictedEntitiesCount(_))
     override def clear(): Unit = tracked.foreach(capabilities.clear)
   }
 
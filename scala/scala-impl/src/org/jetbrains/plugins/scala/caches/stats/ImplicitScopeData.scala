@@ -0,0 +1,17 @@
+package org.jetbrains.plugins.scala.caches.stats
+
+case class ImplicitScopeData(id: String,
+                             name: String,
+                             hits: Int,
+                             misses: Int,
+                             evictions: Int,
+                             computeTime: Int) {
+
+  def hitRate: Double = {
+    if (hits + misses == 0) 0
+    else {
+      val exact = hits.toDouble / (hits + misses) * 100
+      (exact * 100).round.toDouble / 100
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package org.jetbrains.plugins.scala.caches.stats
+import java.util
+
+object ImplicitScopeDataSource extends DataSource[ImplicitScopeData] {
+
+  override def isActive: Boolean = Tracer.isEnabled
+
+  override def stop(): Unit = Tracer.setEnabled(false)
+
+  override def resume(): Unit = Tracer.setEnabled(true)
+
+  override def clear(): Unit = ImplicitScopeTracer.clearAll()
+
+  override def getCurrentData: util.List[ImplicitScopeData] = ImplicitScopeTracer.getCurrentData
+}
@@ -0,0 +1,51 @@
+package org.jetbrains.plugins.scala.caches.stats
+
+import java.util.concurrent.atomic.{AtomicInteger, AtomicLong}
+
+/**
+  * Counters of [[org.jetbrains.plugins.scala.lang.psi.implicits.ImplicitCollectorCache]] for a single implicit search scope.
+  * Unlike the cache itself, they survive PSI changes, so scopes, which are computed again and again, stand out.
+  */
+class ImplicitScopeTracer(val id: String, val name: String) {
+
+  private val hitCounter       = new AtomicInteger(0)
+  private val missCounter      = new AtomicInteger(0)
+  private val evictionCounter  = new AtomicInteger(0)
+  private val computationTime  = new AtomicLong(0)
+
+  def hit(): Unit = hitCounter.incrementAndGet()
+
+  def miss(): Unit = missCounter.incrementAndGet()
+
+  def eviction(): Unit = evictionCounter.incrementAndGet()
+
+  def computed(nanos: Long): Unit = computationTime.addAndGet(nanos)
+
+  def getCurrentData: ImplicitScopeData =
+    ImplicitScopeData(id, name, hitCounter.get, missCounter.get, evictionCounter.get, Tracer.roundToMillis(computationTime.get))
+}
+
+object ImplicitScopeTracer {
+
+  private object NoOp extends ImplicitScopeTracer("NoOpImplicitScopeTracer$$", "NoOpImplicitScopeTracer") {
+    override def hit(): Unit = ()
+    override def miss(): Unit = ()
+    override def eviction(): Unit = ()
+    override def computed(nanos: Long): Unit = ()
+
+    // counters are never updated, so the data is empty
+  }
+
+  private val tracersMap =
+    new MyConcurrentMap[String, ImplicitScopeTracer]()
+
+  def apply(id: => String, name: => String): ImplicitScopeTracer =
+    if (Tracer.isEnabled) tracersMap.computeIfAbsent(id, new ImplicitScopeTracer(_, name))
+    else NoOp
+
+  def clearAll(): Unit =
+    tracersMap.clear()
+
+  def getCurrentData: java.util.List[ImplicitScopeData] =
+    tracersMap.map((_, v) => v.getCurrentData)
+}
@@ -68,8 +68,22 @@ object InternalProfilerToolWindowFactory {
       dataById,
       dataById.stringColumn("Computation", _.name),
       dataById.numColumn("Tracked caches", _.trackedCaches),
-      dataById.numColumn("Tracked cache entries", _.trackedCacheEntries)
-    )(preferredWidths = Seq(5, 1, 1))
+      dataById.numColumn("Tracked cache entries", _.trackedCacheEntries),
+      dataById.numColumn("Evicted cache entries", _.evictedCacheEntries)
+    )(preferredWidths = Seq(5, 1, 1, 1))
+  }
+
+  lazy val implicitScopesModel: DataByIdTableModel[ImplicitScopeData] = {
+    val dataById = new DataById[ImplicitScopeData](_.id)
+    new DataByIdTableModel(
+      dataById,
+      dataById.stringColumn("Implicit search scope", _.name),
+      dataById.numColumn("Hits", _.hits),
+      dataById.numColumn("Misses", _.misses),
+      dataById.numColumn("Hit rate, %", _.hitRate),
+      dataById.numColumn("Evicted", _.evictions),
+      dataById.numColumn("Compute Time, ms", _.computeTime)
+    )(preferredWidths = Seq(6, 1, 1, 1, 1, 1))
   }
 
   private def parentCallsText(data: TracerData): String = {
@@ -88,12 +102,14 @@ object InternalProfilerToolWindowFactory {
     val timingsTable = createTableWithToolbarPanel(ScalaCacheTracerDataSource, timingsModel, project)
     val parentCalls = createTableWithToolbarPanel(ScalaCacheTracerDataSource, parentCallsModel, project)
     val memory = createTableWithToolbarPanel(ScalaCacheMemoryDataSource, memoryModel, project)
+    val implicitScopes = createTableWithToolbarPanel(ImplicitScopeDataSource, implicitScopesModel, project)
 
     val factory = ContentFactory.SERVICE.getInstance()
     Seq(
       factory.createContent(timingsTable, "Timings", false),
       factory.createContent(parentCalls, "Parent Calls", false),
-      factory.createContent(memory, "Memory", false)
+      factory.createContent(memory, "Memory", false),
+      factory.createContent(implicitScopes, "Implicit Scopes", false)
     )
   }
 
@@ -3,4 +3,5 @@ package org.jetbrains.plugins.scala.caches.stats
 case class MemoryData(id: String,
                       name: String,
                       trackedCaches: Int,
-                      trackedCacheEntries: Int)
+                      trackedCacheEntries: Int,
+                      evictedCacheEntries: Long)
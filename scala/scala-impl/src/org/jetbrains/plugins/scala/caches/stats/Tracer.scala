@@ -145,7 +145,7 @@ object Tracer {
 
   private val root = new Tracer("root-tracer-id$$", "<root>")
 
-  private def roundToMillis(nanos: Long): Int = Math.round(nanos.toDouble / (1000 * 1000)).toInt
+  private[stats] def roundToMillis(nanos: Long): Int = Math.round(nanos.toDouble / (1000 * 1000)).toInt
 
   private val currentTracers: ThreadLocal[List[Tracer]] = ThreadLocal.withInitial(() => Nil)
 
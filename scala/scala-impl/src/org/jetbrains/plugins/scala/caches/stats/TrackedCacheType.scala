@@ -9,5 +9,6 @@ trait TrackedCacheType {
   def capabilities: CacheCapabilities[Cache]
   def tracked: List[Cache]
   def cachedEntityCount: Int
+  def evictedEntityCount: Long
   def clear(): Unit
 }
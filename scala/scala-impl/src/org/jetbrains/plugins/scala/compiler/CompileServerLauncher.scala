@@ -112,9 +112,12 @@ object CompileServerLauncher {
           Seq(s"-Dshutdown.delay=$shutdownDelay")
         } else Nil
 
+        val parallelism = settings.COMPILE_SERVER_PARALLELISM
+        val parallelismArg = if (parallelism > 0) Seq(s"-Dcompile.parallelism=$parallelism") else Nil
+
         val extraJvmParameters = CompileServerVmOptionsProvider.implementations.flatMap(_.vmOptionsFor(project))
 
-        val commands = jdk.executable.canonicalPath +: bootclasspathArg ++: "-cp" +: classpath +: jvmParameters ++: shutdownDelayArg ++:
+        val commands = jdk.executable.canonicalPath +: bootclasspathArg ++: "-cp" +: classpath +: jvmParameters ++: shutdownDelayArg ++: parallelismArg ++:
           extraJvmParameters ++: ngRunnerFqn +: freePort.toString +: id.toString +: Nil
 
         val builder = new ProcessBuilder(commands.asJava)
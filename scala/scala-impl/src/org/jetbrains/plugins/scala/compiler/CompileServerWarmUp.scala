@@ -0,0 +1,123 @@
+package org.jetbrains.plugins.scala
+package compiler
+
+import java.io.File
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.ProjectComponent
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.module.Module
+import com.intellij.openapi.project.{DumbService, Project}
+import com.intellij.openapi.roots.ModuleRootManager
+import com.intellij.openapi.util.io.FileUtil
+import org.jetbrains.jps.incremental.scala.DummyClient
+import org.jetbrains.jps.incremental.scala.data.CompilerDataKey
+import org.jetbrains.jps.incremental.scala.remote.RemoteResourceOwner
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.project._
+import org.jetbrains.plugins.scala.project.settings.ScalaCompilerConfiguration
+
+import scala.util.control.NonFatal
+
+/**
+ * Pre-instantiates compilers for every Scala SDK of the project in the compile server as soon as the project is opened,
+ * so that the first build doesn't pay for class loading and JIT warm-up.
+ *
+ * Enabled by [[ScalaCompileServerSettings.COMPILE_SERVER_WARM_UP]].
+ */
+final class CompileServerWarmUp(project: Project) extends ProjectComponent {
+
+  override def getComponentName: String = getClass.getSimpleName
+
+  override def projectOpened(): Unit = {
+    if (ApplicationManager.getApplication.isUnitTestMode) return
+
+    DumbService.getInstance(project).runWhenSmart { () =>
+      if (isEnabled) {
+        executeOnPooledThread(warmUp())
+      }
+    }
+  }
+
+  private def isEnabled: Boolean = {
+    val settings = ScalaCompileServerSettings.getInstance
+    settings.COMPILE_SERVER_ENABLED && settings.COMPILE_SERVER_WARM_UP && !project.isDisposed && project.hasScala
+  }
+
+  private def warmUp(): Unit = {
+    if (!CompileServerLauncher.ensureServerRunning(project)) return
+
+    // the compile server SDK is known only once the server is running
+    val keys = inReadAction {
+      project.modulesWithScala.flatMap(module => CompileServerWarmUp.compilerKey(module).map(module -> _))
+    }
+    val representatives = keys.groupBy(_._2).values.map(_.head)
+
+    representatives.foreach { case (module, key) =>
+      if (!project.isDisposed) warmUp(module, key)
+    }
+  }
+
+  private def warmUp(module: Module, key: CompileServerWarmUp.CompilerKey): Unit = {
+    val sourceDir = FileUtil.createTempDirectory("compileServerWarmUp", null, true)
+    val outputDir = FileUtil.createTempDirectory("compileServerWarmUpOut", null, true)
+    try {
+      val source = new File(sourceDir, "WarmUp.scala")
+      FileUtil.writeToFile(source, CompileServerWarmUp.SourceText)
+
+      val connector = new RemoteServerConnectorBase(module, Seq(source), outputDir) {
+        override protected def compilerJars: Seq[File] = key.compilerJars
+
+        override protected def javaHome: Option[File] = key.javaHome
+
+        override protected def incrementalityType: IncrementalityType = key.incrementalityType
+      }
+      val environment = Map(RemoteResourceOwner.WarmUpKey -> "true")
+      new RemoteServerRunner(project).buildProcess(connector.arguments, new DummyClient, environment).run()
+    } catch {
+      case NonFatal(e) =>
+        CompileServerWarmUp.Log.warn(s"Cannot warm up compile server for module ${module.getName}", e)
+    } finally {
+      FileUtil.delete(sourceDir)
+      FileUtil.delete(outputDir)
+    }
+  }
+}
+
+object CompileServerWarmUp {
+  private val Log = Logger.getInstance(classOf[CompileServerWarmUp])
+
+  /**
+   * The parts of `CompilerData` by which the compile server caches compilers.
+   */
+  private[compiler] case class CompilerKey(compilerJars: Seq[File],
+                                           javaHome: Option[File],
+                                           incrementalityType: IncrementalityType)
+
+  /**
+   * The key of the compiler a JPS build of the module will ask the compile server for, as `CompilerData.from` computes it.
+   * None when the module cannot be built, so there is nothing to warm up.
+   */
+  private[compiler] def compilerKey(module: Module): Option[CompilerKey] = for {
+    sdk <- module.scalaSdk
+    (library, compiler, extra) <- CompilerDataKey.compilerJars(sdk.properties.compilerClasspath).toOption
+    moduleJdk <- Option(ModuleRootManager.getInstance(module).getSdk)
+    homePath <- Option(moduleJdk.getHomePath)
+  } yield CompilerKey(
+    library +: compiler +: extra,
+    CompilerDataKey.javaHome(new File(homePath), moduleJdk.getName == ScalaCompileServerSettings.getInstance.COMPILE_SERVER_SDK),
+    ScalaCompilerConfiguration.instanceIn(module.getProject).incrementalityType
+  )
+
+  private val SourceText =
+    """object WarmUp {
+      |  case class Point(x: Int, y: Int)
+      |
+      |  def main(args: Array[String]): Unit = {
+      |    val points = (1 to 10).map(i => Point(i, i * i)).filter(_.y % 2 == 0)
+      |    val sum = points.foldLeft(0)((acc, p) => acc + p.x + p.y)
+      |    println(s"${points.mkString(", ")}: $sum")
+      |  }
+      |}
+      |""".stripMargin
+}
@@ -76,8 +76,8 @@ abstract class RemoteServerConnectorBase(protected val module: Module, filesToCo
     sbtData.sourceJars._2_13,
     sbtData.interfacesHome,
     sbtData.javaClassVersion,
-    compilerClasspath,
-    findJdk,
+    compilerJars,
+    javaHome.map(file2path),
     filesToCompile,
     classpath,
     outputDir,
@@ -87,7 +87,7 @@ abstract class RemoteServerConnectorBase(protected val module: Module, filesToCo
     "", //cache file
     "",
     "",
-    IncrementalityType.IDEA.name(),
+    incrementalityType.name(),
     sourceRoot,
     outputDir,
     worksheetArgs,
@@ -96,6 +96,12 @@ abstract class RemoteServerConnectorBase(protected val module: Module, filesToCo
     "false" //isCompile
   )
 
+  protected def compilerJars: Seq[File] = compilerClasspath
+
+  protected def javaHome: Option[File] = Some(findJdk)
+
+  protected def incrementalityType: IncrementalityType = IncrementalityType.IDEA
+
   protected def settings: ScalaCompileServerSettings = ScalaCompileServerSettings.getInstance()
 
   private def assemblyClasspath() = OrderEnumerator.orderEntries(module).compileOnly().getClassesRoots
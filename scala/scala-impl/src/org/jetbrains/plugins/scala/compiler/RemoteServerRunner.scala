@@ -19,7 +19,7 @@ class RemoteServerRunner(project: Project) extends RemoteResourceOwner {
 
   protected val port: Int = ScalaCompileServerSettings.getInstance().COMPILE_SERVER_PORT
 
-  def buildProcess(arguments: Seq[String], client: Client): CompilationProcess = new CompilationProcess {
+  def buildProcess(arguments: Seq[String], client: Client, environment: Map[String, String] = Map.empty): CompilationProcess = new CompilationProcess {
     val COUNT = 10
 
     var callbacks: Seq[Option[Throwable] => Unit] = Seq.empty
@@ -34,7 +34,7 @@ class RemoteServerRunner(project: Project) extends RemoteResourceOwner {
           try {
             Thread.sleep(i*20)
             val token = readToken(port)
-            send(serverAlias, token +: arguments, client)
+            send(serverAlias, token +: arguments, client, environment)
             return
           } catch {
             case _: ConnectException | _: CantFindSecureTokenException => Thread.sleep(100)
@@ -42,7 +42,7 @@ class RemoteServerRunner(project: Project) extends RemoteResourceOwner {
         }
 
         val token = readToken(port)
-        send(serverAlias, token +: arguments, client)
+        send(serverAlias, token +: arguments, client, environment)
       } catch {
         case e: ConnectException =>
           val message = "Cannot connect to compile server at %s:%s".format(address.toString, port)
@@ -35,6 +35,12 @@ public class ScalaCompileServerSettings implements PersistentStateComponent<Scal
 
   public boolean USE_PROJECT_HOME_AS_WORKING_DIR = false;
 
+  //is not accessible from UI; maximum number of module chunks compiled simultaneously, 0 means number of cores
+  public int COMPILE_SERVER_PARALLELISM = 0;
+
+  //is not accessible from UI; instantiate compilers of the project's Scala SDKs in the background when the project is opened
+  public boolean COMPILE_SERVER_WARM_UP = false;
+
   public ScalaCompileServerSettings getState() {
     return this;
   }
@@ -238,11 +238,13 @@ private[findUsages] class ScalaCompilerReferenceService(
       r   <- reader
     } usages ++= builder(r)(ref)
 
-    usages.result().map { usage =>
-      val module = projectFileIndex.getModuleForFile(usage.file)
-      val ts     = compilationTimestamps.getOrDefault(module.getName, -1)
-      Timestamped(ts, usage)
-    }
+    usages.result().map(timestamped)
+  }
+
+  private[this] def timestamped(usage: UsagesInFile): Timestamped[UsagesInFile] = {
+    val module = projectFileIndex.getModuleForFile(usage.file)
+    val ts     = compilationTimestamps.getOrDefault(module.getName, -1)
+    Timestamped(ts, usage)
   }
 
   def SAMImplementationsOf(aClass: PsiClass, checkDeep: Boolean): Set[Timestamped[UsagesInFile]] =
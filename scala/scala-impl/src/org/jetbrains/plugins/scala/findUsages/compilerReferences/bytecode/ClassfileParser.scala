@@ -3,14 +3,13 @@ package bytecode
 
 import java.{util => ju}
 import java.io._
-import java.nio.charset.StandardCharsets
 import java.util.regex.Pattern
 
+import com.intellij.openapi.util.io.FileUtil
 import com.intellij.openapi.vfs.VirtualFile
 import com.intellij.util.BitUtil.isSet
 import org.jetbrains.org.objectweb.asm.Opcodes._
 import org.jetbrains.org.objectweb.asm._
-import org.jetbrains.plugins.scala.decompiler.Decompiler.{BYTES_VALUE, SCALA_LONG_SIG_ANNOTATION, SCALA_SIG_ANNOTATION}
 import org.jetbrains.plugins.scala.decompiler.scalasig._
 import org.jetbrains.plugins.scala.extensions.using
 
@@ -18,7 +17,6 @@ import scala.annotation.tailrec
 import scala.collection.mutable
 import scala.collection.JavaConverters._
 import scala.reflect.NameTransformer
-import scala.reflect.internal.pickling.ByteCodecs
 
 private[compilerReferences] object ClassfileParser {
   private[this] implicit class RichScalaSigSymbol(private val sym: Symbol) extends AnyVal {
@@ -70,38 +68,24 @@ private[compilerReferences] object ClassfileParser {
   }
 
   def parse(classFiles: Set[File]): Set[ParsedClass] = {
-    val outer = classFiles.minBy(_.getPath.length)
-
-    val scalaSig = using(new FileInputStream(outer)) { in =>
-      val reader  = new ClassReader(in)
-      val visitor = new ScalaSigVisitor(outer.getPath)
-      reader.accept(visitor, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES)
-      visitor.scalaSig
-    }
-
-    val synthetics: Set[String] = scalaSig.fold(Set.empty[String])(
-      _.syntheticSymbols().map(_.qualifiedName)(collection.breakOut)
-    )
-
+    val outer      = outermostClassfile(classFiles)
+    val synthetics = syntheticMembers(FileUtil.loadFileBytes(outer), outer.getPath)
     classFiles.map(parse(_, synthetics))
   }
 
-  private[this] class ScalaSigVisitor(file: String) extends ClassVisitor(Opcodes.ASM6) {
-    var scalaSig: Option[ScalaSig] = None
-
-    override def visitAnnotation(desc: String, visible: Boolean): AnnotationVisitor = desc match {
-      case SCALA_SIG_ANNOTATION | SCALA_LONG_SIG_ANNOTATION =>
-        new AnnotationVisitor(ASM6) {
-          override def visit(name: String, value: scala.Any): Unit =
-            if (name == BYTES_VALUE) {
-              val bytes = value.asInstanceOf[String].getBytes(StandardCharsets.UTF_8)
-              ByteCodecs.decode(bytes)
-              scalaSig = Option(Parser.parseScalaSig(bytes, file))
-            }
-        }
-      case _ => null
-    }
-  }
+  /**
+   * The classfile of the top-level class in a group of classfiles generated from one source,
+   * which carries the ScalaSig of the whole group.
+   */
+  def outermostClassfile(classFiles: Set[File]): File = classFiles.minBy(_.getPath.length)
+
+  /**
+   * Qualified names (without package) of synthetic members, decoded from the ScalaSig of the outermost classfile.
+   */
+  def syntheticMembers(outer: Array[Byte], path: String): Set[String] =
+    ScalaSigScanner.scan(outer).fold(Set.empty[String])(
+      scanned => Parser.parseScalaSig(scanned.signature, path).syntheticSymbols().map(_.qualifiedName)(collection.breakOut)
+    )
 
   def parse(is: InputStream, synthetics: Set[String] = Set.empty): ParsedClass = using(is) { in =>
     val reader  = new ClassReader(in)
@@ -0,0 +1,193 @@
+package org.jetbrains.plugins.scala.findUsages.compilerReferences
+package bytecode
+
+import java.io.{DataInput, DataOutput, File}
+import java.util.concurrent.atomic.AtomicLong
+
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.util.io.{FileUtil, DataInputOutputUtilRt => ioutil}
+import com.intellij.util.io.{DataExternalizer, IOUtil, PersistentHashMap}
+import org.jetbrains.plugins.scala.caches.PersistentCaches._
+
+import scala.collection.JavaConverters._
+import scala.util.control.NonFatal
+
+/**
+ * Persistent cache of [[ParsedClass]]es keyed by classfile content, kept next to the compiler indices,
+ * so that classfiles unchanged between incremental builds are neither re-parsed nor have their ScalaSig re-decoded.
+ *
+ * Parsing results depend on synthetic members declared in the ScalaSig of the outermost class of a group,
+ * so each entry is keyed by the hash of the classfile together with the hash of its outermost classfile.
+ */
+private[compilerReferences] final class ParsedClassCache private (
+  classes:    PersistentHashMap[String, ParsedClass],
+  synthetics: PersistentHashMap[String, Set[String]]
+) {
+  import ParsedClassCache._
+
+  private[this] val lock   = new Object
+  private[this] val hits   = new AtomicLong()
+  private[this] val misses = new AtomicLong()
+
+  def parse(classFiles: Set[File]): Set[ParsedClass] = {
+    val outer      = ClassfileParser.outermostClassfile(classFiles)
+    val outerBytes = FileUtil.loadFileBytes(outer)
+    val outerHash  = hash(outerBytes)
+
+    lazy val syntheticMembers: Set[String] = cached(synthetics, outerHash) {
+      ClassfileParser.syntheticMembers(outerBytes, outer.getPath)
+    }
+
+    classFiles.map { file =>
+      val bytes = if (file == outer) outerBytes else FileUtil.loadFileBytes(file)
+      val key   = s"${hash(bytes)}:$outerHash"
+
+      lock.synchronized(Option(classes.get(key))) match {
+        case Some(parsed) =>
+          hits.incrementAndGet()
+          parsed
+        case None =>
+          misses.incrementAndGet()
+          val parsed = ClassfileParser.parse(bytes, syntheticMembers)
+          lock.synchronized(classes.put(key, parsed))
+          parsed
+      }
+    }
+  }
+
+  def stats: String = {
+    val (h, m) = (hits.get, misses.get)
+    val rate   = if (h + m == 0) 0 else h * 100 / (h + m)
+    s"$h hits, $m misses ($rate% hit rate)"
+  }
+
+  def close(): Unit = lock.synchronized {
+    try classes.close()
+    finally synthetics.close()
+  }
+
+  private[this] def cached[V](map: PersistentHashMap[String, V], key: String)(compute: => V): V =
+    lock.synchronized(Option(map.get(key))).getOrElse {
+      val value = compute
+      lock.synchronized(map.put(key, value))
+      value
+    }
+}
+
+private[compilerReferences] object ParsedClassCache {
+  private val log = Logger.getInstance(classOf[ParsedClassCache])
+
+  /**
+   * Must be incremented whenever [[ClassfileParser]] or the layout of [[ParsedClass]] changes.
+   */
+  private val version = 2
+
+  /**
+   * The cache is never pruned entry by entry, it is dropped as a whole when it outgrows this limit.
+   */
+  private val maxSizeBytes = 512L * 1024 * 1024
+
+  def cacheDir(indexDir: File): File = new File(indexDir, s"parsed-classes-v$version")
+
+  def open(indexDir: File): Option[ParsedClassCache] = {
+    val dir = cacheDir(indexDir)
+
+    if (dirSize(dir) > maxSizeBytes) {
+      log.info(s"Parsed classfiles cache exceeds ${maxSizeBytes / 1024 / 1024} MB, dropping it.")
+      FileUtil.delete(dir)
+    }
+
+    openOrRecreate(dir, "parsed classfiles cache", log) {
+      val classes = stringKeyedMap(dir, "classes", ParsedClassExternalizer)
+      // an open map would leak its files and keep the corrupted storage from being deleted and recreated
+      val synthetics =
+        try stringKeyedMap(dir, "synthetics", SyntheticsExternalizer)
+        catch {
+          case e: Throwable =>
+            try classes.close()
+            catch { case NonFatal(closeFailure) => e.addSuppressed(closeFailure) }
+            throw e
+        }
+      new ParsedClassCache(classes, synthetics)
+    }
+  }
+
+  private object SyntheticsExternalizer extends DataExternalizer[Set[String]] {
+    override def save(out: DataOutput, value: Set[String]): Unit =
+      ioutil.writeSeq(out, value.asJavaCollection, IOUtil.writeUTF(out, _: String))
+
+    override def read(in: DataInput): Set[String] =
+      ioutil.readSeq(in, () => IOUtil.readUTF(in)).asScala.toSet
+  }
+
+  private[bytecode] object ParsedClassExternalizer extends DataExternalizer[ParsedClass] {
+    private[this] final val RegularClassTag = 0
+    private[this] final val FunExprClassTag = 1
+    private[this] final val MethodRefTag    = 0
+    private[this] final val FieldRefTag     = 1
+
+    override def save(out: DataOutput, value: ParsedClass): Unit = {
+      value match {
+        case _: RegularClass => out.writeByte(RegularClassTag)
+        case _: FunExprClass => out.writeByte(FunExprClassTag)
+      }
+
+      val info = value.classInfo
+      out.writeBoolean(info.isAnonymous)
+      IOUtil.writeUTF(out, info.fqn)
+      SyntheticsExternalizer.save(out, info.superClasses)
+
+      ioutil.writeSeq(out, value.refs.asJavaCollection, saveRef(out, _: MemberReference))
+
+      value match {
+        case cl: RegularClass => ioutil.writeSeq(out, cl.funExprs.asJavaCollection, saveFunExpr(out, _: FunExprInheritor))
+        case fe: FunExprClass => ioutil.writeINT(out, fe.line)
+      }
+    }
+
+    override def read(in: DataInput): ParsedClass = {
+      val tag  = in.readByte()
+      val info = ClassInfo(in.readBoolean(), IOUtil.readUTF(in), SyntheticsExternalizer.read(in))
+      val refs = ioutil.readSeq(in, () => readRef(in)).asScala.toVector
+
+      tag match {
+        case RegularClassTag => RegularClass(info, refs, ioutil.readSeq(in, () => readFunExpr(in)).asScala.toVector)
+        case FunExprClassTag => FunExprClass(info, refs, ioutil.readINT(in))
+      }
+    }
+
+    private[this] def saveRef(out: DataOutput, ref: MemberReference): Unit = {
+      ref match {
+        case _: MethodReference => out.writeByte(MethodRefTag)
+        case _: FieldReference  => out.writeByte(FieldRefTag)
+      }
+      IOUtil.writeUTF(out, ref.owner)
+      IOUtil.writeUTF(out, ref.name)
+      ioutil.writeINT(out, ref.line)
+      ref match {
+        case mref: MethodReference => ioutil.writeINT(out, mref.args)
+        case _                     => ()
+      }
+    }
+
+    private[this] def readRef(in: DataInput): MemberReference = {
+      val tag   = in.readByte()
+      val owner = IOUtil.readUTF(in)
+      val name  = IOUtil.readUTF(in)
+      val line  = ioutil.readINT(in)
+
+      tag match {
+        case MethodRefTag => MethodReference(owner, name, line, ioutil.readINT(in))
+        case FieldRefTag  => FieldReference(owner, name, line)
+      }
+    }
+
+    private[this] def saveFunExpr(out: DataOutput, sam: FunExprInheritor): Unit = {
+      IOUtil.writeUTF(out, sam.interface)
+      ioutil.writeINT(out, sam.line)
+    }
+
+    private[this] def readFunExpr(in: DataInput): FunExprInheritor =
+      FunExprInheritor(IOUtil.readUTF(in), ioutil.readINT(in))
+  }
+}
@@ -3,15 +3,16 @@ package indices
 
 import java.io.File
 import java.util.concurrent._
-import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.atomic.{AtomicInteger, AtomicReference}
 
 import com.intellij.openapi.diagnostic.Logger
 import com.intellij.openapi.progress.{ProgressIndicator, Task}
 import com.intellij.openapi.project.Project
 import com.intellij.openapi.util.Disposer
+import com.intellij.util.concurrency.AppExecutorUtil
 import com.intellij.util.containers.ContainerUtil
 import org.jetbrains.plugins.scala.extensions._
-import org.jetbrains.plugins.scala.findUsages.compilerReferences.bytecode.{ClassfileParser, CompiledScalaFile}
+import org.jetbrains.plugins.scala.findUsages.compilerReferences.bytecode.{ClassfileParser, CompiledScalaFile, ParsedClass, ParsedClassCache}
 import org.jetbrains.plugins.scala.findUsages.compilerReferences.indices.IndexerFailure._
 import org.jetbrains.plugins.scala.findUsages.compilerReferences.indices.IndexingStage._
 import org.jetbrains.plugins.scala.indices.protocol.{CompilationInfo, CompiledClass}
@@ -27,6 +28,7 @@ private class CompilerReferenceIndexer(project: Project, expectedIndexVersion: I
 
   private[this] var indexingExecutor: ExecutorService                 = _
   private[this] var indexWriter: Option[ScalaCompilerReferenceWriter] = None
+  private[this] var parsedClassCache: Option[ParsedClassCache]        = None
 
   private[this] val jobFailures  = ContainerUtil.newConcurrentSet[IndexerJobFailure]()
   private[this] val fatalFailure = new AtomicReference[Option[Throwable]](Option.empty)
@@ -48,25 +50,69 @@ private class CompilerReferenceIndexer(project: Project, expectedIndexVersion: I
   private[this] def checkInterruptStatus(): Unit =
     if (Thread.interrupted()) throw new InterruptedException
 
-  private def parseClassfiles(writer: ScalaCompilerReferenceWriter): Unit =
+  /**
+   * Parsing stage, run on all cores: reads classfiles with ASM and hands the results over to the writer stage.
+   */
+  private def parseClassfiles(parsed: BlockingQueue[ParsedJob], progress: IndexingProgress): Unit =
     try {
       while (!indexerJobQueue.isEmpty) {
         checkInterruptStatus()
         val job = indexerJobQueue.poll()
 
-        try job match {
-          case ProcessRemovedSource(file) => writer.processDeletedFile(file.getPath)
+        val result = job match {
+          case ProcessRemovedSource(_) => Right(Set.empty[ParsedClass])
           case ProcessGeneratedClasses(classes) =>
-            val sourceFile = classes.head.source // guaranteed to be non-empty
             val classfiles = classes.map(_.output)
-            val parsed     = ClassfileParser.parse(classfiles)
-            val data       = CompiledScalaFile(sourceFile, parsed, writer)
-            writer.registerClassfileData(data)
-          case null => ()
-        } catch { case NonFatal(e) => jobFailures.add(IndexerJobFailure(job, e)) }
+            try Right(parsedClassCache.fold(ClassfileParser.parse(classfiles))(_.parse(classfiles)))
+            catch { case NonFatal(e) => Left(e) }
+          case null => null
+        }
+
+        if (result != null) {
+          parsed.put(ParsedJob(job, result))
+          progress.parsed.incrementAndGet()
+        }
       }
     } catch { case e: Throwable => onException(e, shouldClearIndex = false) }
 
+  /**
+   * Writer stage, run on a single thread: enumerates names and writes parsed data in batches,
+   * so that parsing threads never contend for the index.
+   */
+  private def writeParsedData(
+    writer:   ScalaCompilerReferenceWriter,
+    parsed:   BlockingQueue[ParsedJob],
+    parsers:  Seq[Future[_]],
+    progress: IndexingProgress
+  ): Unit = {
+    val batch = new java.util.ArrayList[ParsedJob](WriterBatchSize)
+
+    def parsingFinished: Boolean = parsers.forall(_.isDone)
+
+    while (!(parsingFinished && parsed.isEmpty)) {
+      checkInterruptStatus()
+
+      Option(parsed.poll(WriterPollTimeoutMs, TimeUnit.MILLISECONDS)).foreach { first =>
+        batch.add(first)
+        parsed.drainTo(batch, WriterBatchSize - 1)
+
+        batch.asScala.foreach { case ParsedJob(job, result) =>
+          try (job, result) match {
+            case (ProcessRemovedSource(file), _) => writer.processDeletedFile(file.getPath)
+            case (ProcessGeneratedClasses(classes), Right(parsedClasses)) =>
+              val sourceFile = classes.head.source // guaranteed to be non-empty
+              val data       = CompiledScalaFile(sourceFile, parsedClasses, writer)
+              writer.registerClassfileData(data)
+            case (_, Left(e)) => throw e
+          } catch { case NonFatal(e) => jobFailures.add(IndexerJobFailure(job, e)) }
+        }
+
+        progress.written.addAndGet(batch.size)
+        batch.clear()
+      }
+    }
+  }
+
   private[this] def initialiseExecutorIfNeeded(): Unit =
     if (isShutdown) indexingExecutor = Executors.newFixedThreadPool(nThreads)
 
@@ -75,6 +121,7 @@ private class CompilerReferenceIndexer(project: Project, expectedIndexVersion: I
       case OpenWriter(isCleanBuild) => task(project, "Initializing compiler indices writer") { _ =>
         initialiseExecutorIfNeeded()
         indexWriter = indexDir(project).flatMap(ScalaCompilerReferenceWriter(_, expectedIndexVersion, isCleanBuild))
+        parsedClassCache = indexWriter.flatMap(_ => indexDir(project)).flatMap(ParsedClassCache.open)
       }
       case CloseWriter(onFinish) => task(project, "Closing compiler indices writer") { _ =>
         val maybeFatalFailure = fatalFailure.get().map(FatalFailure)
@@ -96,16 +143,27 @@ private class CompilerReferenceIndexer(project: Project, expectedIndexVersion: I
     }
 
   private[this] def cleanUp(shouldClearIndex: Boolean): Unit =
-    try indexWriter match {
-      case Some(writer)             => writer.close(shouldClearIndex)
-      case None if shouldClearIndex => removeIndexFiles(project)
-      case _                        => ()
+    try {
+      closeParsedClassCache()
+      indexWriter match {
+        case Some(writer)             => writer.close(shouldClearIndex)
+        case None if shouldClearIndex => removeIndexFiles(project)
+        case _                        => ()
+      }
     } finally {
       indexWriter = None
+      parsedClassCache = None
       jobFailures.clear()
       fatalFailure.set(Option.empty)
     }
 
+  private[this] def closeParsedClassCache(): Unit =
+    parsedClassCache.foreach { cache =>
+      log.info(s"Parsed classfiles cache: ${cache.stats}")
+      try cache.close()
+      catch { case NonFatal(e) => log.warn("Failed to close parsed classfiles cache.", e) }
+    }
+
   private final class IndexCompilationInfoTask(info: CompilationInfo, callback: () => Unit)
       extends Task.Backgroundable(project, "Indexing classfiles ...", true) {
 
@@ -123,9 +181,11 @@ private class CompilerReferenceIndexer(project: Project, expectedIndexVersion: I
               case (_, classes) => indexerJobQueue.add(ProcessGeneratedClasses(classes))
             }
 
-            val tasks = (1 to nThreads).map(_ => toCallable(parseClassfiles(writer)))
+            val progress = new IndexingProgress(indexerJobQueue.size, progressIndicator)
+            val parsed   = new ArrayBlockingQueue[ParsedJob](ParsedQueueCapacity)
+            val parsers  = (1 to nThreads).map(_ => indexingExecutor.submit(toCallable(parseClassfiles(parsed, progress))))
 
-            indexingExecutor.invokeAll(tasks.asJavaCollection)
+            progress.reportingWhile(writeParsedData(writer, parsed, parsers, progress))
           } catch {
             case e: Throwable => onException(e, shouldClearIndex = true)
           } finally callback()
@@ -157,6 +217,41 @@ private[compilerReferences] object CompilerReferenceIndexer {
     }
   }
 
+  private val ParsedQueueCapacity = 1024
+  private val WriterBatchSize     = 256
+  private val WriterPollTimeoutMs = 50L
+
+  private final case class ParsedJob(job: IndexerJob, result: Either[Throwable, Set[ParsedClass]])
+
+  private final class IndexingProgress(total: Int, indicator: ProgressIndicator) {
+    val parsed  = new AtomicInteger()
+    val written = new AtomicInteger()
+
+    private[this] val reporter = new Runnable {
+      override def run(): Unit = report()
+    }
+
+    private[this] def report(): Unit = {
+      indicator.setIndeterminate(false)
+      indicator.setText(s"Parsing classfiles: ${parsed.get} of $total")
+      indicator.setText2(s"Writing compiler indices: ${written.get} of $total")
+      indicator.setFraction(if (total == 0) 1.0 else written.get.toDouble / total)
+    }
+
+    def reportingWhile(body: => Unit): Unit = {
+      val scheduled = ProgressReportingExecutor.scheduleWithFixedDelay(reporter, 0, 200, TimeUnit.MILLISECONDS)
+      try body
+      finally {
+        scheduled.cancel(false)
+        report()
+      }
+    }
+  }
+
+  // shares threads of the application pool, which is shut down together with the application
+  private val ProgressReportingExecutor =
+    AppExecutorUtil.createBoundedScheduledExecutorService("Compiler indices progress reporter", 1)
+
   private[compilerReferences] sealed trait IndexerJob
   private[compilerReferences] final case class ProcessRemovedSource(file:    File)               extends IndexerJob
   private[compilerReferences] final case class ProcessGeneratedClasses(data: Set[CompiledClass]) extends IndexerJob
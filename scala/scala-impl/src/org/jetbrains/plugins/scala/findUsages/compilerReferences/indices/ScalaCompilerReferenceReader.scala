@@ -41,8 +41,8 @@ private[findUsages] class ScalaCompilerReferenceReader private[compilerReference
 
       searchInBackwardUsagesIndex(ref) {
         case (fileId, lines) =>
-          val file = findFileByEnumeratorId(fileId)
-          file.foreach(usages += UsagesInFile(_, lines))
+          ProgressManager.checkCanceled()
+          findFileByEnumeratorId(fileId).foreach(file => usages += UsagesInFile(file, lines))
           true
       }
 
@@ -39,7 +39,7 @@ private class CompilerIndicesReferencesSearcher
     PsiNamedElement,
     PsiReference,
     CompilerIndicesReferencesSearch.SearchParameters
-  ](true) {
+  ](false) {
 
   override def processQuery(
     parameters: CompilerIndicesReferencesSearch.SearchParameters,
@@ -48,8 +48,10 @@ private class CompilerIndicesReferencesSearcher
     val target  = parameters.element
     val project = target.getProject
     val service = ScalaCompilerReferenceService(project)
-    val usages  = service.usagesOf(target)
-    processResultsFromCompilerService(target, usages, project, consumer)
+
+    // usages are read from the index under its lock, which must be released before they are resolved
+    val usages  = inReadAction(service.usagesOf(target))
+    processResultsFromCompilerServiceStreaming(target, usages, project, consumer)
   }
 
     override protected def processMatchingElements(
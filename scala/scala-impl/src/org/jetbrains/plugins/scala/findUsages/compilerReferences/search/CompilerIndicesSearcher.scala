@@ -1,17 +1,27 @@
 package org.jetbrains.plugins.scala.findUsages.compilerReferences.search
 
+import java.util.concurrent.atomic.AtomicBoolean
+
+import com.intellij.concurrency.JobLauncher
 import com.intellij.notification.{Notification, NotificationType, Notifications}
-import com.intellij.openapi.application.QueryExecutorBase
+import com.intellij.openapi.application.{ApplicationManager, QueryExecutorBase}
 import com.intellij.openapi.fileEditor.FileDocumentManager
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils
+import com.intellij.openapi.progress.{EmptyProgressIndicator, ProgressManager}
 import com.intellij.openapi.project.Project
 import com.intellij.psi.{PsiDocumentManager, PsiManager}
 import com.intellij.util.Processor
+import com.intellij.util.containers.ContainerUtil
 import org.jetbrains.plugins.scala.ScalaBundle
+import org.jetbrains.plugins.scala.extensions._
 import org.jetbrains.plugins.scala.findUsages.compilerReferences.search.UsageToPsiElements._
 import org.jetbrains.plugins.scala.findUsages.compilerReferences.{Timestamped, UsagesInFile}
 
+import scala.collection.JavaConverters._
+
 abstract class CompilerIndicesSearcher[Target, Result, Params](reqireReadAction: Boolean)
   extends QueryExecutorBase[Result, Params](reqireReadAction) {
+  import CompilerIndicesSearcher._
 
   protected def processResultsFromCompilerService(
     target:    Target,
@@ -19,33 +29,118 @@ abstract class CompilerIndicesSearcher[Target, Result, Params](reqireReadAction:
     project:   Project,
     processor: Processor[_ >: Result]
   ): Unit = {
-    val fileDocManager     = FileDocumentManager.getInstance()
-    val outdated           = Set.newBuilder[String]
-    val psiManager         = PsiManager.getInstance(project)
-    val psiDocumentManager = PsiDocumentManager.getInstance(project)
-
-    results.foreach { usage =>
-      val maybeCandidates = extractCandidatesFromUsage(psiManager, psiDocumentManager, usage.unwrap)
-
-      maybeCandidates.foreach { case candidates @ ElementsInContext(_, file, doc) =>
-        val isOutdated = fileDocManager.isDocumentUnsaved(doc) ||
-          file.getVirtualFile.getTimeStamp > usage.timestamp
-
-        val shouldMarkAsOutdated = !processMatchingElements(
-          target,
-          usage.unwrap,
-          isOutdated,
-          candidates,
-          processor
+    val context  = new ResolveContext(project)
+    val outdated = Set.newBuilder[String]
+
+    results.foreach(usage => outdated ++= processUsage(target, usage, context, processor))
+    notifyAboutOutdatedUsages(outdated.result())
+  }
+
+  /**
+    * Streaming counterpart of [[processResultsFromCompilerService]].
+    *
+    * Usages are resolved to PSI elements in parallel under read actions, in batches of files,
+    * so that first results are reported long before all usages are resolved.
+    * Batches start small and grow, the first ones being the most latency sensitive.
+    *
+    * Must be called without the index lock held: resolution would block index updates otherwise.
+    * Outside of a read action worker read actions yield to pending write actions and are retried;
+    * inside of one, which a write action would wait for, usages are resolved on the calling thread.
+    */
+  protected def processResultsFromCompilerServiceStreaming(
+    target:    Target,
+    results:   Set[Timestamped[UsagesInFile]],
+    project:   Project,
+    processor: Processor[_ >: Result]
+  ): Unit = {
+    val context   = new ResolveContext(project)
+    val outdated  = ContainerUtil.newConcurrentSet[String]()
+    val indicator = Option(ProgressManager.getInstance().getProgressIndicator).getOrElse(new EmptyProgressIndicator)
+    val stopped   = new AtomicBoolean(false)
+
+    // results are reported from several threads, while consumers of a query expect them one at a time
+    val synchronizedProcessor: Processor[Result] = result =>
+      processor.synchronized {
+        val proceed = !stopped.get && processor.process(result)
+        if (!proceed) stopped.set(true)
+        proceed
+      }
+
+    def resolve(usage: Timestamped[UsagesInFile]): Unit =
+      processUsage(target, usage, context, synchronizedProcessor).foreach(outdated.add)
+
+    def resolveInParallel(batch: Seq[Timestamped[UsagesInFile]]): Unit = {
+      var pending = batch
+
+      while (pending.nonEmpty && !stopped.get) {
+        val resolved = ContainerUtil.newConcurrentSet[Timestamped[UsagesInFile]]()
+
+        JobLauncher.getInstance().invokeConcurrentlyUnderProgress(
+          pending.asJava,
+          indicator,
+          true,
+          true,
+          (usage: Timestamped[UsagesInFile]) => {
+            resolve(usage)
+            resolved.add(usage)
+            !stopped.get
+          }
         )
 
-        if (isOutdated && shouldMarkAsOutdated)
-          outdated += file.getVirtualFile.getPresentableName
+        pending = pending.filterNot(resolved.contains)
+        if (pending.nonEmpty && !stopped.get) {
+          ProgressManager.checkCanceled()
+          ProgressIndicatorUtils.yieldToPendingWriteActions()
+        }
       }
     }
 
-    val filesToNotify = outdated.result()
+    val resolveBatch: Seq[Timestamped[UsagesInFile]] => Unit =
+      if (ApplicationManager.getApplication.isReadAccessAllowed) _.takeWhile(_ => !stopped.get).foreach(resolve)
+      else resolveInParallel
 
+    var remaining = results.toSeq
+    var batchSize = InitialBatchSize
+
+    while (remaining.nonEmpty && !stopped.get) {
+      ProgressManager.checkCanceled()
+      val (batch, rest) = remaining.splitAt(batchSize)
+      resolveBatch(batch)
+      remaining = rest
+      batchSize = math.min(batchSize * 2, MaxBatchSize)
+    }
+
+    notifyAboutOutdatedUsages(outdated.asScala.toSet)
+  }
+
+  /**
+    * @return name of the file containing `usage`, if the usage may have been invalidated by external changes
+    */
+  private[this] def processUsage(
+    target:    Target,
+    usage:     Timestamped[UsagesInFile],
+    context:   ResolveContext,
+    processor: Processor[_ >: Result]
+  ): Option[String] = {
+    val maybeCandidates = extractCandidatesFromUsage(context.psiManager, context.psiDocumentManager, usage.unwrap)
+
+    maybeCandidates.flatMap { case candidates @ ElementsInContext(_, file, doc) =>
+      val isOutdated = context.fileDocManager.isDocumentUnsaved(doc) ||
+        file.getVirtualFile.getTimeStamp > usage.timestamp
+
+      val shouldMarkAsOutdated = !processMatchingElements(
+        target,
+        usage.unwrap,
+        isOutdated,
+        candidates,
+        processor
+      )
+
+      (isOutdated && shouldMarkAsOutdated).option(file.getVirtualFile.getPresentableName)
+    }
+  }
+
+  private[this] def notifyAboutOutdatedUsages(filesToNotify: Set[String]): Unit =
     if (filesToNotify.nonEmpty) {
       Notifications.Bus.notify(
         new Notification(
@@ -56,7 +151,6 @@ abstract class CompilerIndicesSearcher[Target, Result, Params](reqireReadAction:
         )
       )
     }
-  }
 
   /**
     * Processes elements associated with a single [[UsagesInFile]] instance,
@@ -71,3 +165,14 @@ abstract class CompilerIndicesSearcher[Target, Result, Params](reqireReadAction:
     processor:          Processor[_ >: Result]
   ): Boolean
 }
+
+object CompilerIndicesSearcher {
+  private val InitialBatchSize = Runtime.getRuntime.availableProcessors()
+  private val MaxBatchSize     = 256
+
+  private final class ResolveContext(project: Project) {
+    val fileDocManager: FileDocumentManager    = FileDocumentManager.getInstance()
+    val psiManager: PsiManager                 = PsiManager.getInstance(project)
+    val psiDocumentManager: PsiDocumentManager = PsiDocumentManager.getInstance(project)
+  }
+}
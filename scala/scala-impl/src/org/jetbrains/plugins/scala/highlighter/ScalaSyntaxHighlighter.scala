@@ -9,10 +9,12 @@ import com.intellij.openapi.fileTypes.{SyntaxHighlighter, SyntaxHighlighterBase}
 import com.intellij.psi.tree.{IElementType, TokenSet}
 import com.intellij.psi.xml.XmlTokenType
 import com.intellij.psi.{StringEscapesTokenTypes, TokenType}
-import org.jetbrains.plugins.scala.lang.lexer.{ScalaLexer, ScalaTokenTypes, ScalaXmlLexer, ScalaXmlTokenTypes}
+import org.jetbrains.plugins.scala.lang.lexer.{LexerContextStates, ScalaLexer, ScalaTokenTypes, ScalaXmlLexer, ScalaXmlTokenTypes}
 import org.jetbrains.plugins.scala.lang.scaladoc.lexer.ScalaDocTokenType
 import org.jetbrains.plugins.scala.lang.scaladoc.parser.ScalaDocElementTypes
 
+import scala.collection.JavaConverters._
+
 final class ScalaSyntaxHighlighter(scalaLexer: Lexer,
                                    scalaDocHighlighter: SyntaxHighlighter,
                                    htmlHighlighter: SyntaxHighlighter) extends SyntaxHighlighterBase {
@@ -205,7 +207,18 @@ object ScalaSyntaxHighlighter {
 
   private class CompoundLexer(scalaLexer: Lexer,
                               scalaDocLexer: Lexer,
-                              htmlLexer: Lexer) extends LayeredLexer(scalaLexer) {
+                              htmlLexer: Lexer) extends LayeredLexer(scalaLexer) with RestartableLexer {
+
+    override def getStartState: Int = 0
+
+    // states of layers are never issued by LexerContextStates, so lexing is restarted in the Scala lexer only
+    override def isRestartableState(state: Int): Boolean = scalaLexer match {
+      case lexer: RestartableLexer => lexer.isRestartableState(state)
+      case _ => state == 0
+    }
+
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int, tokenIterator: TokenIterator): Unit =
+      start(buffer, startOffset, endOffset, initialState)
 
     registerSelfStoppingLayer(
       new StringLiteralLexer('\"', tSTRING),
@@ -241,7 +254,7 @@ object ScalaSyntaxHighlighter {
   }
 
   private[highlighter] class CustomScalaLexer(delegate: ScalaLexer)
-    extends DelegateLexer(delegate) {
+    extends DelegateLexer(delegate) with RestartableLexer {
 
     private var openingTags = new ju.Stack[String]
     private var tagMatch = false
@@ -249,10 +262,25 @@ object ScalaSyntaxHighlighter {
     private var afterStartTagStart = false
     private var nameIndex = 0
 
-    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int): Unit = {
-      super.start(buffer, startOffset, endOffset, initialState) // TODO is it correct???
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int): Unit =
+      LexerContextStates.contextOf(initialState) match {
+        case TagsContext(state, tags, tagMatch, isInClosingTag, afterStartTagStart, nameIndex) =>
+          super.start(buffer, startOffset, endOffset, state)
+
+          openingTags = new ju.Stack[String]
+          tags.foreach(openingTags.push)
+          this.tagMatch = tagMatch
+          this.isInClosingTag = isInClosingTag
+          this.afterStartTagStart = afterStartTagStart
+          this.nameIndex = nameIndex
+        case _ =>
+          super.start(buffer, startOffset, endOffset, initialState) // TODO is it correct???
+
+          // TODO State class
+          resetTags()
+      }
 
-      // TODO State class
+    private def resetTags(): Unit = {
       openingTags = new ju.Stack[String]
       tagMatch = false
       isInClosingTag = false
@@ -260,6 +288,24 @@ object ScalaSyntaxHighlighter {
       nameIndex = 0
     }
 
+    // tags matter for the state inside XML literals only, where ScalaLexer reports its lexing context
+    override def getState: Int = super.getState match {
+      case 0 => 0
+      case state if delegate.isRestartableState(state) =>
+        LexerContextStates.stateOf(TagsContext(state, openingTags.asScala.toList, tagMatch, isInClosingTag, afterStartTagStart, nameIndex), state)
+      case state => state
+    }
+
+    override def getStartState: Int = delegate.getStartState
+
+    override def isRestartableState(state: Int): Boolean = state match {
+      case 0 => true
+      case _ => LexerContextStates.contextOf(state).isInstanceOf[TagsContext]
+    }
+
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int, tokenIterator: TokenIterator): Unit =
+      start(buffer, startOffset, endOffset, initialState)
+
     override def getTokenType: IElementType = super.getTokenType match {
       case TokenType.WHITE_SPACE => XML_WHITE_SPACE
       case XML_START_TAG_START => tOPENXMLTAG
@@ -314,9 +360,24 @@ object ScalaSyntaxHighlighter {
           afterStartTagStart = true
         case _ =>
       }
+
+      // as if lexing was restarted here, tags of unbalanced XML literals don't leak into the following ones
+      if (super.getState == 0) {
+        resetTags()
+      }
     }
   }
 
+  /**
+    * @param state context state of [[ScalaLexer]]
+    */
+  private case class TagsContext(state: Int,
+                                 openingTags: List[String],
+                                 tagMatch: Boolean,
+                                 isInClosingTag: Boolean,
+                                 afterStartTagStart: Boolean,
+                                 nameIndex: Int)
+
   private class ScalaHtmlHighlightingLexerWrapper(delegate: Lexer) extends DelegateLexer(delegate) {
 
     override def getTokenType: IElementType = {
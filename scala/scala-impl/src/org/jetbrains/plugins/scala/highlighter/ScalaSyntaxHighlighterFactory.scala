@@ -23,6 +23,7 @@ final class ScalaSyntaxHighlighterFactory extends SyntaxHighlighterFactory {
       .forLanguage(language)
       .createLexer(project)
       .asInstanceOf[ScalaLexer]
+    scalaLexer.setRestartableStates(true)
 
     new ScalaSyntaxHighlighter(
       new ScalaSyntaxHighlighter.CustomScalaLexer(scalaLexer),
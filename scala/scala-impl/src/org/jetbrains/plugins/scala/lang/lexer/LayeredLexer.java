@@ -75,6 +75,7 @@ class LayeredLexer extends DelegateLexer {
     LOG.assertTrue(initialState != OUT_OF_LAYER_STATE, "Restoring to layer is not supported.");
     myState = initialState;
     myCurrentLayerLexer = null;
+    myLayerLeftPart = -1;
 
     super.start(buffer, startOffset, endOffset, initialState);
     activateLayerIfNecessary();
@@ -151,6 +152,10 @@ class LayeredLexer extends DelegateLexer {
       super.advance();
       activateLayerIfNecessary();
     }
+    updateState();
+  }
+
+  private void updateState() {
     // CHANGED
     // This logic is "inverted" comparing to the original LayeredLexer implementation
     // (to propagate state within layer)
@@ -159,6 +164,43 @@ class LayeredLexer extends DelegateLexer {
         : super.getTokenType() == null ? super.getState() : OUT_OF_LAYER_STATE;
   }
 
+  /**
+   * Restarts lexing at a base token, which is not lexed by a layer, with the state {@link #advance()} would report there.
+   */
+  void startAtBaseToken(@NotNull CharSequence buffer, int startOffset, int endOffset, int baseState) {
+    start(buffer, startOffset, endOffset, baseState);
+    LOG.assertTrue(!isLayerActive(), "Base token is lexed by a layer.");
+    updateState();
+  }
+
+  /**
+   * Restarts lexing in the middle of a base token lexed by a self-stopping layer.
+   *
+   * @param layerLexer   the layer, already restarted by the caller where lexing should resume
+   * @param baseTokenEnd end of the base token, where the base lexer is restarted with {@code baseState}
+   */
+  void startInLayer(@NotNull CharSequence buffer,
+                    int endOffset,
+                    @NotNull Lexer layerLexer,
+                    @NotNull IElementType baseTokenType,
+                    int baseTokenEnd,
+                    int baseState) {
+    LOG.assertTrue(mySelfStoppingLexers.contains(layerLexer), "Only self-stopping layers can be restarted.");
+    super.start(buffer, baseTokenEnd, endOffset, baseState);
+    myCurrentLayerLexer = layerLexer;
+    myCurrentBaseTokenType = baseTokenType;
+    myBaseTokenEnd = baseTokenEnd;
+    myLayerLeftPart = -1;
+    updateState();
+  }
+
+  /**
+   * @return end of the base token, which the current layer lexes, or -1 if no layer is active
+   */
+  int getBaseTokenEnd() {
+    return isLayerActive() || isInLayerEndGap() ? myBaseTokenEnd : -1;
+  }
+
   @NotNull
   @Override
   public LexerPosition getCurrentPosition() {
@@ -179,11 +221,11 @@ class LayeredLexer extends DelegateLexer {
     return false;
   }
 
-  private boolean isLayerActive() {
+  boolean isLayerActive() {
     return myCurrentLayerLexer != null;
   }
 
-  private boolean isInLayerEndGap() {
+  boolean isInLayerEndGap() {
     return myLayerLeftPart != -1;
   }
 }
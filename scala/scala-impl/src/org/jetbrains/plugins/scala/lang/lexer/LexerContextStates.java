@@ -0,0 +1,71 @@
+package org.jetbrains.plugins.scala.lang.lexer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Side table of lexing contexts which don't fit into an {@code int} lexer state.
+ * <p>
+ * Each context gets its own state, equal contexts get the same one, whichever lexer instance asks for it.
+ * States are tagged, so they never clash with states of flex lexers and layers. Once the table is full,
+ * it's cleared and the states issued before are no longer recognized, so lexing just can't be restarted at them.
+ * A generation of states is never reused: when the last one is full, no more states are issued.
+ */
+public final class LexerContextStates {
+
+  private static final int TAG = 0x40000000;
+  private static final int TAG_MASK = 0xFC000000;
+  private static final int GENERATION_SHIFT = 16;
+  private static final int GENERATION_MASK = 0x3FF;
+  private static final int CAPACITY = 1 << GENERATION_SHIFT;
+
+  private static final Map<Object, Integer> ourStates = new HashMap<>();
+  private static final List<Object> ourContexts = new ArrayList<>();
+  private static volatile int ourGeneration = 0;
+
+  private LexerContextStates() {
+  }
+
+  /**
+   * @param context       an immutable value with structural equality
+   * @param fallbackState a state to report if no more states can be issued
+   */
+  public static synchronized int stateOf(@NotNull Object context, int fallbackState) {
+    Integer state = ourStates.get(context);
+    if (state != null) return state;
+
+    if (ourContexts.size() == CAPACITY) {
+      if (ourGeneration == GENERATION_MASK) return fallbackState;
+
+      ourStates.clear();
+      ourContexts.clear();
+      ourGeneration++;
+    }
+
+    int newState = TAG | ourGeneration << GENERATION_SHIFT | ourContexts.size();
+    ourContexts.add(context);
+    ourStates.put(context, newState);
+    return newState;
+  }
+
+  /**
+   * @return null if the state wasn't issued by {@link #stateOf(Object, int)} or was issued before the table was cleared
+   */
+  @Nullable
+  public static Object contextOf(int state) {
+    // most states are not issued here, they are told apart without taking the lock
+    if ((state & TAG_MASK) != TAG || (state >>> GENERATION_SHIFT & GENERATION_MASK) != ourGeneration) return null;
+
+    synchronized (LexerContextStates.class) {
+      if ((state >>> GENERATION_SHIFT & GENERATION_MASK) != ourGeneration) return null;
+
+      int index = state & (CAPACITY - 1);
+      return index < ourContexts.size() ? ourContexts.get(index) : null;
+    }
+  }
+}
@@ -18,6 +18,8 @@ package org.jetbrains.plugins.scala.lang.lexer;
 import com.intellij.lexer.Lexer;
 import com.intellij.lexer.LexerPosition;
 import com.intellij.lexer.LexerState;
+import com.intellij.lexer.RestartableLexer;
+import com.intellij.lexer.TokenIterator;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.tree.IElementType;
 import com.intellij.psi.tree.xml.IXmlLeafElementType;
@@ -32,11 +34,12 @@ import org.jetbrains.plugins.scala.settings.ScalaProjectSettings;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * @author ilyas
  */
-public final class ScalaLexer extends Lexer {
+public final class ScalaLexer extends Lexer implements RestartableLexer {
 
   private static final String XML_BEGIN_PATTERN = "<\\w";
   private static final int MASK = 0x3F;
@@ -58,6 +61,7 @@ public final class ScalaLexer extends Lexer {
   private boolean inCdata = false;
   private IElementType myTokenType;
   private int xmlSteps = -1;
+  private boolean myRestartableStates = false;
 
   /* We need to store it as in some cases (e.g. when we have uninterrupted xml elements sequence like '<a></a>')
    * when the last xml element was located in 'locateToken()' there is no way to determine from xml state/xml tags stack
@@ -81,11 +85,26 @@ public final class ScalaLexer extends Lexer {
     myCurrentLexer = myScalaPlainLexer;
   }
 
+  /**
+   * In this mode {@link #getState()} reports lexing contexts at tokens with line breaks inside interpolated strings
+   * and XML literals as states of {@link LexerContextStates} instead of a single non-initial state,
+   * so that the editor highlighter can restart and stop relexing inside them.
+   */
+  public void setRestartableStates(boolean restartableStates) {
+    myRestartableStates = restartableStates;
+  }
+
   private void setScalaLexer() {
     myCurrentLexer = myScalaPlainLexer;
   }
 
   public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState) {
+    Object context = myRestartableStates ? LexerContextStates.contextOf(initialState) : null;
+    if (context instanceof Context) {
+      restore(buffer, startOffset, endOffset, (Context) context);
+      return;
+    }
+
     setScalaLexer();
     myCurrentLexer.start(buffer, startOffset, endOffset, initialState & MASK);
     myBraceStack.clear();
@@ -107,9 +126,110 @@ public final class ScalaLexer extends Lexer {
     if (scalaState != 0) state = 239;
     // work-around for the strange advance()-related assumption / behavior in locateToken()
     if (myTokenStart == 0) return 0;
+    // a context per line is enough to restart near an edit, and keeps the side table small
+    if (state != 0 && myRestartableStates && myTokenType != null &&
+        CharArrayUtil.containLineBreaks(myBuffer, myTokenStart, myTokenEnd)) {
+      Context context = currentContext();
+      if (context != null) return LexerContextStates.stateOf(context, state);
+    }
     return state;
   }
 
+  /**
+   * @return null if lexing can't be resumed at the current token
+   */
+  @Nullable
+  private Context currentContext() {
+    // the lexer which isn't current is restarted before it's used again
+    boolean inXml = myCurrentLexer == myXmlLexer;
+    int xmlLexerOffset = 0;
+    int xmlLexerState = 0;
+    Object scalaLexerState = null;
+    if (inXml) {
+      xmlLexerOffset = myXmlLexer.getTokenStart() - myTokenStart;
+      xmlLexerState = myXmlLexer.getState();
+    } else {
+      scalaLexerState = myScalaPlainLexer.saveState(myTokenStart);
+      if (scalaLexerState == null) return null;
+    }
+
+    int[][] tagStack = new int[myLayeredTagStack.size()][];
+    for (int i = 0; i < tagStack.length; i++) {
+      Stack<MyOpenXmlTag> tags = myLayeredTagStack.get(i);
+      tagStack[i] = new int[tags.size()];
+      for (int j = 0; j < tagStack[i].length; j++) {
+        tagStack[i][j] = tags.get(j).state.ordinal();
+      }
+    }
+
+    return new Context(
+        myTokenType,
+        myTokenEnd - myTokenStart,
+        inXml,
+        xmlLexerOffset,
+        xmlLexerState,
+        scalaLexerState,
+        myXmlState,
+        myBraceStack.toNativeArray(),
+        tagStack,
+        inCdata,
+        xmlSteps
+    );
+  }
+
+  /**
+   * Resumes lexing at a token, which {@code context} was saved for, the token itself is not lexed again.
+   */
+  private void restore(@NotNull CharSequence buffer, int startOffset, int endOffset, @NotNull Context context) {
+    myBuffer = buffer;
+    myBufferEnd = endOffset;
+
+    if (context.inXml) {
+      myCurrentLexer = myXmlLexer;
+      myXmlLexer.start(buffer, startOffset + context.xmlLexerOffset, endOffset, context.xmlLexerState);
+    } else {
+      setScalaLexer();
+      myScalaPlainLexer.restore(context.scalaLexerState, buffer, startOffset, endOffset);
+    }
+
+    myXmlState = context.xmlState;
+    myBraceStack.clear();
+    for (int layer : context.braceStack) {
+      myBraceStack.push(layer);
+    }
+    myLayeredTagStack.clear();
+    for (int[] states : context.tagStack) {
+      Stack<MyOpenXmlTag> tags = new Stack<>();
+      for (int state : states) {
+        MyOpenXmlTag tag = new MyOpenXmlTag();
+        tag.state = TAG_STATE.values()[state];
+        tags.push(tag);
+      }
+      myLayeredTagStack.push(tags);
+    }
+    inCdata = context.inCdata;
+    xmlSteps = context.xmlSteps;
+
+    myTokenType = context.tokenType;
+    myTokenStart = startOffset;
+    myTokenEnd = startOffset + context.tokenLength;
+  }
+
+  @Override
+  public int getStartState() {
+    return 0;
+  }
+
+  @Override
+  public boolean isRestartableState(int state) {
+    return state == 0 || myRestartableStates && LexerContextStates.contextOf(state) instanceof Context;
+  }
+
+  @Override
+  public void start(@NotNull CharSequence buffer, int startOffset, int endOffset, int initialState, TokenIterator tokenIterator) {
+    start(buffer, startOffset, endOffset, initialState);
+  }
+
   @Nullable
   public IElementType getTokenType() {
     locateToken();
@@ -350,6 +470,73 @@ public final class ScalaLexer extends Lexer {
     return tpe != null && ScalaXmlTokenTypes.XML_ELEMENTS().contains(tpe);
   }
 
+  /**
+   * Everything lexing from a token on depends on: the token itself, the state of the current lexer
+   * and XML stacks, offsets are relative to the token start.
+   */
+  private static final class Context {
+    final IElementType tokenType;
+    final int tokenLength;
+    final boolean inXml;
+    final int xmlLexerOffset;
+    final int xmlLexerState;
+    final Object scalaLexerState;
+    final int xmlState;
+    final int[] braceStack;
+    final int[][] tagStack;
+    final boolean inCdata;
+    final int xmlSteps;
+
+    Context(IElementType tokenType,
+            int tokenLength,
+            boolean inXml,
+            int xmlLexerOffset,
+            int xmlLexerState,
+            Object scalaLexerState,
+            int xmlState,
+            int[] braceStack,
+            int[][] tagStack,
+            boolean inCdata,
+            int xmlSteps) {
+      this.tokenType = tokenType;
+      this.tokenLength = tokenLength;
+      this.inXml = inXml;
+      this.xmlLexerOffset = xmlLexerOffset;
+      this.xmlLexerState = xmlLexerState;
+      this.scalaLexerState = scalaLexerState;
+      this.xmlState = xmlState;
+      this.braceStack = braceStack;
+      this.tagStack = tagStack;
+      this.inCdata = inCdata;
+      this.xmlSteps = xmlSteps;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Context)) return false;
+      Context that = (Context) o;
+      return tokenType == that.tokenType &&
+          tokenLength == that.tokenLength &&
+          inXml == that.inXml &&
+          xmlLexerOffset == that.xmlLexerOffset &&
+          xmlLexerState == that.xmlLexerState &&
+          Objects.equals(scalaLexerState, that.scalaLexerState) &&
+          xmlState == that.xmlState &&
+          Arrays.equals(braceStack, that.braceStack) &&
+          Arrays.deepEquals(tagStack, that.tagStack) &&
+          inCdata == that.inCdata &&
+          xmlSteps == that.xmlSteps;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(tokenType, tokenLength, inXml, xmlLexerOffset, xmlLexerState, scalaLexerState, xmlState, inCdata, xmlSteps);
+      result = 31 * result + Arrays.hashCode(braceStack);
+      return 31 * result + Arrays.deepHashCode(tagStack);
+    }
+  }
+
   private static class MyState implements LexerState {
 
     public TIntStack braceStack;
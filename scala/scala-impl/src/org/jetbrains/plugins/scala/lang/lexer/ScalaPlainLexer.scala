@@ -15,18 +15,47 @@ final class ScalaPlainLexer(isScala3: Boolean,
   extends LayeredLexer(ScalaSplittingLayerLexer(treatDocCommentAsBlockComment)) {
 
   import ScalaPlainLexer._
+
+  private val layerLexer = new ScalaLayerLexer(new ScalaFlexLexer(isScala3))
+
   {
     val isDisabled = IsDisabled()
     IsDisabled() = false
 
     registerSelfStoppingLayer(
-      ScalaLayerLexer(isScala3),
+      layerLexer,
       Array(ScalaTokenTypesEx.SCALA_PLAIN_CONTENT),
       IElementType.EMPTY_ARRAY
     )
 
     IsDisabled() = isDisabled
   }
+
+  /**
+    * Everything lexing from the current token on depends on, including the state not reflected by [[getState]]:
+    * opened interpolated strings and the extent of the current layer.
+    *
+    * @param origin offset the saved offsets are relative to
+    * @return an immutable value to [[restore]] lexing from, or null if lexing can't be resumed at the current token
+    */
+  def saveState(origin: Int): AnyRef =
+    if (isInLayerEndGap) null
+    else if (isLayerActive) InLayer(
+      getTokenStart - origin,
+      layerLexer.startState,
+      layerLexer.startInterpolatedStrings,
+      getBaseTokenEnd - origin,
+      getDelegate.getState
+    )
+    else InBase(getTokenStart - origin, getDelegate.getState)
+
+  def restore(state: AnyRef, buffer: CharSequence, origin: Int, endOffset: Int): Unit = state match {
+    case InLayer(offset, flexState, interpolatedStrings, baseTokenEnd, baseState) =>
+      layerLexer.start(buffer, origin + offset, origin + baseTokenEnd, flexState, interpolatedStrings)
+      startInLayer(buffer, endOffset, layerLexer, ScalaTokenTypesEx.SCALA_PLAIN_CONTENT, origin + baseTokenEnd, baseState)
+    case InBase(offset, baseState) =>
+      startAtBaseToken(buffer, origin + offset, endOffset, baseState)
+  }
 }
 
 object ScalaPlainLexer {
@@ -50,6 +79,14 @@ object ScalaPlainLexer {
     }
   }
 
+  private case class InLayer(offset: Int,
+                              flexState: Int,
+                              interpolatedStrings: ScalaCoreLexer.InterpolatedStrings,
+                              baseTokenEnd: Int,
+                              baseState: Int)
+
+  private case class InBase(offset: Int, baseState: Int)
+
   private object ScalaLayerLexer {
 
     private val TokensToMerge = TokenSet.create(
@@ -58,11 +95,73 @@ object ScalaPlainLexer {
       tINTERPOLATED_STRING,
       tINTERPOLATED_STRING_INJECTION
     )
+  }
 
-    def apply(isScala3: Boolean) = new MergingLexerAdapter(
-      new ScalaFlexLexer(isScala3),
-      TokensToMerge
-    )
+  /**
+    * Remembers the state of the flex lexer at the beginning of the current token,
+    * before the token is merged with the following ones.
+    */
+  private final class ScalaLayerLexer(flexLexer: ScalaFlexLexer)
+    extends MergingLexerAdapter(flexLexer, ScalaLayerLexer.TokensToMerge) {
+
+    private var atTokenStart = true
+    private var _startState = 0
+    private var _startInterpolatedStrings = ScalaCoreLexer.InterpolatedStrings.EMPTY
+
+    def startState: Int = {
+      locateStart()
+      _startState
+    }
+
+    def startInterpolatedStrings: ScalaCoreLexer.InterpolatedStrings = {
+      locateStart()
+      _startInterpolatedStrings
+    }
+
+    def start(buffer: CharSequence, startOffset: Int, endOffset: Int, flexState: Int,
+              interpolatedStrings: ScalaCoreLexer.InterpolatedStrings): Unit = {
+      start(buffer, startOffset, endOffset, flexState)
+      flexLexer.getFlex.restoreInterpolatedStrings(interpolatedStrings)
+    }
+
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int): Unit = {
+      super.start(buffer, startOffset, endOffset, initialState)
+      atTokenStart = true
+    }
+
+    override def getTokenType: IElementType = {
+      locateStart()
+      super.getTokenType
+    }
+
+    override def getTokenStart: Int = {
+      locateStart()
+      super.getTokenStart
+    }
+
+    override def getTokenEnd: Int = {
+      locateStart()
+      super.getTokenEnd
+    }
+
+    override def getState: Int = {
+      locateStart()
+      super.getState
+    }
+
+    override def advance(): Unit = {
+      locateStart()
+      super.advance()
+      atTokenStart = true
+    }
+
+    // the flex lexer locates the first merged token first
+    private def locateStart(): Unit = if (atTokenStart) {
+      flexLexer.getTokenType
+      _startState = flexLexer.startState
+      _startInterpolatedStrings = flexLexer.startInterpolatedStrings
+      atTokenStart = false
+    }
   }
 
   private object ScalaSplittingLayerLexer {
@@ -79,13 +178,41 @@ object ScalaPlainLexer {
     )
   }
 
-  private[this] final class ScalaFlexLexer(isScala3: Boolean)
+  private final class ScalaFlexLexer(isScala3: Boolean)
     extends FlexAdapter(new ScalaCoreLexer(isScala3)) {
 
+    private var atTokenStart = true
+    private var _startState = 0
+    private var _startInterpolatedStrings = ScalaCoreLexer.InterpolatedStrings.EMPTY
+
+    // lexical state and opened interpolated strings at the beginning of the current token
+    def startState: Int = _startState
+
+    def startInterpolatedStrings: ScalaCoreLexer.InterpolatedStrings = _startInterpolatedStrings
+
     override def getFlex: ScalaCoreLexer = super.getFlex.asInstanceOf[ScalaCoreLexer]
 
     override def getState: Int =
       super.getState << 1 | (if (getFlex.isInterpolatedStringState) 1 else 0)
+
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int): Unit = {
+      super.start(buffer, startOffset, endOffset, initialState)
+      atTokenStart = true
+    }
+
+    override def advance(): Unit = {
+      super.advance()
+      atTokenStart = true
+    }
+
+    override protected def locateToken(): Unit = {
+      if (atTokenStart) {
+        _startState = getFlex.yystate
+        _startInterpolatedStrings = getFlex.saveInterpolatedStrings()
+        atTokenStart = false
+      }
+      super.locateToken()
+    }
   }
 
   private[this] final class ScalaSplittingFlexLexer(treatDocCommentAsBlockComment: Boolean)
@@ -1257,6 +1257,70 @@ public class _ScalaCoreLexer implements FlexLexer {
                 yystate() == INSIDE_MULTI_LINE_INTERPOLATED_STRING;
     }
 
+    /**
+     * State kept outside of lexical states: currently opened interpolated strings,
+     * braces opened in their injections and pending identifier injections.
+     */
+    public static final class InterpolatedStrings {
+        public static final InterpolatedStrings EMPTY = new InterpolatedStrings(false, false, new int[0], new int[0]);
+
+        private final boolean haveIdInString;
+        private final boolean haveIdInMultilineString;
+        private final int[] states;
+        private final int[] braces;
+
+        private InterpolatedStrings(boolean haveIdInString, boolean haveIdInMultilineString, int[] states, int[] braces) {
+            this.haveIdInString = haveIdInString;
+            this.haveIdInMultilineString = haveIdInMultilineString;
+            this.states = states;
+            this.braces = braces;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof InterpolatedStrings)) return false;
+            InterpolatedStrings that = (InterpolatedStrings) o;
+            return haveIdInString == that.haveIdInString &&
+                    haveIdInMultilineString == that.haveIdInMultilineString &&
+                    java.util.Arrays.equals(states, that.states) &&
+                    java.util.Arrays.equals(braces, that.braces);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * java.util.Arrays.hashCode(states) + java.util.Arrays.hashCode(braces);
+            return 4 * result + (haveIdInString ? 1 : 0) + (haveIdInMultilineString ? 2 : 0);
+        }
+    }
+
+    public InterpolatedStrings saveInterpolatedStrings() {
+        if (nestedString.isEmpty() && !haveIdInString && !haveIdInMultilineString) return InterpolatedStrings.EMPTY;
+
+        int[] states = new int[nestedString.size()];
+        int[] braces = new int[nestedString.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = nestedString.get(i).getState();
+            braces[i] = nestedString.get(i).get();
+        }
+        return new InterpolatedStrings(haveIdInString, haveIdInMultilineString, states, braces);
+    }
+
+    /**
+     * To be called after {@link #reset}, which forgets opened interpolated strings.
+     */
+    public void restoreInterpolatedStrings(InterpolatedStrings strings) {
+        haveIdInString = strings.haveIdInString;
+        haveIdInMultilineString = strings.haveIdInMultilineString;
+        nestedString.clear();
+        for (int i = 0; i < strings.states.length; i++) {
+            InterpolatedStringLevel level = strings.states[i] == INSIDE_MULTI_LINE_INTERPOLATED_STRING ?
+                    new MultilineLevel() :
+                    new RegularLevel();
+            level.value = strings.braces[i];
+            nestedString.push(level);
+        }
+    }
+
     private boolean shouldProcessBracesForInterpolated() {
         return !nestedString.isEmpty();
     }
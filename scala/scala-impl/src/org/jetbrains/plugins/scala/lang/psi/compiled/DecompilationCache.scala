@@ -0,0 +1,272 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package compiled
+
+import java.io.{ByteArrayInputStream, ByteArrayOutputStream, DataInput, DataOutput, File, IOException}
+import java.nio.charset.StandardCharsets.UTF_8
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.{Lock, ReentrantReadWriteLock}
+import java.util.concurrent.{ConcurrentHashMap, CountDownLatch, TimeUnit}
+import java.util.zip.{DeflaterOutputStream, InflaterInputStream}
+
+import com.intellij.openapi.Disposable
+import com.intellij.openapi.application.{ApplicationManager, PathManager}
+import com.intellij.openapi.components.ServiceManager
+import com.intellij.openapi.diagnostic.Logger
+import com.intellij.openapi.progress.ProgressIndicator
+import com.intellij.openapi.util.io.{FileUtil, DataInputOutputUtilRt => ioutil}
+import com.intellij.util.io.{DataExternalizer, IOUtil}
+import org.jetbrains.plugins.scala.caches.PersistentCaches._
+import org.jetbrains.plugins.scala.extensions.executeOnPooledThread
+
+import scala.collection.JavaConverters._
+
+/**
+  * Decompiled texts of Scala class files shared by all projects and IDE sessions.
+  *
+  * [[DecompilationResult]]s are stored per virtual file, so the same library is decompiled again
+  * for every path its jar is found under and after every change of its timestamp.
+  * Here texts are keyed by the hash of the content of a class file instead.
+  *
+  * Texts are stored compressed. Once the cache outgrows its limit nothing is added to it until the next start,
+  * when the least recently used entries are dropped. The storage is opened and compacted in background,
+  * until then texts are neither looked up nor stored.
+  */
+final class DecompilationCache extends Disposable {
+
+  import DecompilationCache._
+
+  private[this] val lock          = new ReentrantReadWriteLock()
+  private[this] val openCloseLock = lock.writeLock()
+  private[this] val readDataLock  = lock.readLock()
+
+  // replaced under openCloseLock, None until the storage is opened
+  private[this] var storage: Option[Storage] = None
+  private[this] var disposed = false
+
+  private[this] val openAttempted = new CountDownLatch(1)
+
+  executeOnPooledThread {
+    try {
+      val opened = open(defaultDir, maxSizeBytes)
+      locked(openCloseLock) {
+        if (disposed) opened.foreach(close)
+        else storage = opened
+      }
+    } finally {
+      openAttempted.countDown()
+    }
+  }
+
+  /**
+    * Waits until the storage is opened, or fails to open, so that texts decompiled afterwards are stored.
+    */
+  private[compiled] def awaitOpened(indicator: ProgressIndicator): Unit =
+    while (!openAttempted.await(100, TimeUnit.MILLISECONDS)) {
+      indicator.checkCanceled()
+    }
+
+  def sourceNameAndText(fileName: String, bytes: Array[Byte])
+                       (decompile: => Option[(String, String)]): Option[(String, String)] = {
+    val key = keyOf(fileName, bytes)
+
+    withStorage(Option.empty[Entry])(_.get(key)) match {
+      case Some(Entry(sourceName, compressedText)) =>
+        Some((sourceName, decompress(compressedText)))
+      case None =>
+        val result = decompile
+        for ((sourceName, sourceText) <- result) {
+          val entry = Entry(sourceName, compress(sourceText))
+          withStorage(())(_.put(key, entry))
+        }
+        result
+    }
+  }
+
+  override def dispose(): Unit = locked(openCloseLock) {
+    disposed = true
+    storage.foreach(close)
+    storage = None
+  }
+
+  // the storage is thread-safe, the lock only keeps it from being closed while in use
+  private def withStorage[T](default: T)(action: Storage => T): T = locked(readDataLock) {
+    storage.fold(default) { storage =>
+      try action(storage)
+      catch {
+        case e: IOException =>
+          log.warn("Failed to access decompilation cache.", e)
+          default
+      }
+    }
+  }
+}
+
+object DecompilationCache {
+  private val log = Logger.getInstance(classOf[DecompilationCache])
+
+  private def locked[T](lock: Lock)(body: => T): T = {
+    lock.lock()
+    try body
+    finally lock.unlock()
+  }
+
+  private val maxSizeBytes = 1024L * 1024 * 1024
+
+  // decompiled texts change together with stubs built from them
+  private def defaultDir = new File(PathManager.getSystemPath, s"scala/decompiled-v${ScClassFileDecompiler.ScClsStubBuilder.getStubVersion}")
+
+  /**
+    * @return None in tests, where texts are expected to be decompiled by the current code,
+    *         and when the cache is disabled together with decompiler file attributes
+    */
+  private[compiled] def instance: Option[DecompilationCache] =
+    if (ApplicationManager.getApplication.isUnitTestMode || DecompilationResult.DecompilerFileAttribute.isEmpty) None
+    else Option(ServiceManager.getService(classOf[DecompilationCache]))
+
+  // the name is a part of the key, because texts of package objects depend on it
+  private def keyOf(fileName: String, bytes: Array[Byte]): String =
+    hash(bytes) + ":" + fileName
+
+  /**
+    * Opens the storage in `dir`, dropping the least recently used entries if it is larger than `maxSizeBytes`.
+    * Compaction may take a while, so this is not supposed to be called on the EDT.
+    */
+  private[compiled] def open(dir: File, maxSizeBytes: Long, clock: () => Long = () => System.currentTimeMillis()): Option[Storage] =
+    openOrRecreate(dir, "decompilation cache", log) {
+      if (dirSize(dir) > maxSizeBytes) compact(dir, maxSizeBytes * 3 / 4)
+      new Storage(dir, maxSizeBytes, clock)
+    }
+
+  private def close(storage: Storage): Unit =
+    try storage.close()
+    catch { case e: IOException => log.warn("Failed to close decompilation cache.", e) }
+
+  /**
+    * Rewrites the storage in `dir` with its most recently used entries, which fit into `targetSize`.
+    */
+  private def compact(dir: File, targetSize: Long): Unit = {
+    val compactedDir = new File(dir.getPath + ".compacted")
+    FileUtil.delete(compactedDir)
+
+    val source = new Storage(dir, Long.MaxValue, () => System.currentTimeMillis())
+    try {
+      val compacted = new Storage(compactedDir, Long.MaxValue, () => System.currentTimeMillis())
+      try {
+        var size = 0L
+        for ((key, usage) <- source.usages.sortBy(-_._2.lastUsed)) {
+          if (size + usage.size <= targetSize) {
+            source.entry(key).foreach(compacted.putEntry(key, _, usage))
+            size += usage.size
+          }
+        }
+        log.info(s"Decompilation cache is compacted to ${size / 1024 / 1024} MB.")
+      } finally {
+        compacted.close()
+      }
+    } finally {
+      source.close()
+    }
+
+    FileUtil.delete(dir)
+    FileUtil.rename(compactedDir, dir)
+  }
+
+  private[compiled] final case class Entry(sourceName: String, compressedText: Array[Byte]) {
+    def size: Long = sourceName.length + compressedText.length
+  }
+
+  private[compiled] final case class Usage(lastUsed: Long, size: Long)
+
+  /**
+    * Thread-safe, persistent maps synchronize their own access.
+    */
+  private[compiled] final class Storage(dir: File, maxSizeBytes: Long, clock: () => Long) {
+
+    private[this] val entries = stringKeyedMap(dir, "entries", EntryExternalizer)
+    private[this] val usageMap = stringKeyedMap(dir, "usages", UsageExternalizer)
+
+    // usages of this session, written when the storage is closed, so that reads don't write to disk
+    private[this] val touched = new ConcurrentHashMap[String, Usage]()
+    private[this] val size = new AtomicLong(dirSize(dir))
+
+    def get(key: String): Option[Entry] =
+      entry(key).map { entry =>
+        touched.put(key, Usage(clock(), entry.size))
+        entry
+      }
+
+    // concurrent puts may overshoot the limit by a few entries
+    def put(key: String, entry: Entry): Unit =
+      if (size.get < maxSizeBytes) {
+        putEntry(key, entry, Usage(clock(), entry.size))
+      }
+
+    def entry(key: String): Option[Entry] = Option(entries.get(key))
+
+    def putEntry(key: String, entry: Entry, usage: Usage): Unit = {
+      entries.put(key, entry)
+      touched.put(key, usage)
+      size.addAndGet(entry.size)
+    }
+
+    /**
+      * @return usages of all entries, entries without a recorded usage are considered the least recently used
+      */
+    def usages: Seq[(String, Usage)] =
+      entries.getAllKeysWithExistingMapping.asScala.toSeq.flatMap { key =>
+        Option(touched.get(key))
+          .orElse(Option(usageMap.get(key)))
+          .orElse(entry(key).map(entry => Usage(0L, entry.size)))
+          .map((key, _))
+      }
+
+    def close(): Unit =
+      try {
+        for ((key, usage) <- touched.asScala) usageMap.put(key, usage)
+      } finally {
+        try usageMap.close()
+        finally entries.close()
+      }
+  }
+
+  private[compiled] def compress(text: String): Array[Byte] = {
+    val bytes = new ByteArrayOutputStream()
+    val out = new DeflaterOutputStream(bytes)
+    try out.write(text.getBytes(UTF_8))
+    finally out.close()
+    bytes.toByteArray
+  }
+
+  private[compiled] def decompress(bytes: Array[Byte]): String = {
+    val in = new InflaterInputStream(new ByteArrayInputStream(bytes))
+    try new String(FileUtil.loadBytes(in), UTF_8)
+    finally in.close()
+  }
+
+  private object EntryExternalizer extends DataExternalizer[Entry] {
+    override def save(out: DataOutput, value: Entry): Unit = {
+      IOUtil.writeUTF(out, value.sourceName)
+      ioutil.writeINT(out, value.compressedText.length)
+      out.write(value.compressedText)
+    }
+
+    override def read(in: DataInput): Entry = {
+      val sourceName = IOUtil.readUTF(in)
+      val compressedText = new Array[Byte](ioutil.readINT(in))
+      in.readFully(compressedText)
+      Entry(sourceName, compressedText)
+    }
+  }
+
+  private object UsageExternalizer extends DataExternalizer[Usage] {
+    override def save(out: DataOutput, value: Usage): Unit = {
+      out.writeLong(value.lastUsed)
+      out.writeLong(value.size)
+    }
+
+    override def read(in: DataInput): Usage =
+      Usage(in.readLong(), in.readLong())
+  }
+}
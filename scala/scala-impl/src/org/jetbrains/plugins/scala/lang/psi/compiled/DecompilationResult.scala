@@ -91,19 +91,32 @@ private object DecompilationResult {
     }
   }
 
+  // the indexer and LibraryDecompilationWarmUp may reach the same file at once, one of them waits for the other
+  private val fileLocks = Array.fill(64)(new Object)
+
   private def decompile(file: VirtualFile, content: () => Array[Byte]): Option[ScalaDecompilationResult] = {
     val timeStamp = file.getTimeStamp
 
-    val fromCache = getFromUserData(file)
-    if (fromCache != null && fromCache.timeStamp == timeStamp)
-      return fromCache.asOptionOf[ScalaDecompilationResult]
+    def cached = getFromUserData(file) match {
+      case result if result != null && result.timeStamp == timeStamp => Some(result)
+      case _                                                         => None
+    }
+
+    val result = cached.getOrElse {
+      fileLocks((file.hashCode & Int.MaxValue) % fileLocks.length).synchronized {
+        cached.getOrElse(computeResult(file, timeStamp, content))
+      }
+    }
+    result.asOptionOf[ScalaDecompilationResult]
+  }
 
+  private def computeResult(file: VirtualFile, timeStamp: Long, content: () => Array[Byte]): DecompilationResult = {
     val result: DecompilationResult = getFromFileAttribute(file) match {
       case Some(nonScala: NonScala) => nonScala
       case Some(PartialScala(sourceName, _)) =>
-        Lazy(sourceName, timeStamp, () => Decompiler.sourceNameAndText(file.getName, content()).map(_._2).getOrElse(""))
+        Lazy(sourceName, timeStamp, () => decompiled(file.getName, content()).map(_._2).getOrElse(""))
       case None =>
-        val recomputedResult = Decompiler.sourceNameAndText(file.getName, content()) match {
+        val recomputedResult = decompiled(file.getName, content()) match {
           case Some((sourceName, sourceText)) => Full(sourceName, sourceText, timeStamp)
           case None                           => NonScala(timeStamp)
         }
@@ -115,7 +128,16 @@ private object DecompilationResult {
     }
     cacheInUserData(file, result)
 
-    result.asOptionOf[ScalaDecompilationResult]
+    result
+  }
+
+  private def decompiled(fileName: String, bytes: Array[Byte]): Option[(String, String)] = {
+    def decompile = Decompiler.sourceNameAndText(fileName, bytes)
+
+    DecompilationCache.instance match {
+      case Some(cache) if Decompiler.mayBeScala(fileName, bytes) => cache.sourceNameAndText(fileName, bytes)(decompile)
+      case _                                                     => decompile
+    }
   }
 
   private def getFromFileAttribute(file: VirtualFile): Option[DecompilationResult.WritableResult] = {
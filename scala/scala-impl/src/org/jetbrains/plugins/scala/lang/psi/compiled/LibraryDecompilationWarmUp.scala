@@ -0,0 +1,123 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package compiled
+
+import com.intellij.concurrency.JobLauncher
+import com.intellij.ide.highlighter.JavaClassFileType
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.ProjectComponent
+import com.intellij.openapi.progress.{ProcessCanceledException, ProgressIndicator, ProgressManager, Task}
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.roots.OrderEnumerator
+import com.intellij.openapi.vfs.{StandardFileSystems, VfsUtilCore, VirtualFile, VirtualFileVisitor}
+import com.intellij.util.containers.ContainerUtil
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.project._
+
+import scala.collection.JavaConverters._
+import scala.collection.mutable
+
+/**
+  * Decompiles top-level class files of newly attached library jars in parallel, so that the indexer
+  * finds their [[DecompilationResult]] in the file attribute, and the decompiled text of Scala classes
+  * in the [[DecompilationCache]], instead of decompiling them one by one.
+  * A file reached by the indexer and by the warm-up at once is decompiled by one of them only.
+  */
+final class LibraryDecompilationWarmUp(project: Project) extends ProjectComponent {
+
+  import LibraryDecompilationWarmUp._
+
+  override def getComponentName: String = getClass.getSimpleName
+
+  override def projectOpened(): Unit = {
+    if (ApplicationManager.getApplication.isUnitTestMode || DecompilationResult.DecompilerFileAttribute.isEmpty) return
+
+    project.subscribeToModuleRootChanged() { _ =>
+      scheduleForNewJars()
+    }
+    scheduleForNewJars()
+  }
+
+  private def scheduleForNewJars(): Unit = {
+    val roots = inReadAction {
+      OrderEnumerator.orderEntries(project).librariesOnly().classes().getRoots
+    }
+    val newJars = roots.filter { root =>
+      root.getFileSystem.getProtocol == StandardFileSystems.JAR_PROTOCOL && !processedJars.contains(jarKey(root))
+    }
+
+    if (newJars.nonEmpty) {
+      ProgressManager.getInstance.run(new DecompilationTask(newJars))
+    }
+  }
+
+  private final class DecompilationTask(jars: Seq[VirtualFile])
+    extends Task.Backgroundable(project, "Decompiling Scala libraries", true) {
+
+    override def run(indicator: ProgressIndicator): Unit = {
+      // texts decompiled before the cache is open would only be kept in soft references
+      DecompilationCache.instance.foreach(_.awaitOpened(indicator))
+
+      indicator.setIndeterminate(false)
+
+      for ((jar, index) <- jars.zipWithIndex if !project.isDisposed && jar.isValid) {
+        val key = jarKey(jar)
+        // another task may have been scheduled for the same jar
+        if (processedJars.add(key)) {
+          indicator.setText2(jar.getPresentableName)
+          indicator.setFraction(index.toDouble / jars.size)
+
+          try {
+            decompileClassFiles(jar, indicator)
+          } catch {
+            case e: ProcessCanceledException =>
+              processedJars.remove(key)
+              throw e
+          }
+        }
+      }
+    }
+  }
+}
+
+private object LibraryDecompilationWarmUp {
+
+  // decompilation results are stored per file, so jars are decompiled once per session for all projects,
+  // unless a jar is replaced under the same path
+  private val processedJars = ContainerUtil.newConcurrentSet[String]()
+
+  private def jarKey(root: VirtualFile): String = {
+    val timeStamp = Option(VfsUtilCore.getVirtualFileForJar(root)).fold(0L)(_.getTimeStamp)
+    s"${root.getUrl}@$timeStamp"
+  }
+
+  private val ClassFileExtension = JavaClassFileType.INSTANCE.getDefaultExtension
+
+  private def decompileClassFiles(jar: VirtualFile, indicator: ProgressIndicator): Unit = {
+    val classFiles = topLevelClassFiles(jar, indicator)
+
+    JobLauncher.getInstance.invokeConcurrentlyUnderProgress(classFiles.asJava, indicator, false, false,
+      (file: VirtualFile) => {
+        DecompilationResult.tryDecompile(file)
+        true
+      })
+  }
+
+  // only these can hold Scala signatures, results of nested class files are derived from them
+  private def topLevelClassFiles(jar: VirtualFile, indicator: ProgressIndicator): Seq[VirtualFile] = {
+    val result = mutable.ArrayBuffer.empty[VirtualFile]
+
+    VfsUtilCore.visitChildrenRecursively(jar, new VirtualFileVisitor[AnyRef]() {
+      override def visitFile(file: VirtualFile): Boolean = {
+        indicator.checkCanceled()
+        if (!file.isDirectory && file.getExtension == ClassFileExtension && !file.getNameWithoutExtension.contains('$')) {
+          result += file
+        }
+        true
+      }
+    })
+
+    result
+  }
+}
@@ -33,10 +33,32 @@ object ScClassFileDecompiler {
 
     override val getStubVersion = 326
 
-    override def buildFileStub(content: FileContent): stubs.PsiFileStubImpl[_ <: PsiFile] =
-      decompiledScalaFile(content)
-        .map(stubBuilder.buildStubTree)
-        .orNull
+    override def buildFileStub(content: FileContent): stubs.PsiFileStubImpl[_ <: PsiFile] = content.getFile match {
+      case original if isTopLevelScalaClass(original) =>
+        sourceNameAndText(original, content.getContent).map {
+          case (sourceName, sourceText) => buildFileStub(sourceName, sourceText, content.getProject, original)
+        }.orNull
+      case _ => null
+    }
+
+    /**
+      * Builds a stub tree of the decompiled text, which is shown in the editor, so that the stubs match its AST.
+      */
+    private[scala] def buildFileStub(sourceName: String,
+                                     sourceText: String,
+                                     project: Project,
+                                     original: VirtualFile): stubs.PsiFileStubImpl[_ <: PsiFile] = {
+      val file = PsiFileFactory.getInstance(project).createFileFromText(
+        sourceName,
+        ScalaLanguage.INSTANCE,
+        sourceText,
+        true,
+        false,
+        false,
+        original
+      )
+      stubBuilder.buildStubTree(file)
+    }
 
     private def stubBuilder =
       LanguageParserDefinitions.INSTANCE
@@ -46,22 +68,6 @@ object ScClassFileDecompiler {
         .getBuilder
   }
 
-  private def decompiledScalaFile(content: FileContent): Option[PsiFile] = content.getFile match {
-    case original if isTopLevelScalaClass(original) =>
-      sourceNameAndText(original, content.getContent).map {
-        case (sourceName, sourceText) => PsiFileFactory.getInstance(content.getProject).createFileFromText(
-          sourceName,
-          ScalaLanguage.INSTANCE,
-          sourceText,
-          true,
-          false,
-          false,
-          original
-        )
-      }
-    case _ => None
-  }
-
 
   private[compiled] def createFileViewProviderImpl(manager: PsiManager, file: VirtualFile,
                                                    eventSystemEnabled: Boolean, language: Language) =
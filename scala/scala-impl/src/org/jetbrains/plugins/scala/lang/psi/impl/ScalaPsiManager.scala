@@ -271,6 +271,7 @@ class ScalaPsiManager(implicit val project: Project) {
   private def clearCaches(): Unit = {
     new ProjectContext(project).typeSystem.clearCache()
     ParameterizedType.substitutorCache.clear()
+    ScTypeInterner.clear()
     PropertyMethods.clearCache()
     collectImplicitObjectsCache.clear()
     implicitCollectorCache.clear()
@@ -291,8 +292,10 @@ class ScalaPsiManager(implicit val project: Project) {
   }
 
   private def clearOnRootsChange(): Unit = {
+    signatureModificationTracker.onGlobalChange()
     clearOnTopLevelChange()
     clearCacheOnRootsChange.foreach(_.clear())
+    new ProjectContext(project).typeSystem.clearAllCaches()
   }
 
   private[impl] def projectOpened(): Unit = {
@@ -352,17 +355,37 @@ class ScalaPsiManager(implicit val project: Project) {
 
   val rootManager: ModificationTracker = ProjectRootManager.getInstance(project)
 
+  private val signatureModificationTracker = new SignatureModificationTracker
+
+  val topLevelChangesLog = new TopLevelChangesLog
+
+  private final class SignatureMapEntry[M](val map: M, val stamp: Long, val dependencies: Seq[PsiClass])
+
   sealed abstract class SignatureCaches[T <: Signature](val nodes: MixinNodes[T]) {
 
     private val forLibraryMap: ConcurrentMap[PsiClass, nodes.Map] = ContainerUtil.createConcurrentWeakMap()
-    private val forTopLevelMap: ConcurrentMap[PsiClass, nodes.Map] = ContainerUtil.createConcurrentWeakMap()
+    //survives top-level changes, which don't affect signatures, see SignatureModificationTracker
+    private val forTopLevelMap: ConcurrentMap[PsiClass, SignatureMapEntry[nodes.Map]] = ContainerUtil.createConcurrentWeakMap()
 
     clearCacheOnRootsChange += forLibraryMap
-    clearCacheOnTopLevelChange += forTopLevelMap
+    clearCacheOnRootsChange += forTopLevelMap
 
     private def forLibraryClasses(clazz: PsiClass): nodes.Map = forLibraryMap.computeIfAbsent(clazz, nodes.build)
 
-    private def forTopLevelClasses(clazz: PsiClass): nodes.Map = forTopLevelMap.computeIfAbsent(clazz, nodes.build)
+    private def forTopLevelClasses(clazz: PsiClass): nodes.Map = forTopLevelMap.get(clazz) match {
+      case entry if entry != null && signatureModificationTracker.isUpToDate(entry.stamp, entry.dependencies) =>
+        entry.map
+      case _ =>
+        val stamp = signatureModificationTracker.stamp
+        val map = nodes.build(clazz)
+        forTopLevelMap.put(clazz, new SignatureMapEntry(map, stamp, signatureDependencies(clazz)))
+        map
+    }
+
+    private def signatureDependencies(clazz: PsiClass): Seq[PsiClass] =
+      (Iterator(clazz) ++ MixinNodes.superClasses(clazz) ++ ScalaPsiUtil.getCompanionModule(clazz))
+        .filter(CachesUtil.libraryAwareModTracker(_) != rootManager)
+        .toVector
 
     def cachedMap(clazz: PsiClass): nodes.Map = {
       CachesUtil.libraryAwareModTracker(clazz) match {
@@ -398,6 +421,11 @@ class ScalaPsiManager(implicit val project: Project) {
       virtFile.exists(ProjectUtil.isProjectOrWorkspaceFile)
     }
 
+    private def changedFile(element: PsiElement): VirtualFile = element.getContainingFile match {
+      case null => null
+      case file => file.getVirtualFile
+    }
+
     private def shouldClear(event: PsiTreeChangeEvent): Boolean = {
       event match {
         case impl: PsiTreeChangeEventImpl if impl.isGenericChange => false
@@ -414,7 +442,10 @@ class ScalaPsiManager(implicit val project: Project) {
       if (psiElement != null && psiElement.getLanguage.isKindOf(ScalaLanguage.INSTANCE)) {
         @tailrec
         def updateModificationCount(element: PsiElement): Unit = element match {
-          case null => TopLevelModificationTracker.incModificationCount()
+          case null =>
+            signatureModificationTracker.onTopLevelChange(psiElement)
+            TopLevelModificationTracker.incModificationCount()
+            topLevelChangesLog.record(TopLevelModificationTracker.getModificationCount, changedFile(psiElement))
           case _: ScalaCodeFragment | _: PsiComment => // do not update on changes in dummy file or comments
           case owner: ScExpression if BlockModificationTracker.hasStableType(owner) =>
             BlockModificationTracker.incrementLocalCounter(owner)
@@ -423,6 +454,7 @@ class ScalaPsiManager(implicit val project: Project) {
 
         updateModificationCount(psiElement)
       } else {
+        signatureModificationTracker.onGlobalChange()
         NonScalaModificationTracker.incModificationCount()
       }
 
@@ -496,6 +528,7 @@ object ScalaPsiManager {
   object ImplicitCollectorCacheCapabilities extends CacheCapabilities[ImplicitCollectorCache] {
     override def cachedEntitiesCount(cache: CacheType): Int = cache.size()
     override def clear(cache: CacheType): Unit = cache.clear()
+    override def evictedEntitiesCount(cache: CacheType): Long = cache.evictedCount
   }
 }
 
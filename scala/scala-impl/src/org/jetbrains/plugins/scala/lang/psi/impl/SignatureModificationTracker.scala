@@ -0,0 +1,82 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package impl
+
+import java.util.concurrent.ConcurrentMap
+import java.util.concurrent.atomic.AtomicLong
+
+import com.intellij.psi.{PsiClass, PsiElement, PsiFile}
+import com.intellij.util.containers.ContainerUtil
+import org.jetbrains.plugins.scala.lang.psi.api.statements.{ScFunctionDefinition, ScPatternDefinition, ScTypeAlias, ScVariableDefinition}
+import org.jetbrains.plugins.scala.lang.psi.api.toplevel.typedef.{ScMember, ScTemplateDefinition}
+
+import scala.annotation.tailrec
+
+/**
+  * Tracks changes of member signatures of source classes, so that signature maps built by
+  * [[org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.MixinNodes]] survive top-level changes, which don't affect them.
+  *
+  * A change inside the body of a method, or of a value, doesn't affect signatures.
+  * Any other change inside a template definition marks only that definition as changed,
+  * so maps are rebuilt only for it and for its subclasses.
+  * Other changes, including changes of type aliases, which may be referenced from anywhere, invalidate all maps.
+  */
+private[impl] final class SignatureModificationTracker {
+
+  private val counter = new AtomicLong()
+
+  @volatile
+  private var lastGlobalChange = 0L
+
+  private val lastChanges: ConcurrentMap[PsiClass, java.lang.Long] = ContainerUtil.createConcurrentWeakMap()
+
+  /**
+    * Must be taken before a signature map is built.
+    */
+  def stamp: Long = counter.get
+
+  /**
+    * @param dependencies source classes, whose signatures a map was built from
+    */
+  def isUpToDate(stamp: Long, dependencies: Seq[PsiClass]): Boolean =
+    lastGlobalChange <= stamp && dependencies.forall { clazz =>
+      clazz.isValid && lastChanges.getOrDefault(clazz, 0L) <= stamp
+    }
+
+  def onGlobalChange(): Unit = {
+    lastGlobalChange = counter.incrementAndGet()
+    lastChanges.clear()
+  }
+
+  /**
+    * @param changed the changed element, or its parent if it was replaced by an element of another kind
+    */
+  def onTopLevelChange(changed: PsiElement): Unit = {
+    @tailrec
+    def loop(element: PsiElement, child: PsiElement): Unit = element match {
+      case null | _: PsiFile => onGlobalChange()
+      case _: ScTypeAlias    => onGlobalChange()
+      case member: ScMember if isBodyOfMember(member, child) =>
+      case definition: ScTemplateDefinition =>
+        onClassChange(definition)
+        //changes of a header affect signatures of an enclosing class as well
+        if (!definition.extendsBlock.templateBody.contains(child)) loop(definition.getContext, definition)
+      case _ => loop(element.getContext, element)
+    }
+
+    loop(changed, null)
+  }
+
+  private def onClassChange(clazz: PsiClass): Unit =
+    lastChanges.put(clazz, counter.incrementAndGet())
+
+  private def isBodyOfMember(member: ScMember, child: PsiElement): Boolean =
+    child != null && member.containingClass != null && (member match {
+      case function: ScFunctionDefinition => function.body.contains(child)
+      case value: ScPatternDefinition     => value.expr.contains(child)
+      //the type of a setter parameter is inferred from the body
+      case variable: ScVariableDefinition => variable.hasExplicitType && variable.expr.contains(child)
+      case _                              => false
+    })
+}
@@ -0,0 +1,55 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package impl
+
+import java.util
+
+import com.intellij.openapi.vfs.VirtualFile
+
+/**
+  * Files of the latest top-level changes of Scala code, so that caches of project-wide data
+  * can be updated only for the changed files instead of being computed from scratch.
+  *
+  * Every change is recorded with the value of [[ScalaPsiManager.TopLevelModificationTracker]] after it.
+  * The tracker is also incremented by changes, which are not attributed to a file, e.g. by changes of non-Scala code
+  * or of project roots, so a gap in recorded values means, that changed files are unknown.
+  */
+final class TopLevelChangesLog(capacity: Int = 1000) {
+
+  private final case class Change(modCount: Long, file: VirtualFile)
+
+  // guarded by itself, ordered by modCount
+  private val changes = new util.ArrayDeque[Change]()
+
+  /**
+    * @param file changed file, or null if it's not backed by a virtual file
+    */
+  def record(modCount: Long, file: VirtualFile): Unit = changes.synchronized {
+    if (changes.size == capacity) changes.removeFirst()
+    changes.addLast(Change(modCount, file))
+  }
+
+  /**
+    * @return files changed after `fromCount` until `toCount`, or None if some of these changes are not recorded
+    */
+  def changedFiles(fromCount: Long, toCount: Long): Option[Set[VirtualFile]] = changes.synchronized {
+    val builder = Set.newBuilder[VirtualFile]
+    var expected = fromCount + 1
+
+    val iterator = changes.iterator()
+    while (iterator.hasNext && expected <= toCount) {
+      val Change(modCount, file) = iterator.next()
+      if (modCount == expected) {
+        if (file == null) return None
+        builder += file
+        expected += 1
+      } else if (modCount > expected) {
+        return None
+      }
+    }
+
+    if (expected > toCount) Some(builder.result())
+    else None
+  }
+}
@@ -9,13 +9,12 @@ package toplevel
 package typedef
 
 import java.util
-import java.util.{List => JList}
 
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.psi.{PsiClass, PsiClassType, PsiNamedElement}
-import com.intellij.util.containers.{ContainerUtil, SmartHashSet}
+import com.intellij.util.containers.ContainerUtil
 import com.intellij.util.{AstLoadingFilter, SmartList}
-import gnu.trove.{THashMap, THashSet, TObjectHashingStrategy}
+import gnu.trove.{THashMap, TObjectHashingStrategy}
 import org.jetbrains.plugins.scala.caches.CachesUtil
 import org.jetbrains.plugins.scala.extensions._
 import org.jetbrains.plugins.scala.lang.psi.api.expr.ScNewTemplateDefinition
@@ -51,6 +50,7 @@ abstract class MixinNodes[T <: Signature](signatureCollector: SignatureProcessor
         map.thisFinished()
 
         addSuperSignatures(SuperTypesData(clazz), map)
+        map.finished()
         map
       }
     }
@@ -63,6 +63,7 @@ abstract class MixinNodes[T <: Signature](signatureCollector: SignatureProcessor
     map.thisFinished()
 
     addSuperSignatures(SuperTypesData(cp, compoundThisType), map)
+    map.finished()
     map
   }
 
@@ -140,6 +141,12 @@ object MixinNodes {
   def asSeenFromSubstitutor(superClass: PsiClass, thisClass: PsiClass): ScSubstitutor =
     SuperTypesData(thisClass).substitutors.getOrElse(superClass, ScSubstitutor.empty)
 
+  /**
+    * Classes, whose signatures are collected into signature maps of `thisClass`.
+    */
+  def superClasses(thisClass: PsiClass): Iterable[PsiClass] =
+    SuperTypesData(thisClass).substitutors.keys
+
   class Node[T](val info: T, val fromSuper: Boolean) {
     private[this] var _concreteSuper: Node[T] = _
     private[this] val _supers: SmartList[Node[T]] = new SmartList()
@@ -160,24 +167,22 @@ object MixinNodes {
 
   class Map[T <: Signature] extends SignatureSink[T] {
 
-    private val allNames: THashSet[String] = new THashSet[String]
-    private[Map] val implicitNames: SmartHashSet[String] = new SmartHashSet[String]
-
-    private val thisSignaturesByName: THashMap[String, JList[T]] = new THashMap()
-    private val supersSignaturesByName: THashMap[String, JList[T]] = new THashMap()
+    private val table = new SignatureTable[T]
 
     private val forNameCache = ContainerUtil.newConcurrentMap[String, AllNodes[T]]()
 
     private lazy val implicitNodes: Seq[Node[T]] = {
-      val res = new ArrayBuffer[Node[T]](implicitNames.size)
-      val iterator = implicitNames.iterator()
-      while (iterator.hasNext) {
-        val thisMap = forName(iterator.next)
-        thisMap.nodesIterator.foreach { node =>
-          if (node.info.isImplicit) {
-            res += node
+      val res = new ArrayBuffer[Node[T]]
+      var id = 0
+      while (id < table.nameCount) {
+        if (table.isImplicitName(id)) {
+          forName(table.name(id)).nodesIterator.foreach { node =>
+            if (node.info.isImplicit) {
+              res += node
+            }
           }
         }
+        id += 1
       }
       res
     }
@@ -188,22 +193,13 @@ object MixinNodes {
       fromSuper = true
     }
 
-    def put(signature: T) {
-      val name = signature.name
-      val buffer =
-        if (fromSuper) supersSignaturesByName.computeIfAbsent(name, _ => new SmartList[T])
-        else thisSignaturesByName.computeIfAbsent(name, _ => new SmartList[T])
-
-      buffer.add(signature)
-
-      allNames.add(name)
-
-      if (signature.isImplicit)
-        implicitNames.add(name)
+    private[typedef] def finished(): Unit = table.trim()
 
+    def put(signature: T) {
+      table.add(signature.name, signature, fromSuper, signature.isImplicit)
     }
 
-    def nameCount: Int = allNames.size
+    def nameCount: Int = table.nameCount
 
     def nodesIterator(decodedName: String,
                       isSupers: Boolean,
@@ -221,26 +217,25 @@ object MixinNodes {
       else allIterator
     }
 
-    def allNodesIterator: Iterator[Node[T]] = allNames.iterator().asScala.map(forName).flatMap(_.nodesIterator)
+    def allNodesIterator: Iterator[Node[T]] = table.namesIterator.map(forName).flatMap(_.nodesIterator)
 
     def allSignatures: Iterator[T] = allNodesIterator.map(_.info)
 
     def forName(name: String): AllNodes[T] = {
       val cleanName = ScalaNamesUtil.clean(name)
-      def calculate: AllNodes[T] = {
-        val thisSignatures = thisSignaturesByName.getOrDefault(cleanName, ContainerUtil.emptyList[T])
-        val superSignatures = supersSignaturesByName.getOrDefault(cleanName, ContainerUtil.emptyList[T])
-        merge(thisSignatures, superSignatures)
+      def calculate: AllNodes[T] = table.idOf(cleanName) match {
+        case -1 => merge(Iterator.empty, Iterator.empty)
+        case id => merge(table.thisSignatures(id), table.superSignatures(id))
       }
       forNameCache.atomicGetOrElseUpdate(cleanName, calculate)
     }
 
-    private def merge(thisSignatures: JList[T], superSignatures: JList[T]): AllNodes[T] = {
+    private def merge(thisSignatures: Iterator[T], superSignatures: Iterator[T]): AllNodes[T] = {
 
       val nodesMap = NodesMap.empty[T]
       val privates = PrivateNodes.empty[T]
 
-      thisSignatures.forEach { thisSig =>
+      thisSignatures.foreach { thisSig =>
 
         val node = new Node(thisSig, fromSuper = false)
 
@@ -259,7 +254,7 @@ object MixinNodes {
         }
       }
 
-      superSignatures.forEach { superSig =>
+      superSignatures.foreach { superSig =>
         val superNode = new Node(superSig, fromSuper = true)
         if (superSig.isPrivate) {
           privates.add(superNode)
@@ -0,0 +1,167 @@
+package org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef
+
+import java.util.Arrays
+
+/**
+  * Array-backed storage of signatures grouped by name, used by [[MixinNodes.Map]].
+  *
+  * Names are interned to dense ids through an open addressing table. Signatures of a name
+  * are chained in insertion order through an index array, separately for signatures of the class itself
+  * and for inherited ones, so no collection is allocated per name or per signature.
+  *
+  * Filled by a single thread while a map is built and read-only afterwards.
+  */
+private[typedef] final class SignatureTable[T <: AnyRef](expectedNames: Int = 16) {
+
+  import SignatureTable._
+
+  private[this] var names: Array[String] = new Array[String](expectedNames)
+  private[this] var implicitNames: Array[Boolean] = new Array[Boolean](expectedNames)
+  private[this] var namesCount: Int = 0
+
+  // name id + 1, 0 marks an empty slot
+  private[this] var slots: Array[Int] = new Array[Int](tableSizeFor(expectedNames))
+
+  // indices of signatures + 1 per name id, 0 marks an empty chain
+  private[this] var thisHeads: Array[Int] = new Array[Int](expectedNames)
+  private[this] var thisTails: Array[Int] = new Array[Int](expectedNames)
+  private[this] var superHeads: Array[Int] = new Array[Int](expectedNames)
+  private[this] var superTails: Array[Int] = new Array[Int](expectedNames)
+
+  private[this] var signatures: Array[AnyRef] = new Array[AnyRef](expectedNames)
+  private[this] var nextInChain: Array[Int] = new Array[Int](expectedNames)
+  private[this] var signaturesCount: Int = 0
+
+  def nameCount: Int = namesCount
+
+  def signatureCount: Int = signaturesCount
+
+  def name(id: Int): String = names(id)
+
+  def isImplicitName(id: Int): Boolean = implicitNames(id)
+
+  /**
+    * @return id of `name`, or -1 if there are no signatures with this name
+    */
+  def idOf(name: String): Int = {
+    val mask = slots.length - 1
+    var idx  = spread(name.hashCode) & mask
+    while (true) {
+      val slot = slots(idx)
+      if (slot == 0) return -1
+      if (names(slot - 1) == name) return slot - 1
+      idx = (idx + 1) & mask
+    }
+    -1
+  }
+
+  def add(name: String, signature: T, fromSuper: Boolean, isImplicit: Boolean): Unit = {
+    val id = enumerate(name)
+    if (isImplicit) implicitNames(id) = true
+
+    if (signaturesCount == signatures.length) {
+      val newLength = signatures.length * 2
+      signatures = Arrays.copyOf(signatures, newLength)
+      nextInChain = Arrays.copyOf(nextInChain, newLength)
+    }
+    signatures(signaturesCount) = signature
+    signaturesCount += 1
+
+    val ref = signaturesCount
+    if (fromSuper) append(superHeads, superTails, id, ref)
+    else append(thisHeads, thisTails, id, ref)
+  }
+
+  def thisSignatures(id: Int): Iterator[T] = chain(thisHeads(id))
+
+  def superSignatures(id: Int): Iterator[T] = chain(superHeads(id))
+
+  def namesIterator: Iterator[String] = Iterator.range(0, namesCount).map(names(_))
+
+  /**
+    * Shrinks the storage to its actual size once nothing is going to be added.
+    */
+  def trim(): Unit = {
+    names         = Arrays.copyOf(names, namesCount)
+    implicitNames = Arrays.copyOf(implicitNames, namesCount)
+    thisHeads     = Arrays.copyOf(thisHeads, namesCount)
+    thisTails     = null
+    superHeads    = Arrays.copyOf(superHeads, namesCount)
+    superTails    = null
+    signatures    = Arrays.copyOf(signatures, signaturesCount)
+    nextInChain   = Arrays.copyOf(nextInChain, signaturesCount)
+  }
+
+  private def append(heads: Array[Int], tails: Array[Int], id: Int, ref: Int): Unit = {
+    val tail = tails(id)
+    if (tail == 0) heads(id) = ref
+    else nextInChain(tail - 1) = ref
+    tails(id) = ref
+  }
+
+  private def chain(head: Int): Iterator[T] = new Iterator[T] {
+    private[this] var ref = head
+
+    override def hasNext: Boolean = ref != 0
+
+    override def next(): T = {
+      if (ref == 0) throw new NoSuchElementException
+      val result = signatures(ref - 1).asInstanceOf[T]
+      ref = nextInChain(ref - 1)
+      result
+    }
+  }
+
+  private def enumerate(name: String): Int = {
+    val mask = slots.length - 1
+    var idx  = spread(name.hashCode) & mask
+    var slot = slots(idx)
+    while (slot != 0) {
+      if (names(slot - 1) == name) return slot - 1
+      idx  = (idx + 1) & mask
+      slot = slots(idx)
+    }
+
+    if (namesCount == names.length) growNames()
+
+    val id = namesCount
+    names(id) = name
+    namesCount += 1
+
+    if (namesCount * 2 > slots.length) rehash()
+    else slots(idx) = id + 1
+
+    id
+  }
+
+  private def growNames(): Unit = {
+    val newLength = names.length * 2
+    names         = Arrays.copyOf(names, newLength)
+    implicitNames = Arrays.copyOf(implicitNames, newLength)
+    thisHeads     = Arrays.copyOf(thisHeads, newLength)
+    thisTails     = Arrays.copyOf(thisTails, newLength)
+    superHeads    = Arrays.copyOf(superHeads, newLength)
+    superTails    = Arrays.copyOf(superTails, newLength)
+  }
+
+  private def rehash(): Unit = {
+    slots = new Array[Int](slots.length * 2)
+    val mask = slots.length - 1
+    var id = 0
+    while (id < namesCount) {
+      var idx = spread(names(id).hashCode) & mask
+      while (slots(idx) != 0) idx = (idx + 1) & mask
+      slots(idx) = id + 1
+      id += 1
+    }
+  }
+}
+
+private object SignatureTable {
+
+  private def spread(hash: Int): Int = hash ^ (hash >>> 16)
+
+  // power of two with a load factor of at most 1/2
+  private def tableSizeFor(expected: Int): Int =
+    Integer.highestOneBit(math.max(expected, 2) * 4 - 1)
+}
@@ -3,12 +3,20 @@ package lang
 package psi
 package implicits
 
+import com.intellij.openapi.project.Project
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.{PsiClass, PsiManager}
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.ScalaFile
 import org.jetbrains.plugins.scala.lang.psi.api.statements.ScFunction
-import org.jetbrains.plugins.scala.lang.psi.api.toplevel.typedef.{ScClass, ScObject}
+import org.jetbrains.plugins.scala.lang.psi.api.toplevel.typedef.{ScClass, ScMember, ScObject, ScTemplateDefinition}
 import org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiManager
-import org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.TypeDefinitionMembers
+import org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.{MixinNodes, TypeDefinitionMembers}
 import org.jetbrains.plugins.scala.lang.psi.stubs.index.ImplicitConversionIndex
 
+import scala.collection.JavaConverters._
+
 case class GlobalImplicitConversion(containingObject: ScObject, function: ScFunction) {
 
   def toImplicitConversionData: Option[ImplicitConversionData] = TypeDefinitionMembers
@@ -24,23 +32,68 @@ object GlobalImplicitConversion {
   private[implicits] def collectIn(elementScope: ElementScope): Iterable[GlobalImplicitConversion] = {
     implicit val ElementScope(project, scope) = elementScope
 
-    def containingObjects(function: ScFunction): Set[ScObject] =
-      Option(function.containingClass).fold(Set.empty[ScObject]) {
-        ScalaPsiManager.instance.inheritorOrThisObjects(_)
-      }
-
     for {
       member <- ImplicitConversionIndex.allElements(scope)
+      function <- conversionFunctions(member)
+      obj <- containingObjects(function)
+      if obj.qualifiedName != "scala.Predef"
+    } yield GlobalImplicitConversion(obj, function)
+  }
 
-      function <- member match {
-        case f: ScFunction => f :: Nil
-        case c: ScClass => c.getSyntheticImplicitMethod.toList
-        case _ => Nil
-      }
+  /**
+    * Conversions affected by changes of `changedFiles`: conversions defined in these files for all objects,
+    * which inherit them, and all conversions of objects, which inherit classes of these files, or of `objects`.
+    */
+  private[implicits] def collectIn(elementScope: ElementScope,
+                                   changedFiles: Set[VirtualFile],
+                                   objects: Iterable[ScObject]): Iterable[GlobalImplicitConversion] = {
+    implicit val ElementScope(project, scope) = elementScope
 
+    val filesInScope = changedFiles.filter(scope.contains)
+    val changedFilesScope = scope.intersectWith(GlobalSearchScope.filesScope(project, filesInScope.asJava))
+
+    val definedInChangedFiles = for {
+      member <- ImplicitConversionIndex.allElements(changedFilesScope)
+      function <- conversionFunctions(member)
       obj <- containingObjects(function)
-      if obj.qualifiedName != "scala.Predef"
     } yield GlobalImplicitConversion(obj, function)
+
+    //objects may inherit conversions through classes of changed files, even if they had none before
+    val inheritorsOfChangedFiles = filesInScope.toSeq
+      .flatMap(file => Option(PsiManager.getInstance(project).findFile(file)))
+      .flatMap {
+        case scalaFile: ScalaFile => scalaFile.depthFirst().instancesOf[ScTemplateDefinition].toSeq
+        case _                    => Seq.empty
+      }
+      .flatMap(ScalaPsiManager.instance.inheritorOrThisObjects(_))
+
+    val ofObjects = (inheritorsOfChangedFiles ++ objects).distinct.flatMap(conversionsOf(_, scope))
+
+    (definedInChangedFiles ++ ofObjects).filter(_.containingObject.qualifiedName != "scala.Predef")
   }
 
-}
\ No newline at end of file
+  private def conversionsOf(obj: ScObject, scope: GlobalSearchScope)
+                           (implicit project: Project): Iterable[GlobalImplicitConversion] = {
+    val classes = (obj +: MixinNodes.superClasses(obj).toSeq).toSet[PsiClass]
+    val files = classes.flatMap(c => Option(c.getContainingFile).flatMap(f => Option(f.getVirtualFile)))
+    val classesScope = scope.intersectWith(GlobalSearchScope.filesScope(project, files.asJava))
+
+    for {
+      member <- ImplicitConversionIndex.allElements(classesScope)
+      function <- conversionFunctions(member)
+      if classes.contains(function.containingClass)
+    } yield GlobalImplicitConversion(obj, function)
+  }
+
+  private def conversionFunctions(member: ScMember): List[ScFunction] = member match {
+    case f: ScFunction => f :: Nil
+    case c: ScClass => c.getSyntheticImplicitMethod.toList
+    case _ => Nil
+  }
+
+  private def containingObjects(function: ScFunction)
+                               (implicit project: Project): Set[ScObject] =
+    Option(function.containingClass).fold(Set.empty[ScObject]) {
+      ScalaPsiManager.instance.inheritorOrThisObjects(_)
+    }
+}
@@ -1,6 +1,10 @@
 package org.jetbrains.plugins.scala
 package lang.psi.implicits
 
+import java.util.concurrent.atomic.AtomicInteger
+import java.{util => ju}
+
+import com.intellij.concurrency.JobLauncher
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.project.Project
 import com.intellij.psi._
@@ -41,6 +45,17 @@ object ImplicitCollector {
 
   def cache(project: Project): ImplicitCollectorCache = ScalaPsiManager.instance(project).implicitCollectorCache
 
+  /**
+    * Smaller sets of candidates are checked on the calling thread even in the parallel mode,
+    * see [[ScalaProjectSettings.isParallelImplicitCandidatesCheck]].
+    */
+  private val ParallelCheckThreshold = 16
+
+  /**
+    * Number of searches that checked their candidates in parallel, lets benchmarks tell which path they measure.
+    */
+  private[scala] val parallelChecksCount = new AtomicInteger
+
   sealed trait ImplicitResult
 
   sealed trait FullInfoResult extends ImplicitResult
@@ -156,6 +171,7 @@ class ImplicitCollector(place: PsiElement,
         try {
 
           val stackStamp = RecursionManager.markStack()
+          val start = System.nanoTime()
 
           val firstCandidates = compatible(visibleNamesCandidates)
           val result =
@@ -166,7 +182,7 @@ class ImplicitCollector(place: PsiElement,
             }
 
           if (!isExtensionConversion && stackStamp.mayCacheNow())
-            implicitCollectorCache.put(place, tp, result)
+            implicitCollectorCache.put(place, tp, result, System.nanoTime() - start)
 
           result
 
@@ -177,15 +193,8 @@ class ImplicitCollector(place: PsiElement,
     }
 
     previousRecursionState match {
-      case Some(m) =>
-        val currentMap = ImplicitsRecursionGuard.currentMap
-        try {
-          ImplicitsRecursionGuard.setRecursionMap(m)
-          calc()
-        } finally {
-          ImplicitsRecursionGuard.setRecursionMap(currentMap)
-        }
-      case _ => calc()
+      case Some(m) => ImplicitsRecursionGuard.withRecursionMap(m)(calc())
+      case _       => calc()
     }
   }
 
@@ -310,13 +319,7 @@ class ImplicitCollector(place: PsiElement,
   }
 
   def collectCompatibleCandidates(candidates: Set[ScalaResolveResult], withLocalTypeInference: Boolean): Set[ScalaResolveResult] = {
-    var filteredCandidates = Set.empty[ScalaResolveResult]
-
-    val iterator = candidates.iterator
-    while (iterator.hasNext) {
-      val c = iterator.next()
-      filteredCandidates ++= checkCompatible(c, withLocalTypeInference, checkFast = true)
-    }
+    var filteredCandidates = fastCompatibleCandidates(candidates, withLocalTypeInference)
 
     var results: Set[ScalaResolveResult] = Set()
 
@@ -342,6 +345,50 @@ class ImplicitCollector(place: PsiElement,
     results.toSet
   }
 
+  private def fastCompatibleCandidates(candidates: Set[ScalaResolveResult], withLocalTypeInference: Boolean): Set[ScalaResolveResult] = {
+    def check(c: ScalaResolveResult) = checkCompatible(c, withLocalTypeInference, checkFast = true)
+
+    val indicator = ProgressManager.getInstance.getProgressIndicator
+
+    //workers would start with empty RecursionManager stacks, so a computation guarded here could re-enter in them
+    if (indicator == null ||
+      candidates.size < ParallelCheckThreshold ||
+      !ScalaProjectSettings.getInstance(project).isParallelImplicitCandidatesCheck ||
+      RecursionManager.isInsideGuardedComputation) {
+      var filteredCandidates = Set.empty[ScalaResolveResult]
+
+      val iterator = candidates.iterator
+      while (iterator.hasNext) {
+        filteredCandidates ++= check(iterator.next())
+      }
+      filteredCandidates
+    } else {
+      parallelChecksCount.incrementAndGet()
+
+      val ordered = candidates.toArray
+      val results = new Array[Option[ScalaResolveResult]](ordered.length)
+      val recursionMap = ImplicitsRecursionGuard.currentMap
+
+      //every worker starts from the recursion state of this search, results are merged in the order of candidates
+      val indices = ju.Arrays.asList(ordered.indices.map(Int.box): _*)
+      val completed = JobLauncher.getInstance.invokeConcurrentlyUnderProgress(indices, indicator,
+        true, true, (i: Integer) => {
+          results(i) = ImplicitsRecursionGuard.withRecursionMap(recursionMap)(check(ordered(i)))
+          true
+        })
+      ProgressManager.checkCanceled()
+
+      //workers give up when they can't get a read action, the rest of candidates is checked here
+      if (!completed) {
+        for (i <- results.indices if results(i) == null) {
+          results(i) = check(ordered(i))
+        }
+      }
+
+      results.foldLeft(Set.empty[ScalaResolveResult])(_ ++ _)
+    }
+  }
+
   private def simpleConformanceCheck(c: ScalaResolveResult): Option[ScalaResolveResult] = {
     c.element match {
       case typeable: Typeable =>
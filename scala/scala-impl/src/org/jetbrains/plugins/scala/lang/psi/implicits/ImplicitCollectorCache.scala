@@ -1,39 +1,91 @@
 package org.jetbrains.plugins.scala.lang.psi.implicits
 
+import java.util
+import java.util.Map.Entry
+import java.util.concurrent.atomic.LongAdder
+
 import com.intellij.openapi.project.Project
 import com.intellij.psi.PsiElement
 import com.intellij.util.containers.ContainerUtil
+import org.jetbrains.plugins.scala.caches.stats.ImplicitScopeTracer
 import org.jetbrains.plugins.scala.lang.psi.api.toplevel.ScTypeParametersOwner
 import org.jetbrains.plugins.scala.lang.psi.types.ScType
 import org.jetbrains.plugins.scala.lang.resolve.ScalaResolveResult
 
+import scala.collection.JavaConverters._
 import scala.collection.{Seq, Set}
 
 /**
+  * Results of implicit search, partitioned by [[ImplicitSearchScope]].
+  *
+  * Every partition is a bounded LRU cache on its own, so many searches in a single scope
+  * can't push out results for other scopes. Hits, misses, evictions and computation time are counted
+  * per scope while the internal profiler is enabled.
+  *
   * @author Nikolay.Tropin
   */
 class ImplicitCollectorCache(project: Project) {
-  private val map =
-    ContainerUtil.newConcurrentMap[(ImplicitSearchScope, ScType), Seq[ScalaResolveResult]]()
+
+  import ImplicitCollectorCache._
+
+  private val partitions =
+    ContainerUtil.newConcurrentMap[ImplicitSearchScope, Partition]()
 
   private val typeParametersOwnersCache =
     ContainerUtil.newConcurrentMap[ScType, Set[ScTypeParametersOwner]]
 
+  private val evictions = new LongAdder
 
   def get(place: PsiElement, tp: ScType): Option[Seq[ScalaResolveResult]] = {
-    val scope = ImplicitSearchScope.forElement(place)
-    Option(map.get((scope, tp)))
+    val partition = partitionFor(place)
+    val result = partition.synchronized(Option(partition.get(tp)))
+
+    if (result.isDefined) partition.tracer.hit()
+    else partition.tracer.miss()
+    result
   }
 
-  def put(place: PsiElement, tp: ScType, value: Seq[ScalaResolveResult]): Unit = {
-    val scope = ImplicitSearchScope.forElement(place)
-    map.put((scope, tp), value)
+  /**
+    * @param computationTime nanoseconds spent to find `value`
+    */
+  def put(place: PsiElement, tp: ScType, value: Seq[ScalaResolveResult], computationTime: Long): Unit = {
+    val partition = partitionFor(place)
+    partition.synchronized(partition.put(tp, value))
+    partition.tracer.computed(computationTime)
   }
 
-  def size(): Int = map.size() + typeParametersOwnersCache.size()
+  def size(): Int =
+    partitions.values.asScala.foldLeft(typeParametersOwnersCache.size()) {
+      case (acc, partition) => acc + partition.synchronized(partition.size)
+    }
+
+  def evictedCount: Long = evictions.sum
 
   def clear(): Unit = {
-    map.clear()
+    partitions.clear()
     typeParametersOwnersCache.clear()
   }
+
+  private def partitionFor(place: PsiElement): Partition =
+    partitions.computeIfAbsent(ImplicitSearchScope.forElement(place), new Partition(_))
+
+  // access-ordered, guarded by itself
+  private final class Partition(scope: ImplicitSearchScope)
+    extends util.LinkedHashMap[ScType, Seq[ScalaResolveResult]](16, 0.75F, true) {
+
+    val tracer: ImplicitScopeTracer = ImplicitScopeTracer(scope.id, scope.presentableName)
+
+    override def removeEldestEntry(eldest: Entry[ScType, Seq[ScalaResolveResult]]): Boolean = {
+      val remove = size > PartitionCapacity
+      if (remove) {
+        evictions.increment()
+        tracer.eviction()
+      }
+      remove
+    }
+  }
+}
+
+object ImplicitCollectorCache {
+  private val PartitionCapacity = 1000
 }
@@ -1,11 +1,13 @@
 package org.jetbrains.plugins.scala.lang.psi.implicits
 
-import java.util.concurrent.{Callable, ConcurrentHashMap, ConcurrentMap, TimeUnit}
+import java.util.concurrent.{Callable, ConcurrentHashMap, ConcurrentMap, Executor, TimeUnit}
 
 import com.intellij.openapi.application.{ApplicationManager, ReadAction}
 import com.intellij.openapi.project.{Project, ProjectManager, ProjectManagerListener}
 import com.intellij.openapi.util.LowMemoryWatcher
 import com.intellij.openapi.util.LowMemoryWatcher.LowMemoryWatcherType
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiElement
 import com.intellij.psi.search.GlobalSearchScope
 import com.intellij.util.concurrency.AppExecutorUtil
 import com.intellij.util.messages.MessageBusConnection
@@ -13,10 +15,18 @@ import org.jetbrains.concurrency.CancellablePromise
 import org.jetbrains.plugins.scala.caches.CachesUtil.Timestamped
 import org.jetbrains.plugins.scala.lang.psi.ElementScope
 import org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiManager
+import org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.MixinNodes
 
 import scala.collection.mutable
 import scala.util.Try
 
+/**
+  * Global implicit conversions per resolve scope, used by completion of extension methods.
+  *
+  * Conversions are computed in background, see [[ImplicitConversionCacheWarmUp]] for their initial computation.
+  * After top-level changes only conversions affected by the changed files are computed again,
+  * unless these files are unknown, e.g. after changes of project roots.
+  */
 object ImplicitConversionCache {
 
   type ImplicitConversionMap = collection.Map[GlobalImplicitConversion, ImplicitConversionData]
@@ -24,6 +34,9 @@ object ImplicitConversionCache {
   private val implicitConversionDataCache: ConcurrentMap[GlobalSearchScope, Timestamped[ImplicitConversionMap]] =
     new ConcurrentHashMap()
 
+  private val pendingUpdates: ConcurrentMap[GlobalSearchScope, CancellablePromise[Timestamped[ImplicitConversionMap]]] =
+    new ConcurrentHashMap()
+
   registerCleanups()
 
   def getOrScheduleUpdate(elementScope: ElementScope): ImplicitConversionMap = {
@@ -44,6 +57,18 @@ object ImplicitConversionCache {
     }
   }
 
+  /**
+    * Starts computation of conversions for `elementScope` in background, unless they are computed already.
+    */
+  def warmUp(elementScope: ElementScope): Unit =
+    if (!implicitConversionDataCache.containsKey(elementScope.scope)) {
+      scheduleUpdateFor(elementScope, warmUpExecutor)
+    }
+
+  //scopes of different modules overlap a lot, there is no point to compute them all at once
+  private lazy val warmUpExecutor: Executor =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor("ImplicitConversionCache warm-up", 1)
+
   private val defaultTimeoutMs: Int =
     if (ApplicationManager.getApplication.isUnitTestMode) 10000
     else 100
@@ -59,28 +84,84 @@ object ImplicitConversionCache {
     })
   }
 
-  private def scheduleUpdateFor(implicit elementScope: ElementScope): CancellablePromise[Timestamped[ImplicitConversionMap]] = {
-    val callback: Callable[Timestamped[ImplicitConversionMap]] = () => {
-      val currentCount = currentTopLevelModCount(elementScope.project)
-      implicitConversionDataCache
-        .computeIfAbsent(elementScope.scope, scope => Timestamped(computeImplicitConversionMap(elementScope), currentCount))
+  private def scheduleUpdateFor(elementScope: ElementScope,
+                                executor: Executor = AppExecutorUtil.getAppExecutorService): CancellablePromise[Timestamped[ImplicitConversionMap]] = {
+    val searchScope = elementScope.scope
+
+    pendingUpdates.get(searchScope) match {
+      case null =>
+        val callback: Callable[Timestamped[ImplicitConversionMap]] = () => {
+          val updated = updatedEntry(implicitConversionDataCache.get(searchScope))(elementScope)
+          implicitConversionDataCache.put(searchScope, updated)
+          updated
+        }
+        val promise = ReadAction.nonBlocking(callback)
+          .inSmartMode(elementScope.project)
+          .submit(executor)
+
+        pendingUpdates.putIfAbsent(searchScope, promise) match {
+          case null =>
+            promise.onProcessed(_ => pendingUpdates.remove(searchScope, promise))
+            promise
+          case pending =>
+            promise.cancel()
+            pending
+        }
+      case pending => pending
+    }
+  }
+
+  private def updatedEntry(cached: Timestamped[ImplicitConversionMap])
+                          (implicit elementScope: ElementScope): Timestamped[ImplicitConversionMap] = {
+    val project = elementScope.project
+    val currentCount = currentTopLevelModCount(project)
+
+    cached match {
+      case Timestamped(_, `currentCount`) => cached
+      case Timestamped(data, modCount) =>
+        val changedFiles = ScalaPsiManager.instance(project).topLevelChangesLog.changedFiles(modCount, currentCount)
+        val updated = changedFiles.fold(computeImplicitConversionMap(elementScope)) {
+          updateImplicitConversionMap(data, _)
+        }
+        Timestamped(updated, currentCount)
+      case null =>
+        Timestamped(computeImplicitConversionMap(elementScope), currentCount)
     }
-    ReadAction.nonBlocking(callback)
-      .inSmartMode(elementScope.project)
-      .submit(AppExecutorUtil.getAppExecutorService)
   }
 
   private def currentTopLevelModCount(project: Project) =
     ScalaPsiManager.instance(project).TopLevelModificationTracker.getModificationCount
 
-  private def computeImplicitConversionMap(elementScope: ElementScope): ImplicitConversionMap = {
+  private[implicits] def computeImplicitConversionMap(elementScope: ElementScope): ImplicitConversionMap =
+    toImplicitConversionMap(GlobalImplicitConversion.collectIn(elementScope), mutable.Map.empty)
+
+  private[implicits] def updateImplicitConversionMap(map: ImplicitConversionMap, changedFiles: Set[VirtualFile])
+                                                    (implicit elementScope: ElementScope): ImplicitConversionMap = {
+    def isChanged(element: PsiElement): Boolean =
+      !element.isValid || Option(element.getContainingFile).exists(file => changedFiles.contains(file.getVirtualFile))
+
+    def isOutdated(conversion: GlobalImplicitConversion): Boolean = {
+      val obj = conversion.containingObject
+      isChanged(conversion.function) || isChanged(obj) || MixinNodes.superClasses(obj).exists(isChanged)
+    }
+
+    val (outdated, upToDate) = map.keys.partition(isOutdated)
+    val objectsToRecheck = outdated.map(_.containingObject).filterNot(isChanged).toSet
+
     val resultMap = mutable.Map.empty[GlobalImplicitConversion, ImplicitConversionData]
+    upToDate.foreach(conversion => resultMap += (conversion -> map(conversion)))
+
+    toImplicitConversionMap(GlobalImplicitConversion.collectIn(elementScope, changedFiles, objectsToRecheck), resultMap)
+  }
+
+  private def toImplicitConversionMap(conversions: Iterable[GlobalImplicitConversion],
+                                      resultMap: mutable.Map[GlobalImplicitConversion, ImplicitConversionData]): ImplicitConversionMap = {
     for {
-      globalConversion  <- GlobalImplicitConversion.collectIn(elementScope)
+      globalConversion  <- conversions
       data              <- globalConversion.toImplicitConversionData
     } {
       resultMap += (globalConversion -> data)
     }
     resultMap
   }
-}
\ No newline at end of file
+}
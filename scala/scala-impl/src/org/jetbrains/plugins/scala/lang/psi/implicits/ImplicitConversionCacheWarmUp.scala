@@ -0,0 +1,44 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package implicits
+
+import com.intellij.openapi.application.ApplicationManager
+import com.intellij.openapi.components.ProjectComponent
+import com.intellij.openapi.fileEditor.{FileEditorManager, FileEditorManagerListener}
+import com.intellij.openapi.project.{DumbService, Project}
+import com.intellij.openapi.vfs.VirtualFile
+import com.intellij.psi.PsiManager
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.ScalaFile
+
+/**
+  * Computes global implicit conversions for resolve scopes of Scala files opened in editors,
+  * so that the first completion of extension methods doesn't have to wait for them.
+  *
+  * Scopes of other files are computed on the first completion in them, as before.
+  */
+final class ImplicitConversionCacheWarmUp(project: Project) extends ProjectComponent {
+
+  override def getComponentName: String = getClass.getSimpleName
+
+  override def projectOpened(): Unit = {
+    if (ApplicationManager.getApplication.isUnitTestMode) return
+
+    project.getMessageBus.connect(project).subscribe(FileEditorManagerListener.FILE_EDITOR_MANAGER, new FileEditorManagerListener {
+      override def fileOpened(source: FileEditorManager, file: VirtualFile): Unit = warmUp(file)
+    })
+
+    //computation itself waits for indexing, here it's only about files opened before
+    DumbService.getInstance(project).runWhenSmart { () =>
+      if (!project.isDisposed) FileEditorManager.getInstance(project).getOpenFiles.foreach(warmUp)
+    }
+  }
+
+  private def warmUp(file: VirtualFile): Unit = inReadAction {
+    if (!project.isDisposed && file.isValid) PsiManager.getInstance(project).findFile(file) match {
+      case scalaFile: ScalaFile => ImplicitConversionCache.warmUp(ElementScope(scalaFile))
+      case _                    =>
+    }
+  }
+}
@@ -206,7 +206,18 @@ object ImplicitProcessor {
       def collectSupers(clazz: PsiClass, subst: ScSubstitutor) {
         clazz match {
           case td: ScTemplateDefinition =>
-            collectPartsIter(td.superTypes.map(subst))
+            val typeConstructorScope = TypeConstructorImplicitScope(td, elementScope.scope)
+            parts ++= typeConstructorScope.objects
+
+            //linearization is closed under base types, so only type arguments of top-level ones are left
+            typeConstructorScope.topLevelBaseTypes.foreach { baseType =>
+              val substituted = subst(baseType)
+              if (visited.add(substituted)) substituted match {
+                case ParameterizedType(_, args) => collectPartsIter(args)
+                case _                          =>
+              }
+            }
+            collectPartsIter(typeConstructorScope.nestedBaseTypes.map(subst))
           case clazz: PsiClass =>
             collectPartsIter(clazz.getSuperTypes.map(t => subst(t.toScType())))
         }
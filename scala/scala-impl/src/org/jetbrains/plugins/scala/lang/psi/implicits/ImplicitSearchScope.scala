@@ -1,5 +1,6 @@
 package org.jetbrains.plugins.scala.lang.psi.implicits
 
+import com.intellij.openapi.util.text.StringUtil
 import com.intellij.psi.{PsiElement, PsiFile}
 import org.jetbrains.plugins.scala.extensions.{PsiElementExt, childOf}
 import org.jetbrains.plugins.scala.lang.psi.api.ScalaFile
@@ -16,11 +17,32 @@ import org.jetbrains.plugins.scala.project._
 /**
   * @author Nikolay.Tropin
   */
-trait ImplicitSearchScope
+trait ImplicitSearchScope {
+
+  //identify the scope in statistics of ImplicitCollectorCache
+  def id: String
+
+  def presentableName: String
+}
 
 object ImplicitSearchScope {
 
-  private case class ImplicitSearchScopeImpl(file: PsiFile, upperBorder: Option[PsiElement]) extends ImplicitSearchScope
+  private case class ImplicitSearchScopeImpl(file: PsiFile, upperBorder: Option[PsiElement]) extends ImplicitSearchScope {
+
+    override def id: String = {
+      val path = Option(file.getVirtualFile).fold(file.getName)(_.getPath)
+      s"$path:${borderOffset.getOrElse(0)}"
+    }
+
+    override def presentableName: String = upperBorder match {
+      case Some(border) =>
+        val firstLine = border.getText.takeWhile(_ != '\n')
+        s"${file.getName}:${borderOffset.get} (${StringUtil.first(firstLine, 40, true)})"
+      case _ => file.getName
+    }
+
+    private def borderOffset: Option[Int] = upperBorder.map(_.getTextRange.getStartOffset)
+  }
 
   //should be different for two elements if they have different sets of available implicit names
   def forElement(e: PsiElement): ImplicitSearchScope = {
@@ -21,6 +21,16 @@ object ImplicitsRecursionGuard {
 
   def setRecursionMap(map: Map[PsiElement, List[ScType]]): Unit = recursionMap.set(map)
 
+  def withRecursionMap[T](map: RecursionMap)(body: => T): T = {
+    val current = currentMap
+    try {
+      setRecursionMap(map)
+      body
+    } finally {
+      setRecursionMap(current)
+    }
+  }
+
   def isRecursive(element: PsiElement, tp: ScType, checkRecursive: (ScType, Seq[ScType]) => Boolean): Boolean =
     checkRecursive(tp, getSearches(element))
 
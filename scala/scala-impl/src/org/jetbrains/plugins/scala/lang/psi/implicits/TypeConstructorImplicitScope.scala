@@ -0,0 +1,115 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package implicits
+
+import com.intellij.openapi.roots.ProjectRootManager
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.{PsiClass, PsiElement}
+import org.jetbrains.plugins.scala.caches.CachesUtil
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.ScalaPsiUtil.getCompanionModule
+import org.jetbrains.plugins.scala.lang.psi.api.ScPackageLike
+import org.jetbrains.plugins.scala.lang.psi.api.expr.ScNewTemplateDefinition
+import org.jetbrains.plugins.scala.lang.psi.api.toplevel.typedef.{ScObject, ScTemplateDefinition, ScTypeDefinition}
+import org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiManager
+import org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.MixinNodes
+import org.jetbrains.plugins.scala.lang.psi.types.ScType
+import org.jetbrains.plugins.scala.lang.psi.types.api.designator.ScDesignatorType
+import org.jetbrains.plugins.scala.macroAnnotations.CachedInUserData
+
+import scala.annotation.tailrec
+import scala.collection.mutable
+
+/**
+  * Part of the implicit scope of a class type, which doesn't depend on its type arguments:
+  * companions of its base classes and package objects of their packages.
+  *
+  * It is computed once per type constructor from its linearization and is invalidated together with it,
+  * so scopes of library classes survive changes of sources. The only exception are package objects:
+  * a package of a library class may have a package object in project sources, so such objects are looked up
+  * separately and are invalidated on top-level changes.
+  *
+  * Only top-level base classes are handled here, companions of nested ones may depend on a prefix.
+  */
+private[implicits] object TypeConstructorImplicitScope {
+
+  /**
+    * @param objects           designators of companions of top-level base classes and of package objects of their packages
+    * @param topLevelBaseTypes base types of top-level classes, only type arguments of them add to the implicit scope
+    * @param nestedBaseTypes   base types of nested classes, which have to be processed as other parts of a type
+    */
+  final case class Entry(objects: Seq[ScType], topLevelBaseTypes: Seq[ScType], nestedBaseTypes: Seq[ScType])
+
+  def apply(clazz: ScTemplateDefinition, scope: GlobalSearchScope): Entry = {
+    @CachedInUserData(clazz, CachesUtil.libraryAwareModTracker(clazz))
+    def cached(scope: GlobalSearchScope): Entry = {
+      val isLibrary = isLibraryElement(clazz)
+
+      val objects = mutable.ArrayBuffer.empty[ScType]
+      val (topLevel, nested) = baseTypes(clazz).partition { baseType =>
+        baseType.extractClass match {
+          case Some(baseClass) if isTopLevel(baseClass) =>
+            objects ++= companion(baseClass)
+            objects ++= packageObjects(baseClass, scope)
+              .filter(!isLibrary || isLibraryElement(_))
+              .map(ScDesignatorType(_))
+            true
+          case _ => false
+        }
+      }
+
+      Entry(objects.distinct, topLevel, nested)
+    }
+
+    @CachedInUserData(clazz, ScalaPsiManager.instance(clazz.getProject).TopLevelModificationTracker)
+    def sourcePackageObjects(scope: GlobalSearchScope): Seq[ScType] =
+      baseTypes(clazz)
+        .flatMap(_.extractClass)
+        .filter(isTopLevel)
+        .flatMap(packageObjects(_, scope))
+        .filterNot(isLibraryElement)
+        .distinct
+        .map(ScDesignatorType(_))
+
+    val entry = cached(scope)
+    if (isLibraryElement(clazz)) sourcePackageObjects(scope) match {
+      case Seq()   => entry
+      case objects => entry.copy(objects = (entry.objects ++ objects).distinct)
+    }
+    else entry
+  }
+
+  private def baseTypes(clazz: ScTemplateDefinition): Seq[ScType] = clazz match {
+    case _: ScNewTemplateDefinition => MixinNodes.linearization(clazz)
+    case _                          => MixinNodes.linearization(clazz).drop(1)
+  }
+
+  //entries of such elements are invalidated only on roots changes
+  private def isLibraryElement(element: PsiElement): Boolean =
+    CachesUtil.libraryAwareModTracker(element) == ProjectRootManager.getInstance(element.getProject)
+
+  private def isTopLevel(clazz: PsiClass): Boolean = clazz match {
+    case td: ScTypeDefinition => td.isTopLevel
+    case _                    => clazz.getContainingClass == null
+  }
+
+  private def companion(clazz: PsiClass): Option[ScType] = clazz match {
+    case obj: ScObject => Some(ScDesignatorType(obj))
+    case _ =>
+      getCompanionModule(clazz).collect {
+        case obj: ScObject => ScDesignatorType(obj)
+      }
+  }
+
+  private def packageObjects(clazz: PsiClass, scope: GlobalSearchScope): Seq[ScObject] = {
+    @tailrec
+    def collect(packOpt: Option[ScPackageLike], acc: List[ScObject]): List[ScObject] = packOpt match {
+      case Some(pack) =>
+        collect(pack.parentScalaPackage, pack.findPackageObject(scope).toList ::: acc)
+      case _ => acc.reverse
+    }
+
+    collect(clazz.parentOfType(classOf[ScPackageLike], strict = false), Nil)
+  }
+}
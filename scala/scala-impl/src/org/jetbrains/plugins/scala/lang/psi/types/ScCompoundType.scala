@@ -19,6 +19,9 @@ final case class ScCompoundType private(
   typesMap:     Map[String, TypeAliasSignature] = Map.empty
                                        )(implicit override val projectContext: ProjectContext) extends ScalaType with api.ValueType {
 
+  private[types] val mayBeInterned: Boolean =
+    signatureMap.isEmpty && typesMap.isEmpty && ScTypeInterner.mayIntern(components)
+
   private var hash: Int = -1
 
   override def hashCode: Int = {
@@ -135,7 +138,7 @@ object ScCompoundType {
         case (acc, otherTpe) => (acc._1 :+ otherTpe, acc._2, acc._3)
       }
 
-    new ScCompoundType(comps.distinct, sigs, types)
+    ScTypeInterner.intern(new ScCompoundType(comps.distinct, sigs, types))
   }
 
 
@@ -42,6 +42,8 @@ final class ScParameterizedType private(val designator: ScType, val typeArgument
     Some(AliasType(ta, lowerBound, upperBound))
   }
 
+  private[types] val mayBeInterned: Boolean = ScTypeInterner.mayIntern(designator +: typeArguments)
+
   private var hash: Int = -1
 
   //noinspection HashCodeUsesVar
@@ -133,6 +135,7 @@ final class ScParameterizedType private(val designator: ScType, val typeArgument
 
   override def equals(other: Any): Boolean = other match {
     case that: ScParameterizedType =>
+      (this eq that) ||
       (that canEqual this) &&
         designator == that.designator &&
         typeArguments == that.typeArguments
@@ -144,7 +147,7 @@ object ScParameterizedType {
 
   def apply(designator: ScType, typeArgs: Seq[ScType]): ValueType = {
 
-    val simple = new ScParameterizedType(designator, typeArgs)
+    lazy val simple = ScTypeInterner.intern(new ScParameterizedType(designator, typeArgs))
     designator match {
 
       // Simplify application of "type-lambda-like" types
@@ -163,12 +166,12 @@ object ScParameterizedType {
       // Simplify application of ScTypePolymorphicType encoding of type lambdas
       case ScTypePolymorphicType(internalType, typeParameters) if internalType.isInstanceOf[ScParameterizedType] =>
         val internal = internalType.asInstanceOf[ScParameterizedType]
-        new ScParameterizedType(internal.designator, internal.typeArguments.map {
+        ScTypeInterner.intern(new ScParameterizedType(internal.designator, internal.typeArguments.map {
           case pType: TypeParameterType =>
             typeParameters.zip(typeArgs).find{case (tParam, _) => TypeParameterType(tParam).equiv(pType)}.map(_._2).getOrElse(pType)
           case aType =>
             aType
-        })
+        }))
       case _ => simple
     }
   }
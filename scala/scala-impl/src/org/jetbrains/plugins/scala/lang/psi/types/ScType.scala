@@ -31,6 +31,18 @@ trait ScType extends project.ProjectContextOwner {
     unpacked
   }
 
+  private var libraryType: java.lang.Boolean = null
+
+  /**
+    * Whether the type refers to library code only, see [[api.TypeSystem.isLibraryOnly]].
+    */
+  final def isLibraryType: Boolean = {
+    if (libraryType == null) {
+      libraryType = api.TypeSystem.computeIsLibraryType(this)
+    }
+    libraryType
+  }
+
   protected def isAliasTypeInner: Option[AliasType] = None
 
   override final def toString: String = extensions.ifReadAllowed {
@@ -0,0 +1,61 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package types
+
+import java.util.concurrent.ConcurrentMap
+
+import com.intellij.util.containers.ContainerUtil
+
+/**
+  * Hash-consing of structural types: parameterized, projection and compound types are created through
+  * their factories, which return a canonical instance for structurally equal types.
+  *
+  * Equal types thus share a single instance with its cached hash code and memoized data (alias type, substitutor),
+  * and equality checks in caches keyed by types mostly end at the identity check.
+  *
+  * Types memoize data computed from PSI, so the table is cleared together with other caches on PSI changes,
+  * see [[org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiManager]]. Both keys and values are weak,
+  * the table never keeps a type alive.
+  *
+  * Designator types are leaves compared by PSI identity, and carry a `static` flag, so they are not interned.
+  * Equality ignores that flag, so neither are types containing a static designator: a canonical instance
+  * could otherwise replace it with a non-static one, or the other way round.
+  * Compound types with refinements are not interned either, as their signatures are not fully traversed.
+  * Whether a type may be interned is computed once, on construction, from its direct components.
+  *
+  * Interning is switched off with `-Dscala.types.interning.disabled=true`.
+  */
+object ScTypeInterner {
+
+  import api.designator.{ScDesignatorType, ScProjectionType}
+
+  private val enabled: Boolean = !java.lang.Boolean.getBoolean("scala.types.interning.disabled")
+
+  private val table: ConcurrentMap[ScType, ScType] = ContainerUtil.createConcurrentWeakKeyWeakValueMap[ScType, ScType]()
+
+  def intern[T <: ScType](tp: T): T =
+    if (!enabled || !isInternable(tp)) tp
+    else table.putIfAbsent(tp, tp) match {
+      case null     => tp
+      case existing => existing.asInstanceOf[T]
+    }
+
+  private[types] def mayIntern(components: Seq[ScType]): Boolean = components.forall(isInternable)
+
+  //types built by the factories keep the bit, others are mostly small (existential arguments, bounds) and are traversed
+  private def isInternable(tp: ScType): Boolean = tp match {
+    case _: ScParameterizedType | _: ScProjectionType | _: ScCompoundType | _: ScDesignatorType => !isNotInternableNode(tp)
+    case _ => !tp.subtypeExists(isNotInternableNode)
+  }
+
+  private def isNotInternableNode(tp: ScType): Boolean = tp match {
+    case parameterized: ScParameterizedType => !parameterized.mayBeInterned
+    case projection: ScProjectionType       => !projection.mayBeInterned
+    case compound: ScCompoundType           => !compound.mayBeInterned
+    case designator: ScDesignatorType       => designator.isStatic
+    case _                                  => false
+  }
+
+  def clear(): Unit = table.clear()
+}
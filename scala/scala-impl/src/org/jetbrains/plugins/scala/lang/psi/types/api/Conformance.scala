@@ -2,13 +2,10 @@ package org.jetbrains.plugins.scala.lang.psi
 package types
 package api
 
-import java.util.concurrent.ConcurrentMap
-
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.util.Computable
 import com.intellij.psi.PsiClass
-import com.intellij.util.containers.ContainerUtil
-import org.jetbrains.plugins.scala.caches.RecursionManager
+import org.jetbrains.plugins.scala.caches.{GenerationalCache, RecursionManager}
 import org.jetbrains.plugins.scala.caches.stats.{CacheCapabilities, CacheTracker, Tracer}
 import org.jetbrains.plugins.scala.extensions.NullSafe
 import org.jetbrains.plugins.scala.lang.psi.types.api.Conformance._
@@ -25,7 +22,7 @@ trait Conformance {
   private val guard = RecursionManager.RecursionGuard[Key, ConstraintsResult](s"${typeSystem.name}.conformance.guard")
 
   private val cache = {
-    val cache = ContainerUtil.newConcurrentMap[Key, ConstraintsResult]()
+    val cache = new GenerationalCache[Key, ConstraintsResult](CacheSize)
     CacheTracker.alwaysTrack(conformsInnerCache, conformsInnerCache, cache, ConformanceCacheCapabilities)
     cache
   }
@@ -47,7 +44,9 @@ trait Conformance {
     } else Left
   }
 
-  def clearCache(): Unit = cache.clear()
+  def clearCache(): Unit = cache.invalidateProjectEntries()
+
+  def clearAllCaches(): Unit = cache.clear()
 
   protected def conformsComputable(key: Key, visited: Set[PsiClass]): Computable[ConstraintsResult]
 
@@ -58,12 +57,13 @@ trait Conformance {
     NullSafe(cache.get(key)).orElse(
       guard.doPreventingRecursion(key) {
         val stackStamp = RecursionManager.markStack()
+        val cacheStamp = cache.stamp
         tracer.calculationStart()
         try {
           val result = NullSafe(conformsComputable(key, visited).compute())
           result.foreach(result =>
               if (stackStamp.mayCacheNow())
-                cache.put(key, result)
+                cache.put(key, result, isLibraryOnly(key.left, key.right), cacheStamp)
           )
           result
         }
@@ -77,8 +77,12 @@ trait Conformance {
 
 object Conformance {
   val conformsInnerCache: String = "Conformance.conformsInner"
-  object ConformanceCacheCapabilities extends CacheCapabilities[ConcurrentMap[_, ConstraintsResult]] {
-    override def cachedEntitiesCount(cache: CacheType): Int = cache.size()
+
+  private val CacheSize = 200000
+
+  object ConformanceCacheCapabilities extends CacheCapabilities[GenerationalCache[_, ConstraintsResult]] {
+    override def cachedEntitiesCount(cache: CacheType): Int = cache.size
     override def clear(cache: CacheType): Unit = cache.clear()
+    override def evictedEntitiesCount(cache: CacheType): Long = cache.stats.evictions + cache.stats.invalidated
   }
 }
\ No newline at end of file
@@ -4,8 +4,7 @@ package api
 
 import com.intellij.openapi.progress.ProgressManager
 import com.intellij.openapi.util.Computable
-import com.intellij.util.containers.ContainerUtil
-import org.jetbrains.plugins.scala.caches.RecursionManager
+import org.jetbrains.plugins.scala.caches.{GenerationalCache, RecursionManager}
 import org.jetbrains.plugins.scala.caches.stats.{CacheCapabilities, CacheTracker, Tracer}
 import org.jetbrains.plugins.scala.extensions.NullSafe
 import org.jetbrains.plugins.scala.lang.psi.types.api.Equivalence._
@@ -24,7 +23,7 @@ trait Equivalence {
   private val guard = RecursionManager.RecursionGuard[Key, ConstraintsResult](s"${typeSystem.name}.equivalence.guard")
 
   private val cache = {
-    val cache = ContainerUtil.newConcurrentMap[Key, ConstraintsResult]()
+    val cache = new GenerationalCache[Key, ConstraintsResult](CacheSize)
     CacheTracker.alwaysTrack(equivInnerTraceId, equivInnerTraceId, this, EquivInnerCacheCapabilities)
     cache
   }
@@ -33,7 +32,9 @@ trait Equivalence {
 
   final def equiv(left: ScType, right: ScType): Boolean = equivInner(left, right).isRight
 
-  def clearCache(): Unit = cache.clear()
+  def clearCache(): Unit = cache.invalidateProjectEntries()
+
+  def clearAllCaches(): Unit = cache.clear()
 
   /**
     * @param falseUndef use false to consider undef type equals to any type
@@ -66,6 +67,7 @@ trait Equivalence {
     fromCache.orElse(
       guard.doPreventingRecursion(key) {
         val stackStamp = RecursionManager.markStack()
+        val cacheStamp = cache.stamp
 
         tracer.calculationStart()
         val result = try {
@@ -76,7 +78,7 @@ trait Equivalence {
 
         result.foreach(result =>
           if (!nowEval && stackStamp.mayCacheNow())
-            eval.withValue(true) { cache.put(key, result) }
+            eval.withValue(true) { cache.put(key, result, isLibraryOnly(key.left, key.right), cacheStamp) }
         )
         result
       }.getOrElse(NullSafe.empty)
@@ -87,8 +89,11 @@ trait Equivalence {
 object Equivalence {
   val equivInnerTraceId: String = "Equivalence.equivInner"
 
+  private val CacheSize = 100000
+
   object EquivInnerCacheCapabilities extends CacheCapabilities[Equivalence] {
-    override def cachedEntitiesCount(cache: CacheType): Int = cache.cache.size()
-    override def clear(cache: CacheType): Unit = cache.clearCache()
+    override def cachedEntitiesCount(cache: CacheType): Int = cache.cache.size
+    override def clear(cache: CacheType): Unit = cache.clearAllCaches()
+    override def evictedEntitiesCount(cache: CacheType): Long = cache.cache.stats.evictions + cache.cache.stats.invalidated
   }
 }
\ No newline at end of file
@@ -2,6 +2,9 @@ package org.jetbrains.plugins.scala.lang.psi
 package types
 package api
 
+import com.intellij.psi.{PsiCompiledElement, PsiElement}
+import org.jetbrains.plugins.scala.lang.psi.api.ScalaFile
+import org.jetbrains.plugins.scala.lang.psi.types.api.designator.DesignatorOwner
 import org.jetbrains.plugins.scala.project.ProjectContextOwner
 
 /**
@@ -24,14 +27,47 @@ trait TypeSystem extends ProjectContextOwner
 
   def parameterizedType(designator: ScType, typeArguments: Seq[ScType]): ValueType
 
+  /**
+    * Drops cached results which depend on project code, results for library types are kept.
+    */
   override final def clearCache(): Unit = {
     super[Equivalence].clearCache()
     super[Conformance].clearCache()
   }
+
+  override final def clearAllCaches(): Unit = {
+    super[Equivalence].clearAllCaches()
+    super[Conformance].clearAllCaches()
+  }
 }
 
 object TypeSystem {
 
+  /**
+    * Whether both types consist of library types only, so that relations between them can't be changed by edits.
+    * Conservative: any type which can't be attributed to a library is considered to be a project one.
+    */
+  private[api] def isLibraryOnly(left: ScType, right: ScType): Boolean =
+    left.isLibraryType && right.isLibraryType
+
+  // memoized by `ScType.isLibraryType`
+  private[types] def computeIsLibraryType(tp: ScType): Boolean = !tp.subtypeExists {
+    case _: StdType | _: ParameterizedType | _: JavaArrayType | _: ScExistentialType | _: ScLiteralType => false
+    case designator: DesignatorOwner                                                             => !isCompiled(designator.element)
+    case typeParameter: TypeParameterType                                                        => !isCompiled(typeParameter.psiTypeParameter)
+    case compound: ScCompoundType                                                                => compound.signatureMap.nonEmpty || compound.typesMap.nonEmpty
+    case _                                                                                       => true
+  }
+
+  private def isCompiled(element: PsiElement): Boolean = element match {
+    case _: PsiCompiledElement => true
+    case _ =>
+      element.getContainingFile match {
+        case file: ScalaFile => file.isCompiled
+        case _               => false
+      }
+  }
+
   private[api] def combine(result: ConstraintsResult)(constraints: ConstraintSystem): ConstraintsResult = result match {
     case system: ConstraintSystem =>
       if (constraints.isEmpty) system else system + constraints
@@ -319,12 +319,15 @@ final class ScProjectionType private(val projected: ScType,
 
   override def equals(other: Any): Boolean = other match {
     case that: ScProjectionType =>
+      (this eq that) ||
       (that canEqual this) &&
         projected == that.projected &&
         element == that.element
     case _ => false
   }
 
+  private[types] val mayBeInterned: Boolean = ScTypeInterner.mayIntern(Seq(projected))
+
   private var hash: Int = -1
 
   //noinspection HashCodeUsesVar
@@ -358,7 +361,7 @@ object ScProjectionType {
 
   def apply(projected: ScType, element: PsiNamedElement): ScType = {
 
-    val simple = new ScProjectionType(projected, element)
+    val simple = ScTypeInterner.intern(new ScProjectionType(projected, element))
     simple.actualElement match {
       case td: ScTypeAliasDefinition if td.typeParameters.isEmpty =>
         val manager = ScalaPsiManager.instance(element.getProject)
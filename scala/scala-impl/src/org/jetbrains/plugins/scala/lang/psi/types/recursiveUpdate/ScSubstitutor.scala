@@ -147,10 +147,18 @@ final class ScSubstitutor private(_substitutions: Array[Update],   //Array is us
     }
   }
 
-  override def hashCode(): Int = MurmurHash3.arrayHash(substitutions)
+  private var hash: Int = -1
+
+  //noinspection HashCodeUsesVar
+  override def hashCode(): Int = {
+    if (hash == -1)
+      hash = MurmurHash3.arrayHash(substitutions)
+
+    hash
+  }
 
   override def equals(obj: Any): Boolean = obj match {
-    case other: ScSubstitutor => other.substitutions sameElements substitutions
+    case other: ScSubstitutor => (this eq other) || (other.substitutions sameElements substitutions)
     case _ => false
   }
 
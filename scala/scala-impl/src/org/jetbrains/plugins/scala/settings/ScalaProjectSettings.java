@@ -48,6 +48,7 @@ public class ScalaProjectSettings  implements PersistentStateComponent<ScalaProj
   private boolean DISABLE_LANGUAGE_INJECTION = false;
   private boolean DISABLE_I18N = false;
   private boolean DONT_CACHE_COMPOUND_TYPES = false;
+  private boolean PARALLEL_IMPLICIT_CANDIDATES_CHECK = false;
   private boolean AOT_COMPLETION = true;
   private boolean PROJECT_VIEW_HIGHLIGHTING = false;
   private boolean GROUP_PACKAGE_OBJECT_WITH_PACKAGE = false;
@@ -257,6 +258,14 @@ public class ScalaProjectSettings  implements PersistentStateComponent<ScalaProj
       DONT_CACHE_COMPOUND_TYPES = value;
   }
 
+  public boolean isParallelImplicitCandidatesCheck() {
+    return PARALLEL_IMPLICIT_CANDIDATES_CHECK;
+  }
+
+  public void setParallelImplicitCandidatesCheck(boolean value) {
+    PARALLEL_IMPLICIT_CANDIDATES_CHECK = value;
+  }
+
   public boolean isDisableLangInjection() {
     return DISABLE_LANGUAGE_INJECTION;
   }
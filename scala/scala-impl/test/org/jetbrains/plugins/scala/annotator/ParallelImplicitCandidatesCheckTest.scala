@@ -0,0 +1,120 @@
+package org.jetbrains.plugins.scala.annotator
+
+import com.intellij.openapi.progress.{EmptyProgressIndicator, ProgressManager}
+import com.intellij.openapi.util.Computable
+import org.jetbrains.plugins.scala.settings.ScalaProjectSettings
+
+/**
+  * Same searches as in [[ImplicitParametersAnnotatorTest]], but with enough candidates
+  * to be checked in parallel.
+  */
+class ParallelImplicitCandidatesCheckTest extends ImplicitParametersAnnotatorTestBase {
+
+  private var parallelCheck: Boolean = _
+
+  private def settings = ScalaProjectSettings.getInstance(fixture.getProject)
+
+  override def setUp(): Unit = {
+    super.setUp()
+    parallelCheck = settings.isParallelImplicitCandidatesCheck
+    settings.setParallelImplicitCandidatesCheck(true)
+  }
+
+  override def tearDown(): Unit = {
+    settings.setParallelImplicitCandidatesCheck(parallelCheck)
+    super.tearDown()
+  }
+
+  //candidates are checked sequentially without a progress indicator
+  override protected def messages(code: String): Option[List[Message]] = {
+    val computable: Computable[Option[List[Message]]] = () => super.messages(code)
+    ProgressManager.getInstance.runProcess(computable, new EmptyProgressIndicator)
+  }
+
+  private val instances =
+    """
+      |trait Show[A]
+      |trait Box[A]
+      |
+      |object Show {
+      |  def nothing: Nothing = nothing
+      |
+      |  implicit def record0Show: Show[Record0] = nothing
+      |  implicit def record1Show: Show[Record1] = nothing
+      |  implicit def record2Show: Show[Record2] = nothing
+      |  implicit def record3Show: Show[Record3] = nothing
+      |  implicit def record4Show: Show[Record4] = nothing
+      |  implicit def record5Show: Show[Record5] = nothing
+      |  implicit def record6Show: Show[Record6] = nothing
+      |  implicit def record7Show: Show[Record7] = nothing
+      |  implicit def record8Show: Show[Record8] = nothing
+      |  implicit def record9Show: Show[Record9] = nothing
+      |  implicit def record10Show: Show[Record10] = nothing
+      |  implicit def record11Show: Show[Record11] = nothing
+      |  implicit def record12Show: Show[Record12] = nothing
+      |  implicit def record13Show: Show[Record13] = nothing
+      |  implicit def record14Show: Show[Record14] = nothing
+      |  implicit def record15Show: Show[Record15] = nothing
+      |  implicit def record16Show: Show[Record16] = nothing
+      |  implicit def record17Show: Show[Record17] = nothing
+      |  implicit def record18Show: Show[Record18] = nothing
+      |  implicit def record19Show: Show[Record19] = nothing
+      |
+      |  implicit def boxShow[A](implicit a: Show[A]): Show[Box[A]] = nothing
+      |}
+      |
+      |class Record0
+      |class Record1
+      |class Record2
+      |class Record3
+      |class Record4
+      |class Record5
+      |class Record6
+      |class Record7
+      |class Record8
+      |class Record9
+      |class Record10
+      |class Record11
+      |class Record12
+      |class Record13
+      |class Record14
+      |class Record15
+      |class Record16
+      |class Record17
+      |class Record18
+      |class Record19
+      |""".stripMargin
+
+  def testFound(): Unit = assertNothing(messages(
+    instances +
+      """def show[A](implicit s: Show[A]) = s
+        |show[Record7]
+        |show[Box[Record19]]""".stripMargin
+  ))
+
+  def testNotFound(): Unit = assertMatches(messages(
+    instances +
+      """def show[A](implicit s: Show[A]) = s
+        |show[Int]""".stripMargin)) {
+    case Error("show[Int]", m) :: Nil if m == notFound("Show[Int]") =>
+  }
+
+  //nested searches run under recursion guards of the outer ones, which workers wouldn't see
+  def testMutuallyRecursive(): Unit = assertMatches(messages(
+    instances +
+      """class Foo
+        |class Bar
+        |
+        |object Foo {
+        |  implicit def fooShow(implicit b: Show[Bar]): Show[Foo] = Show.nothing
+        |}
+        |
+        |object Bar {
+        |  implicit def barShow(implicit f: Show[Foo]): Show[Bar] = Show.nothing
+        |}
+        |
+        |def show[A](implicit s: Show[A]) = s
+        |show[Foo]""".stripMargin)) {
+    case Error("show[Foo]", _) :: Nil =>
+  }
+}
@@ -0,0 +1,74 @@
+package org.jetbrains.plugins.scala.caches
+
+import junit.framework.TestCase
+import org.junit.Assert._
+
+class GenerationalCacheTest extends TestCase {
+
+  def test_get_put(): Unit = {
+    val cache = new GenerationalCache[String, String](maxSize = 16, segmentsCount = 1)
+    assertNull(cache.get("a"))
+
+    cache.put("a", "A", libraryOnly = false, cache.stamp)
+    assertEquals("A", cache.get("a"))
+    assertEquals(1, cache.stats.hits)
+    assertEquals(1, cache.stats.misses)
+  }
+
+  def test_project_change_keeps_library_entries(): Unit = {
+    val cache = new GenerationalCache[String, String](maxSize = 16)
+    cache.put("library", "L", libraryOnly = true, cache.stamp)
+    cache.put("project", "P", libraryOnly = false, cache.stamp)
+
+    cache.invalidateProjectEntries()
+
+    assertEquals("L", cache.get("library"))
+    assertNull(cache.get("project"))
+    assertEquals(1, cache.stats.invalidated)
+
+    cache.put("project", "P2", libraryOnly = false, cache.stamp)
+    assertEquals("P2", cache.get("project"))
+  }
+
+  def test_clear(): Unit = {
+    val cache = new GenerationalCache[String, String](maxSize = 16)
+    cache.put("library", "L", libraryOnly = true, cache.stamp)
+    cache.put("project", "P", libraryOnly = false, cache.stamp)
+
+    cache.clear()
+
+    assertEquals(0, cache.size)
+    assertNull(cache.get("library"))
+    assertNull(cache.get("project"))
+  }
+
+  def test_lru_eviction(): Unit = {
+    val cache = new GenerationalCache[Int, String](maxSize = 3, segmentsCount = 1)
+    (1 to 3).foreach(i => cache.put(i, i.toString, libraryOnly = true, cache.stamp))
+
+    cache.get(1)
+    cache.put(4, "4", libraryOnly = true, cache.stamp)
+
+    assertEquals(3, cache.size)
+    assertEquals("1", cache.get(1))
+    assertNull(cache.get(2))
+    assertEquals(1, cache.stats.evictions)
+  }
+
+  def test_value_computed_during_change_is_not_cached(): Unit = {
+    val cache = new GenerationalCache[String, String](maxSize = 16)
+
+    val stamp = cache.stamp
+    cache.invalidateProjectEntries()
+    cache.put("project", "P", libraryOnly = false, stamp)
+    assertNull(cache.get("project"))
+
+    cache.put("library", "L", libraryOnly = true, stamp)
+    assertEquals("L", cache.get("library"))
+
+    val libraryStamp = cache.stamp
+    cache.clear()
+    cache.put("library", "L2", libraryOnly = true, libraryStamp)
+    assertNull(cache.get("library"))
+  }
+}
@@ -0,0 +1,86 @@
+package org.jetbrains.plugins.scala.caches
+
+import com.intellij.psi.PsiComment
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.toplevel.typedef.ScTypeDefinition
+import org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef.TypeDefinitionMembers
+import org.junit.Assert
+
+class SignatureMapsInvalidationTest extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  override def runInDispatchThread() = false
+
+  override def loadScalaLibrary = false
+
+  private val classNames = Seq("Base", "Derived", "Unrelated")
+
+  private def signatureMaps: Map[String, AnyRef] = inReadAction {
+    getFile.depthFirst().instancesOf[ScTypeDefinition].collect {
+      case td if classNames.contains(td.name) => td.name -> TypeDefinitionMembers.getSignatures(td)
+    }.toMap
+  }
+
+  private def doTest(fileText: String, rebuilt: Set[String]): Unit = {
+    myFixture.configureByText("dummy.scala", fileText.withNormalizedSeparator.trim)
+
+    val caretOffset = inReadAction {
+      getFile.depthFirst().collect {
+        case c: PsiComment if c.textMatches("/*caret*/") => c.getTextRange.getEndOffset
+      }.next()
+    }
+
+    val before = signatureMaps
+    changePsiAt(caretOffset)
+    val after = signatureMaps
+
+    classNames.foreach { name =>
+      val isRebuilt = !(before(name) eq after(name))
+      Assert.assertEquals(s"Signature map of $name is rebuilt", rebuilt.contains(name), isRebuilt)
+    }
+  }
+
+  def testMethodBody(): Unit = doTest(
+    """
+      |class Base {
+      |  def foo = 1 + /*caret*/2
+      |}
+      |class Derived extends Base
+      |class Unrelated
+    """.stripMargin,
+    rebuilt = Set.empty
+  )
+
+  def testMethodSignature(): Unit = doTest(
+    """
+      |class Base {
+      |  def foo(i: Int/*caret*/) = 1
+      |}
+      |class Derived extends Base
+      |class Unrelated
+    """.stripMargin,
+    rebuilt = Set("Base", "Derived")
+  )
+
+  def testSubclassMethodSignature(): Unit = doTest(
+    """
+      |class Base
+      |class Derived extends Base {
+      |  def foo(i: Int/*caret*/) = 1
+      |}
+      |class Unrelated
+    """.stripMargin,
+    rebuilt = Set("Derived")
+  )
+
+  def testTopLevelChange(): Unit = doTest(
+    """
+      |class Base
+      |class Derived extends Base
+      |class Unrelated
+      |
+      |/*caret*/
+    """.stripMargin,
+    rebuilt = Set("Base", "Derived", "Unrelated")
+  )
+}
@@ -0,0 +1,67 @@
+package org.jetbrains.plugins.scala
+package compiler
+
+import java.io.File
+
+import com.intellij.openapi.roots.ModuleRootManager
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.project._
+import org.jetbrains.plugins.scala.project.settings.ScalaCompilerConfiguration
+import org.junit.Assert._
+
+/**
+ * The compile server caches compilers by `CompilerData`,
+ * so the warm-up must ask for the same one a JPS build of the module does.
+ */
+class CompileServerWarmUpTest extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  private var compileServerSdk: String = _
+  private var incrementalityType: IncrementalityType = _
+
+  private def settings = ScalaCompileServerSettings.getInstance
+
+  private def configuration = ScalaCompilerConfiguration.instanceIn(getProject)
+
+  private def moduleJdk = ModuleRootManager.getInstance(getModule).getSdk
+
+  private def warmUpKey = CompileServerWarmUp.compilerKey(getModule).get
+
+  override def setUp(): Unit = {
+    super.setUp()
+    compileServerSdk = settings.COMPILE_SERVER_SDK
+    incrementalityType = configuration.incrementalityType
+  }
+
+  override def tearDown(): Unit = {
+    settings.COMPILE_SERVER_SDK = compileServerSdk
+    configuration.incrementalityType = incrementalityType
+    super.tearDown()
+  }
+
+  // `CompilerJars(library, compiler, extra)`, as JPS reads them from the compiler classpath of the Scala SDK
+  def testCompilerJars(): Unit = {
+    val classpath = getModule.scalaSdk.get.properties.compilerClasspath
+    val library = classpath.find(_.getName.startsWith("scala-library")).get
+    val compiler = classpath.find(_.getName.startsWith("scala-compiler")).get
+
+    assertEquals(library +: compiler +: classpath.filterNot(Set(library, compiler)), warmUpKey.compilerJars)
+  }
+
+  def testModuleJdkOfCompileServer(): Unit = {
+    settings.COMPILE_SERVER_SDK = moduleJdk.getName
+    assertEquals(None, warmUpKey.javaHome)
+  }
+
+  def testOtherModuleJdk(): Unit = {
+    settings.COMPILE_SERVER_SDK = moduleJdk.getName + "-other"
+    assertEquals(Some(new File(moduleJdk.getHomePath)), warmUpKey.javaHome)
+  }
+
+  def testIncrementalityType(): Unit = {
+    configuration.incrementalityType = IncrementalityType.SBT
+    assertEquals(IncrementalityType.SBT, warmUpKey.incrementalityType)
+
+    configuration.incrementalityType = IncrementalityType.IDEA
+    assertEquals(IncrementalityType.IDEA, warmUpKey.incrementalityType)
+  }
+}
@@ -0,0 +1,34 @@
+package org.jetbrains.plugins.scala.decompiler
+
+import com.intellij.openapi.util.io.FileUtil
+import junit.framework.TestCase
+import org.jetbrains.plugins.scala.decompiler.scalasig.{Parser, ScalaSigScanner}
+import org.junit.Assert._
+
+class ScalaSigScannerTest extends TestCase {
+
+  private def classFileBytes(clazz: Class[_]): Array[Byte] = {
+    val stream = clazz.getResourceAsStream(clazz.getSimpleName + ".class")
+    try FileUtil.loadBytes(stream)
+    finally stream.close()
+  }
+
+  def testScalaClass(): Unit = {
+    val Some(scanned) = ScalaSigScanner.scan(classFileBytes(classOf[Option[_]]))
+
+    assertEquals("scala.Option", scanned.className)
+    assertEquals("Option.scala", scanned.sourceFileName)
+
+    val signature = Parser.parseScalaSig(scanned.signature, "Option.class")
+    assertEquals(Seq("Option"), signature.topLevelClasses.map(_.name))
+  }
+
+  def testJavaClass(): Unit =
+    assertEquals(None, ScalaSigScanner.scan(classFileBytes(classOf[TestCase])))
+
+  def testMalformedClass(): Unit = {
+    val bytes = classFileBytes(classOf[Option[_]])
+    assertEquals(None, ScalaSigScanner.scan(bytes.take(bytes.length / 2)))
+    assertEquals(None, ScalaSigScanner.scan(Array.emptyByteArray))
+  }
+}
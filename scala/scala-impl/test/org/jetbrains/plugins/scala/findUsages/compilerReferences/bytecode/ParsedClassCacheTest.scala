@@ -0,0 +1,54 @@
+package org.jetbrains.plugins.scala.findUsages.compilerReferences
+package bytecode
+
+import java.io.File
+
+import com.intellij.openapi.util.io.FileUtil
+import org.junit.Assert._
+import org.junit.{After, Before, Test}
+
+import scala.reflect.ClassTag
+
+class ParsedClassCacheTest {
+  private var indexDir: File = _
+
+  @Before
+  def setUp(): Unit = indexDir = FileUtil.createTempDirectory("parsed-classes", null)
+
+  @After
+  def tearDown(): Unit = FileUtil.delete(indexDir)
+
+  private def classfile[A](implicit tag: ClassTag[A]): File = {
+    val path = tag.runtimeClass.getName.replaceAll("\\.", "/") + ".class"
+    new File(getClass.getClassLoader.getResource(path).toURI)
+  }
+
+  private def withCache[T](body: ParsedClassCache => T): T = {
+    val cache = ParsedClassCache.open(indexDir).getOrElse(throw new AssertionError("Failed to open cache"))
+    try body(cache)
+    finally cache.close()
+  }
+
+  @Test
+  def testSameResultAsParser(): Unit = {
+    val classfiles = Set(classfile[WithRefs])
+    val expected   = ClassfileParser.parse(classfiles)
+
+    withCache { cache =>
+      assertEquals(expected, cache.parse(classfiles))
+      assertEquals(expected, cache.parse(classfiles))
+      assertTrue(cache.stats.startsWith("1 hits, 1 misses"))
+    }
+  }
+
+  @Test
+  def testSurvivesReopening(): Unit = {
+    val classfiles = Set(classfile[Simple], classfile[WithRefs])
+    val expected   = withCache(_.parse(classfiles))
+
+    withCache { cache =>
+      assertEquals(expected, cache.parse(classfiles))
+      assertTrue(cache.stats.startsWith("2 hits, 0 misses"))
+    }
+  }
+}
@@ -240,6 +240,42 @@ class Sincronizador(servidor: String, ruta: String, soporte: String, tblsProcesa
 
     doTest(text, 's')
   }
+
+  def testInsideInterpolatedStrings(): Unit = {
+    val text =
+      s"""
+         |object Templates {
+         |  val page = s${"\"\"\""}
+         |    |header $$title
+         |    |$${items.map(item => s"<li>$${item.name}</li>").mkString}
+         |    |body $$bo${CARET_MARKER}dy $${if (flag) "yes" else "no"}
+         |    |footer $${footer { "a" }}
+         |    |${"\"\"\""}.stripMargin
+         |  val x = 1
+         |}
+       """.stripMargin.replace("\r", "")
+
+    doTest(text, 'x', '$', '{', '}', '\r', '"', '\r', '\r', '\r')
+  }
+
+  def testInsideXmlLiteral(): Unit = {
+    val text =
+      s"""
+         |object Pages {
+         |  val page =
+         |    <html>
+         |      <body class="main">
+         |        <ul>{items.map(item => <li>{item.name}</li>)}</ul>
+         |        <d${CARET_MARKER}iv>{if (flag) <b>yes</b> else "no"}</div>
+         |        <!-- comment -->
+         |      </body>
+         |    </html>
+         |  val x = 1
+         |}
+       """.stripMargin.replace("\r", "")
+
+    doTest(text, 'x', '\r', '{', '\r', '<')
+  }
 }
 
 object IncrementalLexerHighlightingTest {
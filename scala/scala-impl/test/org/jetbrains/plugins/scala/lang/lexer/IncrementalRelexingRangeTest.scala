@@ -0,0 +1,167 @@
+package org.jetbrains.plugins.scala
+package lang
+package lexer
+
+import com.intellij.lexer.{DelegateLexer, Lexer, RestartableLexer, TokenIterator}
+import com.intellij.openapi.editor.colors.{EditorColorsManager, TextAttributesKey}
+import com.intellij.openapi.editor.ex.util.LexerEditorHighlighter
+import com.intellij.openapi.editor.highlighter.HighlighterClient
+import com.intellij.openapi.editor.{Document, EditorFactory}
+import com.intellij.openapi.fileTypes.{SyntaxHighlighter, SyntaxHighlighterBase, SyntaxHighlighterFactory}
+import com.intellij.openapi.project.Project
+import com.intellij.psi.tree.IElementType
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.extensions.inWriteAction
+import org.junit.Assert._
+
+/**
+  * A keystroke inside a long interpolated string or XML literal must be relexed around the edit only,
+  * not from the beginning of the literal to its end.
+  */
+class IncrementalRelexingRangeTest extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  import IncrementalRelexingRangeTest._
+
+  private def createHighlighter(document: Document): (LexerEditorHighlighter, RecordingLexer) = {
+    val syntaxHighlighter = SyntaxHighlighterFactory.getSyntaxHighlighter(ScalaFileType.INSTANCE, getProject, null)
+    val lexer = new RecordingLexer(syntaxHighlighter.getHighlightingLexer)
+
+    val highlighter = new LexerEditorHighlighter(
+      new RecordingSyntaxHighlighter(syntaxHighlighter, lexer),
+      EditorColorsManager.getInstance.getGlobalScheme
+    )
+    highlighter.setEditor(new StubClient(getProject, document))
+    highlighter.setText(document.getImmutableCharSequence)
+    (highlighter, lexer)
+  }
+
+  private def segments(highlighter: LexerEditorHighlighter) = {
+    val array = highlighter.getSegments
+    for (i <- 0 until array.getSegmentCount)
+      yield (array.getSegmentStart(i), array.getSegmentEnd(i), array.getSegmentData(i))
+  }
+
+  private def doTest(text: String, typed: String*): Unit = {
+    val document = EditorFactory.getInstance.createDocument(text)
+    val (highlighter, lexer) = createHighlighter(document)
+    document.addDocumentListener(highlighter)
+
+    var offset = text.indexOf(Marker)
+    try typed.foreach { string =>
+      lexer.reset()
+      inWriteAction {
+        document.insertString(offset, string)
+      }
+      offset += string.length
+
+      val (start, end) = lexer.relexedRange
+      assertTrue(s"Relexed range [$start, $end) doesn't contain the edit at $offset", start < offset && offset <= end)
+      assertTrue(s"Relexed range [$start, $end) is too long", end - start < MaxRelexedLength)
+    } finally {
+      document.removeDocumentListener(highlighter)
+    }
+
+    val (expected, _) = createHighlighter(document)
+    assertEquals(segments(expected), segments(highlighter))
+  }
+
+  def testInterpolatedString(): Unit = doTest(interpolatedString, "x", "$", "y", "{", "}", " ")
+
+  // unbalanced injections change lexing up to the end of the literal, so they are typed at once
+  def testInjections(): Unit = doTest(interpolatedString, "${s\"$a\"}", " ", "${if (b) \"c\" else d}")
+
+  def testXmlLiteral(): Unit = doTest(xmlLiteral, "x", " ", "y")
+
+  def testXmlInjectionsAndTags(): Unit = doTest(xmlLiteral, "{a}", " ", "<b>y</b>", "{<i>{b}</i>}")
+}
+
+object IncrementalRelexingRangeTest {
+
+  private val Marker = "marker"
+
+  private val Lines = 500
+
+  // a few lines around the edit, while the literals are Lines long
+  private val MaxRelexedLength = 300
+
+  private val Quotes = "\"\"\""
+
+  private def interpolatedString: String = {
+    val lines = for (i <- 1 to Lines)
+      yield s"""    |line $i of $$title with $${items($i).name} and $${if (flag) "{}" else s"$$i"}"""
+
+    s"""object Templates {
+       |  def template(title: String) = s$Quotes
+       |${lines.take(Lines / 2).mkString("\n")}
+       |    |$Marker
+       |${lines.drop(Lines / 2).mkString("\n")}
+       |    |$Quotes.stripMargin
+       |}""".stripMargin
+  }
+
+  private def xmlLiteral: String = {
+    val lines = for (i <- 1 to Lines)
+      yield s"""      <div class="row$i">{items.map(item => <span title={item.name}>{item.value + $i}</span>)}</div>"""
+
+    s"""object Pages {
+       |  def page =
+       |    <html>
+       |${lines.take(Lines / 2).mkString("\n")}
+       |      <p>$Marker</p>
+       |${lines.drop(Lines / 2).mkString("\n")}
+       |    </html>
+       |}""".stripMargin
+  }
+
+  /**
+    * Records the range of tokens lexed since the last restart.
+    */
+  private class RecordingLexer(delegate: Lexer) extends DelegateLexer(delegate) with RestartableLexer {
+
+    private var relexedStart = -1
+    private var relexedEnd = -1
+
+    def reset(): Unit = {
+      relexedStart = -1
+      relexedEnd = -1
+    }
+
+    def relexedRange: (Int, Int) = (relexedStart, relexedEnd)
+
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int): Unit = {
+      super.start(buffer, startOffset, endOffset, initialState)
+      relexedStart = startOffset
+      relexedEnd = startOffset
+    }
+
+    override def advance(): Unit = {
+      relexedEnd = getTokenEnd
+      super.advance()
+    }
+
+    private def restartable = delegate.asInstanceOf[RestartableLexer]
+
+    override def getStartState: Int = restartable.getStartState
+
+    override def isRestartableState(state: Int): Boolean = restartable.isRestartableState(state)
+
+    override def start(buffer: CharSequence, startOffset: Int, endOffset: Int, initialState: Int, tokenIterator: TokenIterator): Unit =
+      start(buffer, startOffset, endOffset, initialState)
+  }
+
+  private class RecordingSyntaxHighlighter(delegate: SyntaxHighlighter, lexer: Lexer) extends SyntaxHighlighterBase {
+
+    override def getHighlightingLexer: Lexer = lexer
+
+    override def getTokenHighlights(elementType: IElementType): Array[TextAttributesKey] =
+      delegate.getTokenHighlights(elementType)
+  }
+
+  private class StubClient(project: Project, document: Document) extends HighlighterClient {
+    override def getProject: Project = project
+
+    override def repaint(start: Int, end: Int): Unit = {}
+
+    override def getDocument: Document = document
+  }
+}
@@ -0,0 +1,70 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package compiled
+
+import java.io.File
+
+import com.intellij.openapi.util.io.FileUtil
+import org.jetbrains.plugins.scala.lang.psi.compiled.DecompilationCache._
+import org.junit.Assert._
+import org.junit.{After, Before, Test}
+
+class DecompilationCacheTest {
+  private var dir: File = _
+  private var time = 0L
+
+  @Before
+  def setUp(): Unit = dir = FileUtil.createTempDirectory("decompiled", null)
+
+  @After
+  def tearDown(): Unit = FileUtil.delete(dir)
+
+  private def withStorage[T](maxSizeBytes: Long)(body: Storage => T): T = {
+    val storage = open(dir, maxSizeBytes, () => { time += 1; time })
+      .getOrElse(throw new AssertionError("Failed to open storage"))
+    try body(storage)
+    finally storage.close()
+  }
+
+  private def text(storage: Storage, key: String): Option[String] =
+    storage.get(key).map(entry => decompress(entry.compressedText))
+
+  private def entry(text: String) = Entry("Foo.scala", compress(text))
+
+  @Test
+  def testSurvivesReopening(): Unit = {
+    val sourceText = "package foo\nclass Foo {\n  def foo : scala.Int = { /* compiled code */ }\n}\n"
+
+    withStorage(Long.MaxValue)(_.put("foo", entry(sourceText)))
+
+    withStorage(Long.MaxValue) { storage =>
+      assertEquals(Some(sourceText), text(storage, "foo"))
+      assertEquals(None, text(storage, "bar"))
+    }
+  }
+
+  @Test
+  def testCompactionKeepsRecentlyUsed(): Unit = {
+    val random = new scala.util.Random(42)
+    def sourceText() = Seq.fill(20000)(random.nextPrintableChar()).mkString
+
+    val keys = (1 to 10).map("class" + _)
+    withStorage(Long.MaxValue) { storage =>
+      keys.foreach(key => storage.put(key, entry(sourceText())))
+    }
+
+    // the first ones are used last
+    withStorage(Long.MaxValue) { storage =>
+      keys.reverse.foreach(text(storage, _))
+    }
+
+    withStorage(dirSize(dir) / 2) { storage =>
+      assertTrue(text(storage, keys.head).isDefined)
+      assertTrue(text(storage, keys.last).isEmpty)
+    }
+  }
+
+  private def dirSize(dir: File): Long =
+    dir.listFiles().map(f => if (f.isDirectory) dirSize(f) else f.length).sum
+}
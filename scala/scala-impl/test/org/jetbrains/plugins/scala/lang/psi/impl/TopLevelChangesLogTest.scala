@@ -0,0 +1,51 @@
+package org.jetbrains.plugins.scala.lang.psi.impl
+
+import com.intellij.testFramework.LightVirtualFile
+import junit.framework.TestCase
+import org.junit.Assert._
+
+class TopLevelChangesLogTest extends TestCase {
+
+  private val a = new LightVirtualFile("A.scala")
+  private val b = new LightVirtualFile("B.scala")
+
+  def testChangedFiles(): Unit = {
+    val log = new TopLevelChangesLog
+    log.record(1, a)
+    log.record(2, b)
+    log.record(3, a)
+
+    assertEquals(Some(Set(a, b)), log.changedFiles(0, 3))
+    assertEquals(Some(Set(a)), log.changedFiles(2, 3))
+    assertEquals(Some(Set.empty), log.changedFiles(3, 3))
+  }
+
+  def testUnrecordedChange(): Unit = {
+    val log = new TopLevelChangesLog
+    log.record(1, a)
+    log.record(3, b)
+
+    assertEquals(None, log.changedFiles(0, 3))
+    assertEquals(Some(Set(b)), log.changedFiles(2, 3))
+    assertEquals(None, log.changedFiles(3, 4))
+  }
+
+  def testChangeWithoutFile(): Unit = {
+    val log = new TopLevelChangesLog
+    log.record(1, null)
+    log.record(2, a)
+
+    assertEquals(None, log.changedFiles(0, 2))
+    assertEquals(Some(Set(a)), log.changedFiles(1, 2))
+  }
+
+  def testEvictedChanges(): Unit = {
+    val log = new TopLevelChangesLog(capacity = 2)
+    log.record(1, a)
+    log.record(2, b)
+    log.record(3, a)
+
+    assertEquals(None, log.changedFiles(0, 3))
+    assertEquals(Some(Set(a, b)), log.changedFiles(1, 3))
+  }
+}
@@ -0,0 +1,47 @@
+package org.jetbrains.plugins.scala.lang.psi.impl.toplevel.typedef
+
+import junit.framework.TestCase
+import org.junit.Assert._
+
+class SignatureTableTest extends TestCase {
+
+  def test_chains_keep_insertion_order(): Unit = {
+    val table = new SignatureTable[String](expectedNames = 2)
+    table.add("foo", "foo1", fromSuper = false, isImplicit = false)
+    table.add("bar", "bar1", fromSuper = false, isImplicit = true)
+    table.add("foo", "foo2", fromSuper = false, isImplicit = false)
+    table.add("foo", "superFoo1", fromSuper = true, isImplicit = false)
+    table.add("foo", "superFoo2", fromSuper = true, isImplicit = false)
+
+    val foo = table.idOf("foo")
+    assertEquals(Seq("foo1", "foo2"), table.thisSignatures(foo).toSeq)
+    assertEquals(Seq("superFoo1", "superFoo2"), table.superSignatures(foo).toSeq)
+
+    val bar = table.idOf("bar")
+    assertEquals(Seq("bar1"), table.thisSignatures(bar).toSeq)
+    assertTrue(table.superSignatures(bar).isEmpty)
+    assertTrue(table.isImplicitName(bar))
+    assertFalse(table.isImplicitName(foo))
+
+    assertEquals(-1, table.idOf("baz"))
+  }
+
+  def test_growth_and_trim(): Unit = {
+    val table = new SignatureTable[String](expectedNames = 2)
+    val names = (1 to 1000).map("name" + _)
+    for (name <- names; i <- 1 to 3) {
+      table.add(name, s"$name#$i", fromSuper = i > 1, isImplicit = false)
+    }
+    table.trim()
+
+    assertEquals(names.size, table.nameCount)
+    assertEquals(names.size * 3, table.signatureCount)
+    assertEquals(names, table.namesIterator.toSeq)
+    names.foreach { name =>
+      val id = table.idOf(name)
+      assertEquals(name, table.name(id))
+      assertEquals(Seq(s"$name#1"), table.thisSignatures(id).toSeq)
+      assertEquals(Seq(s"$name#2", s"$name#3"), table.superSignatures(id).toSeq)
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package org.jetbrains.plugins.scala.lang.psi.implicits
+
+import org.jetbrains.plugins.scala.base.SimpleTestCase
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.api.statements.ScPatternDefinition
+import org.jetbrains.plugins.scala.lang.psi.types.api.{Any, Nothing}
+import org.jetbrains.plugins.scala.lang.psi.types.{ScExistentialArgument, ScType}
+import org.junit.Assert._
+
+class ImplicitCollectorCacheTest extends SimpleTestCase {
+
+  private def types(count: Int): Seq[ScType] =
+    (0 until count).map(i => ScExistentialArgument(s"T$i", Nil, Nothing, Any))
+
+  def testEvictionInOneScopeKeepsOtherScopes(): Unit = {
+    val file = "object A { import a._; val x = 1 }; object B { import b._; val y = 2 }".parse
+    val Seq(x, y) = file.depthFirst().instancesOf[ScPatternDefinition].toSeq
+
+    val cache = new ImplicitCollectorCache(fixture.getProject)
+    val keys = types(1001)
+
+    cache.put(y, keys.head, Seq.empty, computationTime = 0)
+    keys.foreach(cache.put(x, _, Seq.empty, computationTime = 0))
+
+    assertEquals(None, cache.get(x, keys.head))
+    assertEquals(Some(Seq.empty), cache.get(x, keys.last))
+    assertEquals(Some(Seq.empty), cache.get(y, keys.head))
+    assertEquals(1, cache.evictedCount)
+  }
+
+  def testClear(): Unit = {
+    val file = "object A { val x = 1 }".parse
+    val x = file.depthFirst().instancesOf[ScPatternDefinition].next()
+
+    val cache = new ImplicitCollectorCache(fixture.getProject)
+    val Seq(key) = types(1)
+    cache.put(x, key, Seq.empty, computationTime = 0)
+    assertEquals(1, cache.size())
+
+    cache.clear()
+    assertEquals(None, cache.get(x, key))
+    assertEquals(0, cache.size())
+  }
+}
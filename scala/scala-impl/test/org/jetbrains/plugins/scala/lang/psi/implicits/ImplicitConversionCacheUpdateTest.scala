@@ -0,0 +1,139 @@
+package org.jetbrains.plugins.scala.lang.psi.implicits
+
+import com.intellij.psi.search.GlobalSearchScope
+import com.intellij.psi.{PsiDocumentManager, PsiFile}
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.extensions._
+import org.jetbrains.plugins.scala.lang.psi.ElementScope
+import org.jetbrains.plugins.scala.lang.psi.impl.ScalaPsiManager
+import org.jetbrains.plugins.scala.lang.psi.implicits.ImplicitConversionCache.ImplicitConversionMap
+import org.junit.Assert._
+
+import scala.collection.mutable
+
+/**
+  * Conversions updated for changed files only must be the same as computed from scratch.
+  */
+class ImplicitConversionCacheUpdateTest extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  private val files = mutable.Map.empty[String, PsiFile]
+
+  override def tearDown(): Unit = {
+    files.clear()
+    super.tearDown()
+  }
+
+  private def elementScope = ElementScope(getProject, GlobalSearchScope.projectScope(getProject))
+
+  private def psiManager = ScalaPsiManager.instance(getProject)
+
+  private def modCount = psiManager.TopLevelModificationTracker.getModificationCount
+
+  private def conversions(map: ImplicitConversionMap): Set[String] =
+    map.keys.map(c => s"${c.containingObject.name}.${c.function.name}").toSet
+
+  private def addFile(name: String, text: String): Unit =
+    files(name) = myFixture.addFileToProject(name, text)
+
+  private def edit(name: String, text: String): Unit = inWriteCommandAction {
+    val documentManager = PsiDocumentManager.getInstance(getProject)
+    val document = documentManager.getDocument(files(name))
+    document.setText(text)
+    documentManager.commitDocument(document)
+  }(getProject)
+
+  private def checkUpdate(expected: String*)(change: => Unit): Unit = {
+    val fromCount = modCount
+    val cached = ImplicitConversionCache.computeImplicitConversionMap(elementScope)
+
+    change
+
+    val changedFiles = psiManager.topLevelChangesLog.changedFiles(fromCount, modCount)
+    assertTrue("changes are not recorded", changedFiles.isDefined)
+
+    val updated = ImplicitConversionCache.updateImplicitConversionMap(cached, changedFiles.get)(elementScope)
+    val computed = ImplicitConversionCache.computeImplicitConversionMap(elementScope)
+
+    assertEquals(expected.toSet, conversions(computed))
+    assertEquals(conversions(computed), conversions(updated))
+  }
+
+  private val foo = "class Foo\n"
+
+  def testEditConversion(): Unit = {
+    addFile("A.scala", foo + "object A { implicit def intToFoo(i: Int): Foo = null }")
+
+    checkUpdate("A.longToFoo") {
+      edit("A.scala", foo + "object A { implicit def longToFoo(l: Long): Foo = null }")
+    }
+  }
+
+  def testAddConversion(): Unit = {
+    addFile("A.scala", foo + "object A { implicit def intToFoo(i: Int): Foo = null }")
+
+    checkUpdate("A.intToFoo", "A.longToFoo") {
+      edit("A.scala", foo +
+        """object A {
+          |  implicit def intToFoo(i: Int): Foo = null
+          |  implicit def longToFoo(l: Long): Foo = null
+          |}""".stripMargin)
+    }
+  }
+
+  def testRemoveConversion(): Unit = {
+    addFile("A.scala", foo +
+      """object A {
+        |  implicit def intToFoo(i: Int): Foo = null
+        |  implicit def longToFoo(l: Long): Foo = null
+        |}""".stripMargin)
+
+    checkUpdate("A.intToFoo") {
+      edit("A.scala", foo + "object A { implicit def intToFoo(i: Int): Foo = null }")
+    }
+  }
+
+  def testAddFile(): Unit = {
+    addFile("A.scala", foo + "object A { implicit def intToFoo(i: Int): Foo = null }")
+
+    checkUpdate("A.intToFoo", "B.longToFoo") {
+      addFile("B.scala", "object B { implicit def longToFoo(l: Long): Foo = null }")
+    }
+  }
+
+  def testConversionOfBaseClassInOtherFile(): Unit = {
+    addFile("T.scala", foo + "trait T { implicit def intToFoo(i: Int): Foo = null }")
+    addFile("O.scala", "object O extends T")
+
+    checkUpdate("O.longToFoo") {
+      edit("T.scala", foo + "trait T { implicit def longToFoo(l: Long): Foo = null }")
+    }
+  }
+
+  def testAddInheritance(): Unit = {
+    addFile("T.scala", foo + "trait T { implicit def intToFoo(i: Int): Foo = null }")
+    addFile("O.scala", "object O")
+
+    checkUpdate("O.intToFoo") {
+      edit("O.scala", "object O extends T")
+    }
+  }
+
+  def testRemoveInheritance(): Unit = {
+    addFile("T.scala", foo + "trait T { implicit def intToFoo(i: Int): Foo = null }")
+    addFile("O.scala", "object O extends T")
+
+    checkUpdate() {
+      edit("O.scala", "object O")
+    }
+  }
+
+  def testInheritanceFromChangedBaseClass(): Unit = {
+    addFile("T.scala", foo + "trait T { implicit def intToFoo(i: Int): Foo = null }")
+    addFile("U.scala", "trait U")
+    addFile("O.scala", "object O extends U")
+
+    checkUpdate("O.intToFoo") {
+      edit("U.scala", "trait U extends T")
+    }
+  }
+}
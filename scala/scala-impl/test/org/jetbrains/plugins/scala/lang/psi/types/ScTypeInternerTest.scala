@@ -0,0 +1,62 @@
+package org.jetbrains.plugins.scala
+package lang
+package psi
+package types
+
+import org.jetbrains.plugins.scala.base.ScalaLightCodeInsightFixtureTestAdapter
+import org.jetbrains.plugins.scala.lang.psi.api.ScalaFile
+import org.jetbrains.plugins.scala.lang.psi.types.api.ParameterizedType
+import org.jetbrains.plugins.scala.lang.psi.types.api.designator.ScDesignatorType
+import org.junit.Assert._
+
+class ScTypeInternerTest extends ScalaLightCodeInsightFixtureTestAdapter {
+
+  private def designators: (ScDesignatorType, ScDesignatorType, ScDesignatorType) = {
+    val file = configureFromFileText("class C[T]; object O").asInstanceOf[ScalaFile]
+    val Seq(c, o) = file.typeDefinitions
+    (ScDesignatorType(c), ScDesignatorType(o), ScDesignatorType.static(o))
+  }
+
+  private def argumentIsStatic(tp: ScType): Boolean = tp match {
+    case ParameterizedType(_, Seq(designator: ScDesignatorType)) => designator.isStatic
+  }
+
+  def testEqualTypesShareInstance(): Unit = {
+    val (c, o, _) = designators
+    assertSame(ScParameterizedType(c, Seq(o)), ScParameterizedType(c, Seq(o)))
+  }
+
+  def testStaticDesignatorIsKept(): Unit = {
+    val (c, o, staticO) = designators
+
+    val plain  = ScParameterizedType(c, Seq(o))
+    val static = ScParameterizedType(c, Seq(staticO))
+
+    assertEquals(plain, static)
+    assertFalse(argumentIsStatic(plain))
+    assertTrue(argumentIsStatic(static))
+  }
+
+  def testNonStaticDesignatorIsKept(): Unit = {
+    val (c, o, staticO) = designators
+
+    val static = ScParameterizedType(c, Seq(staticO))
+    val plain  = ScParameterizedType(c, Seq(o))
+
+    assertTrue(argumentIsStatic(static))
+    assertFalse(argumentIsStatic(plain))
+  }
+
+  def testNestedStaticDesignatorIsKept(): Unit = {
+    val (c, o, staticO) = designators
+
+    val plain  = ScParameterizedType(c, Seq(ScParameterizedType(c, Seq(o))))
+    val static = ScParameterizedType(c, Seq(ScParameterizedType(c, Seq(staticO))))
+
+    assertEquals(plain, static)
+    assertNotSame(plain, static)
+    static match {
+      case ParameterizedType(_, Seq(inner)) => assertTrue(argumentIsStatic(inner))
+    }
+  }
+}